@@ -0,0 +1,129 @@
+package benchmarks;
+
+import benchmarks.GraphShapes.Backend;
+import benchmarks.GraphShapes.Shape;
+import graph.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the MGraph operations and of the algorithms Graph delegates to,
+ * for every shape, size and backend. Run with gradle jmh, the gc profiler reports
+ * the allocation rate next to each score.
+ *
+ * The algorithm benchmarks call the engines Graph itself uses, on the backend under
+ * test, since Graph only wraps ALGraph.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+    private static final int PROBES = 1024;
+
+    @Param({"RANDOM", "GRID", "SCALE_FREE"})
+    public Shape shape;
+
+    @Param({"256", "1024", "4096"})
+    public int size;
+
+    @Param({"AL", "AM", "COMPACT_AM", "VERSIONED"})
+    public Backend backend;
+
+    private List<Vertex> vertices;
+    private List<Edge<Vertex>> edges;
+    private MGraph<Vertex, Edge<Vertex>> graph;
+    private Vertex[] sources;
+    private Vertex[] sinks;
+    private int probe;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vertices = GraphShapes.vertices(size);
+        edges = GraphShapes.edges(shape, vertices, 42);
+        graph = load(backend.create(size), vertices, edges);
+
+        /* half the probe pairs are edges, the other half random pairs */
+        Random rng = new Random(7);
+        sources = new Vertex[PROBES];
+        sinks = new Vertex[PROBES];
+        for (int i = 0; i < PROBES; i++) {
+            if (i % 2 == 0) {
+                Edge<Vertex> edge = edges.get(rng.nextInt(edges.size()));
+                sources[i] = edge.v1();
+                sinks[i] = edge.v2();
+            } else {
+                sources[i] = vertices.get(rng.nextInt(size));
+                sinks[i] = vertices.get(rng.nextInt(size));
+            }
+        }
+    }
+
+    private static MGraph<Vertex, Edge<Vertex>> load(MGraph<Vertex, Edge<Vertex>> graph,
+                                                     List<Vertex> vertices, List<Edge<Vertex>> edges) {
+        vertices.forEach(graph::addVertex);
+        edges.forEach(graph::addEdge);
+        return graph;
+    }
+
+    private int nextProbe() {
+        probe = (probe + 1) & (PROBES - 1);
+        return probe;
+    }
+
+    @Benchmark
+    public MGraph<Vertex, Edge<Vertex>> addEdgeBulkLoad() {
+        return load(backend.create(size), vertices, edges);
+    }
+
+    @Benchmark
+    public ALGraph<Vertex, Edge<Vertex>> builderBulkLoad() {
+        return new GraphBuilder<Vertex, Edge<Vertex>>().addVertices(vertices).addEdges(edges).buildALGraph();
+    }
+
+    @Benchmark
+    public boolean edgeLookup() {
+        int i = nextProbe();
+        return graph.edge(sources[i], sinks[i]);
+    }
+
+    @Benchmark
+    public int getNeighbours() {
+        int sum = 0;
+        for (Map.Entry<Vertex, Edge<Vertex>> neighbour : graph.getNeighbours(sources[nextProbe()]).entrySet()) {
+            sum += neighbour.getValue().length();
+        }
+        return sum;
+    }
+
+    @Benchmark
+    public List<Vertex> shortestPath() {
+        int i = nextProbe();
+        return new DijkstraEngine<>(graph).shortestPath(sources[i], sinks[i]);
+    }
+
+    @Benchmark
+    public List<Vertex> bidirectionalShortestPath() {
+        int i = nextProbe();
+        return new DijkstraEngine<>(graph, PathSearch.BIDIRECTIONAL).shortestPath(sources[i], sinks[i]);
+    }
+
+    @Benchmark
+    public int diameter() {
+        return new EccentricityEngine<>(new CsrGraph<>(graph)).diameter();
+    }
+
+    @Benchmark
+    public Vertex getCenter() {
+        return new EccentricityEngine<>(new CsrGraph<>(graph)).center();
+    }
+
+    @Benchmark
+    public Set<ImGraph<Vertex, Edge<Vertex>>> minimumSpanningComponents() {
+        return new KruskalEngine<>(graph).minimumSpanningComponents(4);
+    }
+}
@@ -0,0 +1,144 @@
+package benchmarks;
+
+import graph.*;
+
+import java.util.*;
+
+/**
+ * Seeded generators for the benchmark workloads. Every shape is connected,
+ * so pruneRandomEdges can run on it, and the same seed always yields the same graph.
+ */
+public final class GraphShapes {
+    private static final int MAX_LENGTH = 100;
+
+    /**
+     * The kinds of graph the benchmarks run on
+     */
+    public enum Shape {
+        /** a random spanning tree plus random edges, about 6 edges per vertex */
+        RANDOM,
+        /** a square lattice with every vertex joined to its right and lower neighbour */
+        GRID,
+        /** preferential attachment with 3 edges per new vertex, a few vertices become hubs */
+        SCALE_FREE
+    }
+
+    /**
+     * The kinds of MGraph the benchmarks compare
+     */
+    public enum Backend {
+        AL,
+        AM,
+        COMPACT_AM,
+        VERSIONED;
+
+        /**
+         * Create an empty graph of this kind
+         *
+         * @param size the number of vertices the graph must be able to hold
+         * @return an empty graph
+         */
+        public MGraph<Vertex, Edge<Vertex>> create(int size) {
+            switch (this) {
+                case AL:
+                    return new ALGraph<>();
+                case AM:
+                    return new AMGraph<>(size);
+                case COMPACT_AM:
+                    return new CompactAMGraph<>(size, WeightEncoding.BYTE);
+                case VERSIONED:
+                    return new VersionedGraph<>();
+                default:
+                    throw new IllegalStateException("Unknown backend " + this);
+            }
+        }
+    }
+
+    private GraphShapes() {
+    }
+
+    /**
+     * Obtain the vertices of a workload
+     *
+     * @param size the number of vertices
+     * @return vertices with ids 0 to size - 1
+     */
+    public static List<Vertex> vertices(int size) {
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+        }
+        return vertices;
+    }
+
+    /**
+     * Generate the edges of a workload
+     *
+     * @param shape    the kind of graph
+     * @param vertices the vertices to join, at least 4 of them
+     * @param seed     seeds the choice of edges and lengths
+     * @return a duplicate free list of edges connecting all vertices
+     */
+    public static List<Edge<Vertex>> edges(Shape shape, List<Vertex> vertices, long seed) {
+        Random rng = new Random(seed);
+        int n = vertices.size();
+        Set<Long> pairs = new HashSet<>();
+        List<Edge<Vertex>> edges = new ArrayList<>();
+
+        switch (shape) {
+            case RANDOM:
+                for (int i = 1; i < n; i++) {
+                    join(vertices, i, rng.nextInt(i), rng, pairs, edges);
+                }
+                while (edges.size() < 3 * n) {
+                    join(vertices, rng.nextInt(n), rng.nextInt(n), rng, pairs, edges);
+                }
+                break;
+            case GRID:
+                int side = (int) Math.ceil(Math.sqrt(n));
+                for (int i = 0; i < n; i++) {
+                    if ((i + 1) % side != 0 && i + 1 < n) {
+                        join(vertices, i, i + 1, rng, pairs, edges);
+                    }
+                    if (i + side < n) {
+                        join(vertices, i, i + side, rng, pairs, edges);
+                    }
+                }
+                break;
+            case SCALE_FREE:
+                /* every edge end is recorded once, so sampling it picks vertices by degree */
+                List<Integer> ends = new ArrayList<>();
+                for (int i = 1; i < 4; i++) {
+                    for (int j = 0; j < i; j++) {
+                        join(vertices, i, j, rng, pairs, edges);
+                        ends.add(i);
+                        ends.add(j);
+                    }
+                }
+                for (int i = 4; i < n; i++) {
+                    int added = 0;
+                    while (added < 3) {
+                        int target = ends.get(rng.nextInt(ends.size()));
+                        if (join(vertices, i, target, rng, pairs, edges)) {
+                            ends.add(target);
+                            added++;
+                        }
+                    }
+                    for (int k = 0; k < 3; k++) {
+                        ends.add(i);
+                    }
+                }
+                break;
+        }
+        return edges;
+    }
+
+    private static boolean join(List<Vertex> vertices, int i, int j, Random rng,
+                                Set<Long> pairs, List<Edge<Vertex>> edges) {
+        if (i == j || !pairs.add(((long) Math.min(i, j) << 32) | Math.max(i, j))) {
+            return false;
+        }
+        edges.add(new Edge<>(vertices.get(i), vertices.get(j), 1 + rng.nextInt(MAX_LENGTH)));
+        return true;
+    }
+}
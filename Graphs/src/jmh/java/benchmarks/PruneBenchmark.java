@@ -0,0 +1,55 @@
+package benchmarks;
+
+import benchmarks.GraphShapes.Backend;
+import benchmarks.GraphShapes.Shape;
+import graph.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of Graph.pruneRandomEdges. Pruning mutates the graph, so every
+ * invocation gets a freshly loaded copy; loading is not part of the score.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PruneBenchmark {
+    @Param({"RANDOM", "GRID", "SCALE_FREE"})
+    public Shape shape;
+
+    @Param({"256", "1024", "4096"})
+    public int size;
+
+    @Param({"AL", "AM", "COMPACT_AM", "VERSIONED"})
+    public Backend backend;
+
+    private List<Vertex> vertices;
+    private List<Edge<Vertex>> edges;
+    private Graph<Vertex, Edge<Vertex>> graph;
+    private Random rng;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        vertices = GraphShapes.vertices(size);
+        edges = GraphShapes.edges(shape, vertices, 42);
+        rng = new Random(7);
+    }
+
+    @Setup(Level.Invocation)
+    public void load() {
+        graph = new Graph<>(backend.create(size));
+        vertices.forEach(graph::addVertex);
+        edges.forEach(graph::addEdge);
+    }
+
+    @Benchmark
+    public Graph<Vertex, Edge<Vertex>> pruneRandomEdges() {
+        graph.pruneRandomEdges(rng);
+        return graph;
+    }
+}
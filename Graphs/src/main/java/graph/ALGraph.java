@@ -1,19 +1,56 @@
 package graph;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 
 public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
     private Map<V,List<E>> aLGraph;
+    private Map<VertexPair<V>,E> edgeIndex;
+    private final ReadMode readMode;
     // Rep Invariant:
-    //           A map of vertices in the graph with all of their specific edges
+    //           A map of vertices in the graph with all of their specific edges.
+    //           edgeIndex maps the unordered end points of every edge in aLGraph to that edge,
+    //           and holds nothing else.
     // Abstract Function:
     //          something
 
     /**
-     * Constructor method for ALGraph
+     * Constructor method for ALGraph, reads return unmodifiable views sharing the stored
+     * vertices and edges, which must not be mutated
      */
     public ALGraph(){
+        this(ReadMode.VIEW);
+    }
+
+    /**
+     * Constructor method for ALGraph
+     *
+     * @param readMode whether reads return views of the graph or cloned copies
+     */
+    public ALGraph(ReadMode readMode){
         aLGraph = new HashMap<>();
+        edgeIndex = new HashMap<>();
+        this.readMode = readMode;
+    }
+
+    /**
+     * Fill an empty graph in one pass, without the checks of addVertex and addEdge
+     *
+     * @param vertices distinct vertices
+     * @param degrees  the number of edges incident on each vertex, in the order of vertices
+     * @param edges    edges between vertices, no two of them between the same vertices
+     */
+    void load(List<V> vertices, int[] degrees, List<E> edges){
+        aLGraph = new HashMap<>(vertices.size() * 4 / 3 + 1);
+        edgeIndex = new HashMap<>(edges.size() * 4 / 3 + 1);
+        for (int i = 0; i < vertices.size(); i++){
+            aLGraph.put(vertices.get(i), new ArrayList<>(degrees[i]));
+        }
+        for (E e : edges){
+            aLGraph.get(e.v1()).add(e);
+            aLGraph.get(e.v2()).add(e);
+            edgeIndex.put(new VertexPair<>(e.v1(), e.v2()), e);
+        }
     }
 
     /**
@@ -50,14 +87,9 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
     public boolean addEdge(E e){
         if (!edge(e)){
             if (vertex(e.v1()) && vertex(e.v2())){
-                List<E> vEdges = aLGraph.get(e.v1());
-                vEdges.add(e);
-                aLGraph.replace(e.v1(), vEdges);
-
-                vEdges = aLGraph.get(e.v2());
-                vEdges.add(e);
-                aLGraph.replace(e.v2(), vEdges);
-
+                aLGraph.get(e.v1()).add(e);
+                aLGraph.get(e.v2()).add(e);
+                edgeIndex.put(new VertexPair<>(e.v1(), e.v2()), e);
                 return true;
             }
         }
@@ -71,14 +103,7 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return true if e is an edge in the graph and false otherwise
      */
     public boolean edge(E e){
-        for (List<E> edgeLists : aLGraph.values()){
-            for (E edge : edgeLists){
-                if (edge.equals(e)){
-                    return true;
-                }
-            }
-        }
-        return false;
+        return edgeIndex.containsKey(new VertexPair<>(e.v1(), e.v2()));
     }
 
     /**
@@ -89,16 +114,7 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return true of the v1-v2 edge is part of the graph and false otherwise
      */
     public boolean edge(V v1, V v2){
-        for (List<E> edgeLists : aLGraph.values()){
-            for (E edge : edgeLists){
-                if (edge.v1().equals(v1) || edge.v2().equals(v1)) {
-                    if (edge.v1().equals(v2) || edge.v2().equals(v2)) {
-                        return true;
-                    }
-                }
-            }
-        }
-        return false;
+        return edgeIndex.containsKey(new VertexPair<>(v1, v2));
     }
 
     /**
@@ -109,18 +125,8 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
      */
     public int edgeLength(V v1, V v2){
-        int length = -1;
-        if (edge(v1, v2)){
-            List<E> edges = aLGraph.get(v1);
-            for (E edge : edges){
-                if (edge.v1().equals(v1) || edge.v2().equals(v1)) {
-                    if (edge.v1().equals(v2) || edge.v2().equals(v2)) {
-                        length = edge.length();
-                    }
-                }
-            }
-        }
-        return length;
+        E edge = edgeIndex.get(new VertexPair<>(v1, v2));
+        return edge == null ? -1 : edge.length();
     }
 
     /**
@@ -130,17 +136,9 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      */
     public int edgeLengthSum(){
         int sum = 0;
-        Set<E> allEdges = new HashSet<>();
-        for (List<E> edgeLists : aLGraph.values()){
-            for (E edge : edgeLists){
-                allEdges.add(edge);
-            }
-        }
-
-        for (E edge : allEdges){
+        for (E edge : edgeIndex.values()){
             sum += edge.length();
         }
-
         return sum;
     }
 
@@ -154,9 +152,10 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         V v1 = e.v1();
         V v2 = e.v2();
 
-        if (edge(v1, v2)){
-            aLGraph.get(v1).remove(e);
-            aLGraph.get(v2).remove(e);
+        E edge = edgeIndex.remove(new VertexPair<>(v1, v2));
+        if (edge != null){
+            aLGraph.get(v1).remove(edge);
+            aLGraph.get(v2).remove(edge);
             return true;
         }
 
@@ -171,18 +170,9 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      */
     public boolean remove(V v){
         if (aLGraph.containsKey(v)){
-            Set<E> containingEdges = new HashSet<>();
-
-            for (List<E> edgeList : aLGraph.values()){
-                for (E edge : edgeList){
-                    if (edge.v1().equals(v) || edge.v2().equals(v)){
-                        containingEdges.add(edge);
-                    }
-                }
-            }
-
-            for (E edge : containingEdges){
-                remove(edge);
+            for (E edge : aLGraph.get(v)){
+                edgeIndex.remove(new VertexPair<>(edge.v1(), edge.v2()));
+                aLGraph.get(edge.distinctVertex(v)).remove(edge);
             }
 
             aLGraph.remove(v);
@@ -194,11 +184,15 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
 
     /**
      * Obtain a set of all vertices in the graph.
-     * Access to this set **should not** permit graph mutations.
+     * Access to this set **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
      *
      * @return a set of all vertices in the graph
      */
     public Set<V> allVertices(){
+        if (readMode == ReadMode.VIEW){
+            return Collections.unmodifiableSet(aLGraph.keySet());
+        }
         Set<V> allVertices = new HashSet<>();
 
         for (V vertices : aLGraph.keySet()){
@@ -211,12 +205,18 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
 
     /**
      * Obtain a set of all edges incident on v.
-     * Access to this set **should not** permit graph mutations.
+     * Access to this set **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
+     *
+     * In ReadMode.VIEW the set is live even if v is not part of the graph yet.
      *
      * @param v the vertex of interest
      * @return all edges incident on v
      */
     public Set<E> allEdges(V v){
+        if (readMode == ReadMode.VIEW){
+            return GraphViews.set(() -> aLGraph.getOrDefault(v, Collections.emptyList()));
+        }
         Set<E> allEdgesV = new HashSet<>();
         List<E> edges = aLGraph.get(v);
 
@@ -230,30 +230,62 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
 
     /**
      * Obtain a set of all edges in the graph.
-     * Access to this set **should not** permit graph mutations.
+     * Access to this set **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
      *
      * @return all edges in the graph
      */
     public Set<E> allEdges(){
+        if (readMode == ReadMode.VIEW){
+            return GraphViews.set(edgeIndex.values(), this::indexed);
+        }
         Set<E> allEdgesV = new HashSet<>();
 
-        for (List<E> edgeList : aLGraph.values()){
-            for (E edge : edgeList){
-                Edge e = edge.clone();
-                allEdgesV.add((E) e);
-            }
+        for (E edge : edgeIndex.values()){
+            Edge e = edge.clone();
+            allEdgesV.add((E) e);
         }
         return allEdgesV;
     }
 
+    /**
+     * Visit every neighbour w of vertex v together with the stored v-w edge, walking
+     * the adjacency list of v directly. The graph must not be mutated while the visit is in progress.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor){
+        for (E edge : aLGraph.getOrDefault(v, Collections.emptyList())){
+            visitor.accept(edge.distinctVertex(v), edge);
+        }
+    }
+
+    /**
+     * Find the edge that connects two vertices
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the stored v1-v2 edge, or null if there is none
+     */
+    public E getEdge(V v1, V v2){
+        return edgeIndex.get(new VertexPair<>(v1, v2));
+    }
+
     /**
      * Obtain all the neighbours of vertex v.
-     * Access to this map **should not** permit graph mutations.
+     * Access to this map **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
+     *
+     * In ReadMode.VIEW the map is live even if v is not part of the graph yet.
      *
      * @param v is the vertex whose neighbourhood we want.
      * @return a map containing each vertex w that neighbors v and the edge between v and w.
      */
     public Map<V, E> getNeighbours(V v){
+        if (readMode == ReadMode.VIEW){
+            return GraphViews.neighbours(v, () -> aLGraph.getOrDefault(v, Collections.emptyList()));
+        }
         Map<V,E> neighbours = new HashMap<>();
         List<E> edgeList = new ArrayList<>(aLGraph.get(v));
 
@@ -271,5 +303,11 @@ public class ALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         return neighbours;
     }
 
-
+    private boolean indexed(Object o){
+        if (o instanceof Edge<?>){
+            Edge<?> e = (Edge<?>) o;
+            return edgeIndex.containsKey(new VertexPair<>(e.v1(), e.v2()));
+        }
+        return false;
+    }
 }
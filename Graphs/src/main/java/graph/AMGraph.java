@@ -1,38 +1,140 @@
 package graph;
 
 import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int[] EMPTY_ROW = new int[0];
 
-    private List<V> vertices = new ArrayList<>();
+    private final VertexIndex<V> vertices = new VertexIndex<>();
     private int[][] graphMatrix;
     private int maxVertices;
+    private int tombstones;
+    private final ReadMode readMode;
+    // Rep Invariant:
+    //          graphMatrix has at least vertices.capacity() rows, a row may be shorter than that and
+    //          reads as -1 past its end. Slots without a vertex are tombstones, counted by tombstones,
+    //          their rows are empty and the entries in their columns are stale and never read
+    //          until the slot is reused, which clears them.
+    // Abstract Function:
+    //          Represents an undirected graph with an edge vertices.vertexAt(i)-vertices.vertexAt(j)
+    //          of length graphMatrix[i][j] for each pair of live slots with graphMatrix[i][j] != -1.
 
     /**
-     * Create an empty graph with an upper-bound on the number of vertices
+     * Create an empty graph that grows as vertices are added,
+     * reads return unmodifiable collections sharing the stored vertices, which must not be mutated
+     */
+    public AMGraph() {
+        this(ReadMode.VIEW);
+    }
+
+    /**
+     * Create an empty graph that grows as vertices are added
+     * @param readMode whether reads share the stored vertices or hand out clones
+     */
+    public AMGraph(ReadMode readMode) {
+        this(Integer.MAX_VALUE, INITIAL_CAPACITY, readMode);
+    }
+
+    /**
+     * Create an empty graph with an upper-bound on the number of vertices,
+     * reads return unmodifiable collections sharing the stored vertices, which must not be mutated
      * @param maxVertices is greater than 1
      */
 
     public AMGraph(int maxVertices) {
+        this(maxVertices, ReadMode.VIEW);
+    }
+
+    /**
+     * Create an empty graph with an upper-bound on the number of vertices
+     * @param maxVertices is greater than 1
+     * @param readMode whether reads share the stored vertices or hand out clones
+     */
+    public AMGraph(int maxVertices, ReadMode readMode) {
+        this(maxVertices, maxVertices, readMode);
+    }
+
+    private AMGraph(int maxVertices, int capacity, ReadMode readMode) {
+        this.readMode = readMode;
         this.maxVertices = maxVertices;
-        this.graphMatrix = new int[maxVertices][maxVertices]; //created an n by n matrix represented as 2d array
-        Arrays.stream(graphMatrix).forEach(row -> Arrays.fill(row, -1));
+        this.graphMatrix = new int[capacity][];
+        Arrays.fill(graphMatrix, EMPTY_ROW); //rows are allocated on their first edge
     }
 
     /**
-     * Add a vertex to the graph
+     * Add a vertex to the graph.
+     * When every slot of the matrix is taken, a growable graph doubles its capacity, so adding is
+     * amortized O(1). Tombstones left by removed vertices are reclaimed with compact() once they fill
+     * half of the slots, and a graph at its upper-bound reuses a single tombstone in O(n) instead.
      *
      * @param v vertex to add
      * @return true if the vertex was added successfully and false otherwise
      */
     public boolean addVertex(V v) {
-        if(!vertices.contains(v) && vertices.size() < maxVertices
-                && vertices.stream().noneMatch(vertex -> vertex.equals(v))) {
-            return vertices.add(v);
-        } else {
+        if(vertices.contains(v) || vertices.size() >= maxVertices) {
             return false;
         }
+        if(vertices.capacity() == graphMatrix.length) {
+            if(tombstones > 0 && tombstones >= graphMatrix.length / 2) {
+                compact();
+            } else if(graphMatrix.length < maxVertices) {
+                graphMatrix = Arrays.copyOf(graphMatrix, (int) Math.min(2L * graphMatrix.length, maxVertices));
+                Arrays.fill(graphMatrix, vertices.capacity(), graphMatrix.length, EMPTY_ROW);
+            } else {
+                reuseTombstone();
+            }
+        }
+        vertices.intern(v);
+        return true;
+    }
+
+    /**
+     * Hand the slot of one removed vertex to the next vertex, clearing the stale entries of its column
+     */
+    private void reuseTombstone() {
+        int slot = 0;
+        while(vertices.vertexAt(slot) != null) {
+            slot++;
+        }
+        for(int i = 0; i < vertices.capacity(); i++) {
+            if(graphMatrix[i].length > slot) {
+                graphMatrix[i][slot] = -1;
+            }
+        }
+        vertices.reclaim(slot);
+        tombstones--;
+    }
+
+    /**
+     * Reclaim the slots of removed vertices in one pass over the matrix,
+     * renumbering the remaining vertices densely in their current order.
+     * Runs in O(n^2) for n slots, addVertex only runs it once tombstones fill half of the slots.
+     */
+    public void compact() {
+        if(tombstones == 0) {
+            return;
+        }
+        int[] moved = vertices.compact();
+        int[][] matrix = new int[graphMatrix.length][];
+        Arrays.fill(matrix, EMPTY_ROW);
+        for(int i = 0; i < moved.length; i++) {
+            if(moved[i] == -1 || graphMatrix[i].length == 0) {
+                continue;
+            }
+            int[] row = new int[vertices.capacity()];
+            Arrays.fill(row, -1);
+            for(int j = 0; j < Math.min(moved.length, graphMatrix[i].length); j++) {
+                if(moved[j] != -1) {
+                    row[moved[j]] = graphMatrix[i][j];
+                }
+            }
+            matrix[moved[i]] = row;
+        }
+        graphMatrix = matrix;
+        tombstones = 0;
     }
 
     /**
@@ -54,28 +156,45 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         return true;
     }
 
-    private List<V> edgeToVertex(E e) {
-        List<V> vList = new ArrayList<>();
-        V v1 = e.v1();
-        V v2 = e.v2();
-        vList.add(v1);
-        vList.add(v2);
-        return vList;
+    private int length(int index1, int index2) {
+        int[] row = graphMatrix[index1];
+        return index2 < row.length ? row[index2] : -1;
+    }
+
+    private void setLength(int index1, int index2, int edgeLength) {
+        int[] row = graphMatrix[index1];
+        if(index2 >= row.length) {
+            if(edgeLength == -1) {
+                return;
+            }
+            int oldLength = row.length;
+            row = Arrays.copyOf(row, graphMatrix.length);
+            Arrays.fill(row, oldLength, row.length, -1);
+            graphMatrix[index1] = row;
+        }
+        row[index2] = edgeLength;
+    }
+
+    /**
+     * Obtain the number of entries of a row that may hold an edge
+     */
+    private int rowLength(int index) {
+        return Math.min(graphMatrix[index].length, vertices.capacity());
     }
 
     private boolean checkEdge(int index1, int index2) {
-        return graphMatrix[index1][index2] != -1
-                && graphMatrix[index2][index1] != -1;
+        return length(index1, index2) != -1
+                && length(index2, index1) != -1;
     }
 
     private boolean checkEdge(int index1, int index2, int edgeLength) {
-        return graphMatrix[index1][index2] == edgeLength
-                && graphMatrix[index2][index1] == edgeLength;
+        return length(index1, index2) == edgeLength
+                && length(index2, index1) == edgeLength;
     }
 
     private boolean addEdge(int index1, int index2, int edgeLength) {
-        graphMatrix[index1][index2] = edgeLength;
-        graphMatrix[index2][index1] = edgeLength;
+        setLength(index1, index2, edgeLength);
+        setLength(index2, index1, edgeLength);
         return true;
     }
 
@@ -86,11 +205,10 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return true if the edge was successfully added and false otherwise
      */
     public boolean addEdge(E e) {
-        List<V> vList = edgeToVertex(e);
-        if(!vertex(vList)) {
+        int[] indices = {vertices.indexOf(e.v1()), vertices.indexOf(e.v2())};
+        if(indices[0] == -1 || indices[1] == -1) {
             return false;
         }
-        int[] indices = {vertices.indexOf(vList.get(0)), vertices.indexOf(vList.get(1))};
         if(checkEdge(indices[0],indices[1],-1)) {
             return addEdge(indices[0],indices[1],e.length());
         }
@@ -104,11 +222,10 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return true if e is an edge in the graph and false otherwise
      */
     public boolean edge(E e) {
-        List<V> vList = edgeToVertex(e);
-        if(!vertex(vList)) {
+        int[] indices = {vertices.indexOf(e.v1()), vertices.indexOf(e.v2())};
+        if(indices[0] == -1 || indices[1] == -1) {
             return false;
         }
-        int[] indices = {vertices.indexOf(vList.get(0)), vertices.indexOf(vList.get(1))};
         return checkEdge(indices[0],indices[1],e.length());
     }
 
@@ -121,10 +238,10 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      */
 
     public boolean edge(V v1, V v2) {
-        if(!vertex(v1) || !vertex(v2)) {
+        int[] indices = {vertices.indexOf(v1), vertices.indexOf(v2)};
+        if(indices[0] == -1 || indices[1] == -1) {
             return false;
         }
-        int[] indices = {vertices.indexOf(v1), vertices.indexOf(v2)};
         return checkEdge(indices[0], indices[1]);
     }
 
@@ -136,10 +253,11 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      * @return the length of the v1-v2 edge if this edge is part of the graph
      */
     public int edgeLength(V v1, V v2) {
-        if(!vertex(v1) || !vertex(v2)) {
+        int[] indices = {vertices.indexOf(v1), vertices.indexOf(v2)};
+        if(indices[0] == -1 || indices[1] == -1) {
             return -1;
         }
-        return graphMatrix[vertices.indexOf(v1)][vertices.indexOf(v2)];
+        return length(indices[0], indices[1]);
     }
 
     /**
@@ -149,9 +267,9 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
      */
     public int edgeLengthSum() {
         int sum = 0;
-        for(int i = 0; i < maxVertices; i++) {
-            for(int j = i; j < maxVertices; j++) {
-                if(graphMatrix[i][j] != -1) {
+        for(int i = 0; i < vertices.capacity(); i++) {
+            for(int j = i; j < rowLength(i); j++) {
+                if(graphMatrix[i][j] != -1 && vertices.vertexAt(j) != null) {
                     sum += graphMatrix[i][j];
                 }
             }
@@ -174,46 +292,36 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
     }
 
     /**
-     * Remove a vertex from the graph
+     * Remove a vertex from the graph in O(1).
+     * Its slot becomes a tombstone until compact() runs or addVertex reuses it.
      *
      * @param v the vertex to remove
      * @return true if v was successfully removed and false otherwise
      */
     public boolean remove(V v) {
-        if(vertex(v)) {
-            int index = vertices.indexOf(v);
-            Set<V> neighbors = getNeighbours(v).keySet();
-            neighbors.forEach((neighbor) -> {
-                int indexNeighbor = vertices.indexOf(neighbor);
-                addEdge(index, indexNeighbor, -1);
-            });
-            update(index);
-            return vertices.remove(v);
-        }
-        return false;
-    }
-
-    private void update(int index) {
-        for(int i = index; i < maxVertices - 1; i++) {
-            for(int j = 0; i < index ; j++) {
-                graphMatrix[i][j] = graphMatrix[i+1][j];
-                graphMatrix[j][i] = graphMatrix[j][i+1];
-            }
+        int index = vertices.retire(v);
+        if(index == -1) {
+            return false;
         }
-        //not sure if this will work
-        Arrays.fill(graphMatrix, maxVertices-1, maxVertices, -1);
+        graphMatrix[index] = EMPTY_ROW;
+        tombstones++;
+        return true;
     }
 
 
     /**
      * Obtain a set of all vertices in the graph.
-     * Access to this set **should not** permit graph mutations.
+     * Access to this set **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
      *
      * @return a set of all vertices in the graph
      */
     public Set<V> allVertices() {
+        if(readMode == ReadMode.VIEW) {
+            return vertices.vertices();
+        }
         Set<V> verticesList = new HashSet<>();
-        for (V vertex : vertices){
+        for (V vertex : vertices.vertices()){
             Vertex v = vertex.clone();
             verticesList.add((V) v);
         }
@@ -222,7 +330,8 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
 
     /**
      * Obtain a set of all vertices incident on v.
-     * Access to this set **should not** permit graph mutations.
+     * Access to this set **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
      *
      * @param v the vertex of interest
      * @return all edges incident on v
@@ -231,43 +340,56 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         Set<E> edges = new HashSet<>();
         if(vertex(v)) {
             int index = vertices.indexOf(v);
-            for(int i=0; i<maxVertices; i++) {
-                if(checkEdge(index, i)) {
-                    Edge edge = new Edge(vertices.get(i), vertices.get(index), graphMatrix[i][index]);
+            for(int i=0; i<rowLength(index); i++) {
+                if(vertices.vertexAt(i) != null && checkEdge(index, i)) {
+                    Edge edge = new Edge(vertices.vertexAt(i), vertices.vertexAt(index), graphMatrix[index][i]);
                     edges.add((E) edge);
                 }
             }
         }
+        if(readMode == ReadMode.VIEW) {
+            return Collections.unmodifiableSet(edges);
+        }
         return edges;
     }
 
     /**
      * Obtain a set of all edges in the graph.
-     * Access to this set **should not** permit graph mutations.
+     * Access to this set **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
      *
      * @return all edges in the graph
      */
     public Set<E> allEdges() {
         Set<E> edges = new HashSet<>();
-        for(int i = 0; i < maxVertices; i++) {
-            for(int j = i; j < maxVertices; j++) {
-                if(graphMatrix[i][j] != -1) {
-                    Edge edge = new Edge(vertices.get(i), vertices.get(j), graphMatrix[i][j]);
+        for(int i = 0; i < vertices.capacity(); i++) {
+            for(int j = i; j < rowLength(i); j++) {
+                if(graphMatrix[i][j] != -1 && vertices.vertexAt(j) != null) {
+                    Edge edge = new Edge(vertices.vertexAt(i), vertices.vertexAt(j), graphMatrix[i][j]);
                     edges.add((E) edge);
                 }
             }
         }
+        if(readMode == ReadMode.VIEW) {
+            return Collections.unmodifiableSet(edges);
+        }
         return edges;
     }
 
     /**
      * Obtain all the neighbours of vertex v.
-     * Access to this map **should not** permit graph mutations.
+     * Access to this map **should not** permit graph mutations. In ReadMode.VIEW it shares the
+     * graph's own vertices and edges, which must not be mutated either (see ReadMode.VIEW).
      *
      * @param v is the vertex whose neighbourhood we want.
      * @return a map containing each vertex w that neighbors v and the edge between v and w.
      */
     public Map<V, E> getNeighbours(V v) {
+        if(readMode == ReadMode.VIEW) {
+            Map<V, E> neighbours = new HashMap<>();
+            forEachNeighbour(v, neighbours::put);
+            return Collections.unmodifiableMap(neighbours);
+        }
         Map<V, E> neighbours = new HashMap<>();
         Set<E> incidentEdges = allEdges(v);
         for(E edge : incidentEdges) {
@@ -280,4 +402,30 @@ public class AMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E
         }
         return neighbours;
     }
+
+    /**
+     * Visit every neighbour w of vertex v together with the v-w edge, walking the row of v
+     * directly. Edges are built on demand as allEdges(v) builds them, nothing is collected or cloned.
+     * The graph must not be mutated while the visit is in progress.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        int index = vertices.indexOf(v);
+        if(index == -1) {
+            return;
+        }
+        for(int i = 0; i < rowLength(index); i++) {
+            V neighbour = vertices.vertexAt(i);
+            if(neighbour != null && checkEdge(index, i)) {
+                visitor.accept(neighbour, newEdge(neighbour, vertices.vertexAt(index), graphMatrix[index][i]));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E newEdge(V v1, V v2, int length) {
+        return (E) new Edge<>(v1, v2, length);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * An adjacency matrix graph with compact storage.
+ *
+ * Edge presence is one bit per ordered vertex pair, kept as rows of longs, so the neighbours
+ * of a vertex are found a word at a time with Long.numberOfTrailingZeros. The graph is
+ * undirected, so each length is stored once, for the pair (i, j) with i < j, in a packed upper
+ * triangle whose width is set by a WeightEncoding. With BYTE lengths a graph takes about
+ * n^2 / 8 + n^2 / 2 bytes against the 4 * n^2 bytes of AMGraph.
+ *
+ * Edges handed out are built on demand as plain Edge objects, like AMGraph does,
+ * and reads return unmodifiable collections.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class CompactAMGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
+    private final VertexIndex<V> vertices = new VertexIndex<>();
+    private final int maxVertices;
+    private final int words;
+    private final long[] presence;
+    private final WeightEncoding encoding;
+    private final byte[] byteWeights;
+    private final short[] shortWeights;
+    private final int[] intWeights;
+    private int edgeLengthSum;
+    // Rep Invariant:
+    //          Bit j of row i is set iff bit i of row j is set, never for i == j, and only for slots
+    //          of interned vertices. Row i is presence[i * words .. (i + 1) * words). Only the weight
+    //          array of encoding is allocated (none for UNIT) and edgeLengthSum is the sum of the
+    //          lengths of all set pairs.
+    // Abstract Function:
+    //          Represents an undirected graph with an edge vertices.vertexAt(i)-vertices.vertexAt(j)
+    //          of length weight(i, j) for each set bit j of row i.
+
+    /**
+     * Create an empty graph with an upper-bound on the number of vertices and lengths of any size
+     *
+     * @param maxVertices is greater than 1
+     */
+    public CompactAMGraph(int maxVertices) {
+        this(maxVertices, WeightEncoding.INT);
+    }
+
+    /**
+     * Create an empty graph with an upper-bound on the number of vertices
+     *
+     * @param maxVertices is greater than 1
+     * @param encoding    how edge lengths are stored, edges whose length does not fit are rejected
+     * @throws IllegalArgumentException if the lengths of maxVertices vertices cannot be addressed
+     */
+    public CompactAMGraph(int maxVertices, WeightEncoding encoding) {
+        long pairs = (long) maxVertices * (maxVertices - 1) / 2;
+        if (encoding != WeightEncoding.UNIT && pairs > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("Too many vertices for a weighted matrix: " + maxVertices);
+        }
+        this.maxVertices = maxVertices;
+        this.encoding = encoding;
+        this.words = (maxVertices + 63) >>> 6;
+        this.presence = new long[Math.multiplyExact(maxVertices, words)];
+        this.byteWeights = encoding == WeightEncoding.BYTE ? new byte[(int) pairs] : null;
+        this.shortWeights = encoding == WeightEncoding.SHORT ? new short[(int) pairs] : null;
+        this.intWeights = encoding == WeightEncoding.INT ? new int[(int) pairs] : null;
+    }
+
+    /**
+     * Obtain the position of the pair (i, j) in the packed upper triangle
+     */
+    private int pair(int i, int j) {
+        if (i > j) {
+            int swap = i;
+            i = j;
+            j = swap;
+        }
+        return (int) ((long) i * (2L * maxVertices - i - 1) / 2 + (j - i - 1));
+    }
+
+    private int weight(int i, int j) {
+        switch (encoding) {
+            case BYTE:
+                return byteWeights[pair(i, j)] & 0xFF;
+            case SHORT:
+                return shortWeights[pair(i, j)] & 0xFFFF;
+            case INT:
+                return intWeights[pair(i, j)];
+            default:
+                return 1;
+        }
+    }
+
+    private void setWeight(int i, int j, int length) {
+        switch (encoding) {
+            case BYTE:
+                byteWeights[pair(i, j)] = (byte) length;
+                break;
+            case SHORT:
+                shortWeights[pair(i, j)] = (short) length;
+                break;
+            case INT:
+                intWeights[pair(i, j)] = length;
+                break;
+            default:
+                break;
+        }
+    }
+
+    private boolean present(int i, int j) {
+        return (presence[i * words + (j >>> 6)] & (1L << j)) != 0;
+    }
+
+    private void link(int i, int j) {
+        presence[i * words + (j >>> 6)] |= 1L << j;
+        presence[j * words + (i >>> 6)] |= 1L << i;
+    }
+
+    private void unlink(int i, int j) {
+        presence[i * words + (j >>> 6)] &= ~(1L << j);
+        presence[j * words + (i >>> 6)] &= ~(1L << i);
+    }
+
+    /**
+     * Obtain the number of row words that can hold a set bit
+     */
+    private int wordsInUse() {
+        return (vertices.capacity() + 63) >>> 6;
+    }
+
+    /**
+     * Add a vertex to the graph
+     *
+     * @param v vertex to add
+     * @return true if the vertex was added successfully and false otherwise
+     */
+    public boolean addVertex(V v) {
+        if (vertices.contains(v) || vertices.size() >= maxVertices) {
+            return false;
+        }
+        vertices.intern(v);
+        return true;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return vertices.contains(v);
+    }
+
+    /**
+     * Add an edge of the graph
+     *
+     * @param e the edge to add to the graph
+     * @return true if the edge was successfully added and false otherwise,
+     *          including when its length does not fit the weight encoding
+     */
+    public boolean addEdge(E e) {
+        int i = vertices.indexOf(e.v1());
+        int j = vertices.indexOf(e.v2());
+        if (i == -1 || j == -1 || present(i, j) || !encoding.fits(e.length())) {
+            return false;
+        }
+        link(i, j);
+        setWeight(i, j, e.length());
+        edgeLengthSum += e.length();
+        return true;
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    public boolean edge(E e) {
+        int i = vertices.indexOf(e.v1());
+        int j = vertices.indexOf(e.v2());
+        return i != -1 && j != -1 && present(i, j) && weight(i, j) == e.length();
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        int i = vertices.indexOf(v1);
+        int j = vertices.indexOf(v2);
+        return i != -1 && j != -1 && present(i, j);
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public int edgeLength(V v1, V v2) {
+        int i = vertices.indexOf(v1);
+        int j = vertices.indexOf(v2);
+        return i != -1 && j != -1 && present(i, j) ? weight(i, j) : -1;
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        return edgeLengthSum;
+    }
+
+    /**
+     * Remove an edge from the graph
+     *
+     * @param e the edge to remove
+     * @return true if e was successfully removed and false otherwise
+     */
+    public boolean remove(E e) {
+        if (!edge(e)) {
+            return false;
+        }
+        unlink(vertices.indexOf(e.v1()), vertices.indexOf(e.v2()));
+        edgeLengthSum -= e.length();
+        return true;
+    }
+
+    /**
+     * Remove a vertex from the graph
+     *
+     * @param v the vertex to remove
+     * @return true if v was successfully removed and false otherwise
+     */
+    public boolean remove(V v) {
+        int i = vertices.indexOf(v);
+        if (i == -1) {
+            return false;
+        }
+        int base = i * words;
+        for (int w = 0; w < wordsInUse(); w++) {
+            long word = presence[base + w];
+            while (word != 0) {
+                int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                edgeLengthSum -= weight(i, j);
+                unlink(i, j);
+            }
+        }
+        vertices.release(v);
+        return true;
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return a set of all vertices in the graph
+     */
+    public Set<V> allVertices() {
+        return vertices.vertices();
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v
+     */
+    public Set<E> allEdges(V v) {
+        return Collections.unmodifiableSet(new HashSet<>(getNeighbours(v).values()));
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return all edges in the graph
+     */
+    public Set<E> allEdges() {
+        Set<E> edges = new HashSet<>();
+        int wordsInUse = wordsInUse();
+        for (int i = 0; i < vertices.capacity(); i++) {
+            int base = i * words;
+            for (int w = i >>> 6; w < wordsInUse; w++) {
+                long word = presence[base + w];
+                while (word != 0) {
+                    int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    if (j > i) {
+                        edges.add(edgeAt(i, j));
+                    }
+                }
+            }
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w.
+     */
+    public Map<V, E> getNeighbours(V v) {
+        Map<V, E> neighbours = new HashMap<>();
+        forEachNeighbour(v, neighbours::put);
+        return Collections.unmodifiableMap(neighbours);
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the v-w edge, walking the set bits of
+     * the row of v. Edges are built on demand, nothing is collected.
+     * The graph must not be mutated while the visit is in progress.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        int i = vertices.indexOf(v);
+        if (i == -1) {
+            return;
+        }
+        int base = i * words;
+        for (int w = 0; w < wordsInUse(); w++) {
+            long word = presence[base + w];
+            while (word != 0) {
+                int j = (w << 6) + Long.numberOfTrailingZeros(word);
+                word &= word - 1;
+                visitor.accept(vertices.vertexAt(j), edgeAt(i, j));
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private E edgeAt(int i, int j) {
+        return (E) new Edge<>(vertices.vertexAt(i), vertices.vertexAt(j), weight(i, j));
+    }
+}
@@ -0,0 +1,277 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Keeps track of the connected components of a graph as it is mutated.
+ *
+ * Insertions are merged into a union-find forest in near constant time. A removal can
+ * only split the component it touches, so that component is marked dirty and, at the
+ * next query, rebuilt from its own members' adjacency alone; the rest of the forest is
+ * left untouched. Every set keeps its members on a circular list threaded through next,
+ * so a component can be enumerated without scanning the whole graph.
+ *
+ * The tracker must be told about every mutation of the graph, it is not safe for
+ * concurrent use.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+final class ComponentTracker<V extends Vertex, E extends Edge<V>> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final Comparator<Vertex> ORDER = Comparator.comparingInt(Vertex::id).thenComparing(Vertex::name);
+
+    private final MGraph<V, E> graph;
+    private final Map<V, Integer> ids = new HashMap<>();
+    private final List<V> vertices = new ArrayList<>();
+    private int[] freeIds = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private int[] sizes = new int[INITIAL_CAPACITY];
+    private int[] next = new int[INITIAL_CAPACITY];
+    private int[] first = new int[INITIAL_CAPACITY];
+    private final Set<Integer> dirty = new HashSet<>();
+    private int count;
+    // Rep Invariant:
+    //          vertices.get(ids.get(v)) == v for every live vertex, a removed vertex leaves null in vertices
+    //          until its set is rebuilt and its id is then put on freeIds. For every root r,
+    //          sizes[r] is the number of ids on the list starting at r, first[r] is the live member
+    //          ordered first by id and name (or -1 when there is none) and every set not in dirty
+    //          is exactly one connected component. count is the number of roots minus the number
+    //          of dirty roots plus the components they hold once rebuilt.
+    // Abstract Function:
+    //          Each root that is not dirty stands for one connected component of graph,
+    //          the live ids on its member list.
+
+    /**
+     * Create a tracker for the current components of a graph
+     *
+     * @param graph the graph to track, it is read and never mutated
+     */
+    ComponentTracker(MGraph<V, E> graph) {
+        this.graph = graph;
+        for (V v : graph.allVertices()) {
+            vertexAdded(v);
+        }
+        for (E e : graph.allEdges()) {
+            edgeAdded(e);
+        }
+    }
+
+    /**
+     * Record that a vertex was added to the graph
+     */
+    void vertexAdded(V v) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+            vertices.set(id, v);
+        } else {
+            id = vertices.size();
+            vertices.add(v);
+            ensureCapacity(id + 1);
+        }
+        ids.put(v, id);
+        singleton(id);
+        count++;
+    }
+
+    /**
+     * Record that an edge was added to the graph
+     */
+    void edgeAdded(E e) {
+        union(ids.get(e.v1()), ids.get(e.v2()));
+    }
+
+    /**
+     * Record that an edge was removed from the graph
+     */
+    void edgeRemoved(E e) {
+        dirty.add(find(ids.get(e.v1())));
+    }
+
+    /**
+     * Record that a vertex, and with it all its edges, is being removed from the graph
+     */
+    void vertexRemoved(V v) {
+        int id = ids.remove(v);
+        vertices.set(id, null);
+        dirty.add(find(id));
+    }
+
+    /**
+     * Obtain the number of connected components
+     *
+     * @return the number of connected components, 0 for a graph without vertices
+     */
+    int count() {
+        refresh();
+        return count;
+    }
+
+    /**
+     * Check if two vertices are in the same connected component
+     *
+     * @return true if both vertices are part of the graph and connected by a path
+     */
+    boolean connected(V v1, V v2) {
+        refresh();
+        Integer id1 = ids.get(v1);
+        Integer id2 = ids.get(v2);
+        return id1 != null && id2 != null && find(id1) == find(id2);
+    }
+
+    /**
+     * Obtain the connected component of a vertex
+     *
+     * @return the vertices connected to v, v included, or an empty set if v is not part of the graph
+     */
+    Set<V> component(V v) {
+        refresh();
+        Integer id = ids.get(v);
+        return id == null ? new HashSet<>() : members(find(id));
+    }
+
+    /**
+     * Obtain the largest connected component
+     *
+     * @return the vertices of the component with the most vertices, on ties the one
+     *          holding the vertex ordered first by id and name, or an empty set if the
+     *          graph has no vertices
+     */
+    Set<V> largest() {
+        refresh();
+        int largest = -1;
+        for (int i = 0; i < vertices.size(); i++) {
+            if (vertices.get(i) == null || parents[i] != i) {
+                continue;
+            }
+            if (largest == -1 || sizes[i] > sizes[largest]
+                    || (sizes[i] == sizes[largest] && precedes(first[i], first[largest]))) {
+                largest = i;
+            }
+        }
+        return largest == -1 ? new HashSet<>() : members(largest);
+    }
+
+    /**
+     * Rebuild every dirty set from the adjacency of its live members
+     */
+    private void refresh() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Integer> roots = new ArrayList<>(dirty);
+        dirty.clear();
+        for (int root : roots) {
+            int[] members = new int[sizes[root]];
+            int current = root;
+            for (int i = 0; i < members.length; i++) {
+                members[i] = current;
+                current = next[current];
+            }
+
+            count--;
+            for (int member : members) {
+                if (vertices.get(member) == null) {
+                    freeId(member);
+                } else {
+                    singleton(member);
+                    count++;
+                }
+            }
+            for (int member : members) {
+                V v = vertices.get(member);
+                if (v != null) {
+                    graph.forEachNeighbour(v, (neighbour, edge) -> union(member, ids.get(neighbour)));
+                }
+            }
+        }
+    }
+
+    private Set<V> members(int root) {
+        Set<V> members = new HashSet<>();
+        int current = root;
+        do {
+            V v = vertices.get(current);
+            if (v != null) {
+                members.add(v);
+            }
+            current = next[current];
+        } while (current != root);
+        return members;
+    }
+
+    private int find(int i) {
+        int root = i;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        while (parents[i] != root) {
+            int parent = parents[i];
+            parents[i] = root;
+            i = parent;
+        }
+        return root;
+    }
+
+    private void union(int i, int j) {
+        int a = find(i);
+        int b = find(j);
+        if (a == b) {
+            return;
+        }
+        if (sizes[a] < sizes[b]) {
+            int swap = a;
+            a = b;
+            b = swap;
+        }
+        parents[b] = a;
+        sizes[a] += sizes[b];
+        int splice = next[a];
+        next[a] = next[b];
+        next[b] = splice;
+        if (precedes(first[b], first[a])) {
+            first[a] = first[b];
+        }
+        if (dirty.remove(b)) {
+            dirty.add(a);
+        }
+        count--;
+    }
+
+    /**
+     * Check if the vertex with id i is ordered before the vertex with id j, -1 stands for no vertex
+     */
+    private boolean precedes(int i, int j) {
+        if (i == -1 || vertices.get(i) == null) {
+            return false;
+        }
+        return j == -1 || vertices.get(j) == null || ORDER.compare(vertices.get(i), vertices.get(j)) < 0;
+    }
+
+    private void singleton(int id) {
+        parents[id] = id;
+        sizes[id] = 1;
+        next[id] = id;
+        first[id] = id;
+    }
+
+    private void freeId(int id) {
+        if (freeCount == freeIds.length) {
+            freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+        }
+        freeIds[freeCount++] = id;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= parents.length) {
+            return;
+        }
+        int grown = Math.max(capacity, parents.length * 2);
+        parents = Arrays.copyOf(parents, grown);
+        sizes = Arrays.copyOf(sizes, grown);
+        next = Arrays.copyOf(next, grown);
+        first = Arrays.copyOf(first, grown);
+    }
+}
@@ -0,0 +1,328 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+
+/**
+ * An adjacency list graph that can be read and mutated from several threads at once.
+ *
+ * Every vertex maps to an immutable list of its edges that writers replace rather than
+ * modify, so reads take no lock and always see a whole list. Writers lock the stripes of
+ * the vertices they touch, taking several stripes in increasing order: mutations on
+ * disjoint vertices proceed in parallel, and an undirected edge is added to or removed
+ * from both of its end points while both are locked, so no writer ever sees half an edge.
+ * The edge index is updated last on insertion and first on removal, making it the point
+ * at which edge(), edgeLength() and allEdges() see the change.
+ *
+ * Reads return unmodifiable views like ReadMode.VIEW does. A view of one vertex's edges is
+ * a snapshot; views over all vertices or edges are weakly consistent, as the iterators of
+ * ConcurrentHashMap are.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class ConcurrentALGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
+    private static final int DEFAULT_STRIPES = 64;
+
+    private final ConcurrentHashMap<V, List<E>> adjacency = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<VertexPair<V>, E> edgeIndex = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripes;
+    private final LongAdder edgeLengthSum = new LongAdder();
+    // Rep Invariant:
+    //          Every list in adjacency is immutable. While no writer holds a lock, e is in the list of
+    //          e.v1() iff it is in the list of e.v2() iff edgeIndex maps the pair of its end points to e,
+    //          and edgeLengthSum is the sum of the lengths of the edges in edgeIndex. The list of a
+    //          vertex is only replaced while the stripe of that vertex is locked.
+    // Abstract Function:
+    //          Represents an undirected graph with the vertices of adjacency and the edges of edgeIndex.
+
+    /**
+     * Create an empty graph with the default number of lock stripes
+     */
+    public ConcurrentALGraph() {
+        this(DEFAULT_STRIPES);
+    }
+
+    /**
+     * Create an empty graph
+     *
+     * @param stripes the number of locks shared out among the vertices, rounded up to a power of two;
+     *                more stripes let more writers on different vertices proceed at once
+     */
+    public ConcurrentALGraph(int stripes) {
+        int count = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[count];
+        for (int i = 0; i < count; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    private int stripe(V v) {
+        int hash = v.hashCode();
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+
+    /**
+     * Lock the stripes of two vertices, the lower stripe first
+     */
+    private void lock(int a, int b) {
+        stripes[Math.min(a, b)].lock();
+        if (a != b) {
+            stripes[Math.max(a, b)].lock();
+        }
+    }
+
+    private void unlock(int a, int b) {
+        if (a != b) {
+            stripes[Math.max(a, b)].unlock();
+        }
+        stripes[Math.min(a, b)].unlock();
+    }
+
+    private static <E> List<E> with(List<E> edges, E edge) {
+        List<E> copy = new ArrayList<>(edges.size() + 1);
+        copy.addAll(edges);
+        copy.add(edge);
+        return Collections.unmodifiableList(copy);
+    }
+
+    private static <E> List<E> without(List<E> edges, E edge) {
+        List<E> copy = new ArrayList<>(edges);
+        copy.remove(edge);
+        return Collections.unmodifiableList(copy);
+    }
+
+    /**
+     * Add a vertex to the graph
+     *
+     * @param v vertex to add
+     * @return true if the vertex was added successfully and false otherwise
+     */
+    public boolean addVertex(V v) {
+        return adjacency.putIfAbsent(v, Collections.emptyList()) == null;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return adjacency.containsKey(v);
+    }
+
+    /**
+     * Add an edge of the graph, atomically at both end points
+     *
+     * @param e the edge to add to the graph
+     * @return true if the edge was successfully added and false otherwise
+     */
+    public boolean addEdge(E e) {
+        V v1 = e.v1();
+        V v2 = e.v2();
+        VertexPair<V> pair = new VertexPair<>(v1, v2);
+        int a = stripe(v1);
+        int b = stripe(v2);
+        lock(a, b);
+        try {
+            List<E> edges1 = adjacency.get(v1);
+            List<E> edges2 = adjacency.get(v2);
+            if (edges1 == null || edges2 == null || edgeIndex.containsKey(pair)) {
+                return false;
+            }
+            adjacency.put(v1, with(edges1, e));
+            adjacency.put(v2, with(edges2, e));
+            edgeIndex.put(pair, e);
+            edgeLengthSum.add(e.length());
+            return true;
+        } finally {
+            unlock(a, b);
+        }
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    public boolean edge(E e) {
+        return edgeIndex.containsKey(new VertexPair<>(e.v1(), e.v2()));
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        return edgeIndex.containsKey(new VertexPair<>(v1, v2));
+    }
+
+    /**
+     * Find the edge that connects two vertices
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the stored v1-v2 edge, or null if there is none
+     */
+    public E getEdge(V v1, V v2) {
+        return edgeIndex.get(new VertexPair<>(v1, v2));
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public int edgeLength(V v1, V v2) {
+        E edge = edgeIndex.get(new VertexPair<>(v1, v2));
+        return edge == null ? -1 : edge.length();
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        return (int) edgeLengthSum.sum();
+    }
+
+    /**
+     * Remove an edge from the graph, atomically at both end points
+     *
+     * @param e the edge to remove
+     * @return true if e was successfully removed and false otherwise
+     */
+    public boolean remove(E e) {
+        V v1 = e.v1();
+        V v2 = e.v2();
+        int a = stripe(v1);
+        int b = stripe(v2);
+        lock(a, b);
+        try {
+            E edge = edgeIndex.remove(new VertexPair<>(v1, v2));
+            if (edge == null) {
+                return false;
+            }
+            adjacency.put(v1, without(adjacency.get(v1), edge));
+            adjacency.put(v2, without(adjacency.get(v2), edge));
+            edgeLengthSum.add(-edge.length());
+            return true;
+        } finally {
+            unlock(a, b);
+        }
+    }
+
+    /**
+     * Remove a vertex and its edges from the graph.
+     * Locks the stripes of v and of all its neighbours, retrying if edges
+     * of v changed before the locks were taken.
+     *
+     * @param v the vertex to remove
+     * @return true if v was successfully removed and false otherwise
+     */
+    public boolean remove(V v) {
+        while (true) {
+            List<E> edges = adjacency.get(v);
+            if (edges == null) {
+                return false;
+            }
+            TreeSet<Integer> locked = new TreeSet<>();
+            locked.add(stripe(v));
+            for (E edge : edges) {
+                locked.add(stripe(edge.distinctVertex(v)));
+            }
+            locked.forEach(i -> stripes[i].lock());
+            try {
+                if (adjacency.get(v) != edges) {
+                    continue;
+                }
+                for (E edge : edges) {
+                    edgeIndex.remove(new VertexPair<>(edge.v1(), edge.v2()));
+                    V neighbour = edge.distinctVertex(v);
+                    adjacency.put(neighbour, without(adjacency.get(neighbour), edge));
+                    edgeLengthSum.add(-edge.length());
+                }
+                adjacency.remove(v);
+                return true;
+            } finally {
+                locked.descendingSet().forEach(i -> stripes[i].unlock());
+            }
+        }
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return a set of all vertices in the graph
+     */
+    public Set<V> allVertices() {
+        return Collections.unmodifiableSet(adjacency.keySet());
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v
+     */
+    public Set<E> allEdges(V v) {
+        List<E> edges = adjacency.getOrDefault(v, Collections.emptyList());
+        return GraphViews.set(() -> edges);
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return all edges in the graph
+     */
+    public Set<E> allEdges() {
+        return GraphViews.set(edgeIndex.values(), this::indexed);
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w.
+     */
+    public Map<V, E> getNeighbours(V v) {
+        List<E> edges = adjacency.getOrDefault(v, Collections.emptyList());
+        return GraphViews.neighbours(v, () -> edges);
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the stored v-w edge,
+     * walking a snapshot of the edges of v without taking a lock.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        for (E edge : adjacency.getOrDefault(v, Collections.emptyList())) {
+            visitor.accept(edge.distinctVertex(v), edge);
+        }
+    }
+
+    private boolean indexed(Object o) {
+        if (o instanceof Edge<?>) {
+            Edge<?> e = (Edge<?>) o;
+            return edgeIndex.containsKey(new VertexPair<>(e.v1(), e.v2()));
+        }
+        return false;
+    }
+}
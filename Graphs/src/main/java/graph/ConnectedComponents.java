@@ -0,0 +1,80 @@
+package graph;
+
+import java.nio.IntBuffer;
+import java.util.Arrays;
+
+/**
+ * Iterative connected components over graphs in compressed sparse row form,
+ * with the rows in arrays wrapped as buffers or in mapped files.
+ * Uses an explicit int stack, so arbitrarily long paths cannot overflow the thread stack.
+ */
+final class ConnectedComponents {
+    private ConnectedComponents() {
+    }
+
+    /**
+     * Label every vertex with the smallest id in its connected component
+     *
+     * @param offsets the row offsets, vertex i has neighbours targets[offsets[i]..offsets[i+1])
+     * @param targets the neighbour ids of every row
+     * @return labels where labels[i] is the smallest id connected to i
+     */
+    static int[] labels(IntBuffer offsets, IntBuffer targets) {
+        int n = offsets.limit() - 1;
+        int[] labels = new int[n];
+        Arrays.fill(labels, -1);
+        int[] stack = new int[n];
+
+        for (int start = 0; start < n; start++) {
+            if (labels[start] != -1) {
+                continue;
+            }
+            int top = 0;
+            stack[top++] = start;
+            labels[start] = start;
+            while (top > 0) {
+                int current = stack[--top];
+                for (int slot = offsets.get(current); slot < offsets.get(current + 1); slot++) {
+                    int next = targets.get(slot);
+                    if (labels[next] == -1) {
+                        labels[next] = start;
+                        stack[top++] = next;
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * Find the connected component with the most vertices, the one holding
+     * the smallest id on ties.
+     *
+     * @param offsets the row offsets, vertex i has neighbours targets[offsets[i]..offsets[i+1])
+     * @param targets the neighbour ids of every row
+     * @return the ids of the vertices in the largest component in increasing order
+     */
+    static int[] largest(IntBuffer offsets, IntBuffer targets) {
+        int[] labels = labels(offsets, targets);
+        int n = labels.length;
+        int[] sizes = new int[n];
+        int largest = -1;
+        for (int i = 0; i < n; i++) {
+            sizes[labels[i]]++;
+        }
+        for (int i = 0; i < n; i++) {
+            if (largest == -1 || sizes[i] > sizes[largest]) {
+                largest = i;
+            }
+        }
+
+        int[] component = new int[largest == -1 ? 0 : sizes[largest]];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (labels[i] == largest) {
+                component[size++] = i;
+            }
+        }
+        return component;
+    }
+}
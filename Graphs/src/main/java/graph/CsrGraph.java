@@ -0,0 +1,568 @@
+package graph;
+
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable snapshot of a graph in compressed sparse row form.
+ *
+ * Vertices get dense ids in [0, n) ordered by vertex id and then name. The neighbours of
+ * vertex i are targets[offsets[i]..offsets[i+1]) sorted by id, with the matching edge lengths
+ * in weights. Every undirected edge is stored once in each direction.
+ *
+ * All ImGraph algorithms run on the primitive arrays. Vertices handed out are the
+ * snapshot's own objects and are not cloned; edges handed out are built on demand
+ * as plain Edge objects, like AMGraph does. Mutations throw UnsupportedOperationException.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class CsrGraph<V extends Vertex, E extends Edge<V>> extends DenseGraph<V, E> implements ImGraph<V, E>, MGraph<V, E> {
+    private final List<V> vertices;
+    private final Set<V> vertexSet;
+    private final Map<V, Integer> ids;
+    private final int[] offsets;
+    private final int[] targets;
+    private final int[] weights;
+    private final int edgeLengthSum;
+    // Rep Invariant:
+    //          offsets has vertices.size() + 1 entries, offsets[0] == 0 and it is non decreasing,
+    //          each row of targets is strictly increasing, and j is in the row of i with weight w
+    //          iff i is in the row of j with weight w.
+    // Abstract Function:
+    //          Represents an undirected graph with vertex vertices.get(i) for each i,
+    //          and an edge vertices.get(i)-vertices.get(targets[s]) of length weights[s]
+    //          for each slot s in the row of i.
+
+    /**
+     * Create a snapshot of a graph
+     *
+     * @param graph the graph to copy, it is read and never mutated
+     */
+    public CsrGraph(MGraph<V, E> graph) {
+        this(graph, graph.allVertices());
+    }
+
+    /**
+     * Create a snapshot of the subgraph induced by some vertices of a graph
+     *
+     * @param graph the graph to copy, it is read and never mutated
+     * @param keep  the vertices to keep, all of them part of graph,
+     *              edges with an end point outside keep are left out
+     */
+    public CsrGraph(MGraph<V, E> graph, Collection<V> keep) {
+        List<V> vertexList = new ArrayList<>(keep);
+        vertexList.sort(Comparator.comparingInt(Vertex::id).thenComparing(Vertex::name));
+        int n = vertexList.size();
+
+        ids = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids.put(vertexList.get(i), i);
+        }
+
+        long[][] rows = new long[n][];
+        offsets = new int[n + 1];
+        RowCollector collector = new RowCollector();
+        for (int i = 0; i < n; i++) {
+            collector.size = 0;
+            graph.forEachNeighbour(vertexList.get(i), collector);
+            long[] row = Arrays.copyOf(collector.row, collector.size);
+            Arrays.sort(row);
+            rows[i] = row;
+            offsets[i + 1] = offsets[i] + row.length;
+        }
+
+        targets = new int[offsets[n]];
+        weights = new int[offsets[n]];
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            int slot = offsets[i];
+            for (long entry : rows[i]) {
+                targets[slot] = (int) (entry >>> 32);
+                weights[slot] = (int) entry;
+                if (targets[slot] > i) {
+                    sum += weights[slot];
+                }
+                slot++;
+            }
+        }
+        edgeLengthSum = sum;
+
+        vertices = Collections.unmodifiableList(vertexList);
+        vertexSet = Collections.unmodifiableSet(new HashSet<>(vertexList));
+    }
+
+    /**
+     * Create a graph straight from its compressed sparse row arrays, which are taken over, not copied
+     *
+     * @param vertices the vertices ordered by id and then name
+     * @param offsets  the start of the row of each vertex in targets, followed by targets.length
+     * @param targets  the rows of neighbour ids, each sorted and holding every edge in both directions
+     * @param weights  the length of the edge in the matching slot of targets
+     */
+    CsrGraph(List<V> vertices, int[] offsets, int[] targets, int[] weights) {
+        int n = vertices.size();
+        ids = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            ids.put(vertices.get(i), i);
+        }
+        int sum = 0;
+        for (int i = 0; i < n; i++) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                if (targets[slot] > i) {
+                    sum += weights[slot];
+                }
+            }
+        }
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeLengthSum = sum;
+        this.vertices = Collections.unmodifiableList(new ArrayList<>(vertices));
+        this.vertexSet = Collections.unmodifiableSet(new HashSet<>(vertices));
+    }
+
+    /**
+     * Packs the (target id, length) pairs of one row while the source graph is walked
+     */
+    private class RowCollector implements BiConsumer<V, E> {
+        long[] row = new long[16];
+        int size;
+
+        @Override
+        public void accept(V neighbour, E edge) {
+            Integer target = ids.get(neighbour);
+            if (target == null) {
+                return;
+            }
+            if (size == row.length) {
+                row = Arrays.copyOf(row, size * 2);
+            }
+            row[size++] = ((long) target << 32) | edge.length();
+        }
+    }
+
+    /**
+     * Obtain the number of vertices in the graph
+     *
+     * @return the number of vertices in the graph
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Obtain the number of edges in the graph
+     *
+     * @return the number of edges in the graph
+     */
+    public int edgeCount() {
+        return targets.length / 2;
+    }
+
+    /**
+     * Obtain the dense id of a vertex
+     *
+     * @param v the vertex of interest
+     * @return the id of v or -1 if v is not part of the graph
+     */
+    int index(V v) {
+        Integer id = ids.get(v);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Obtain the vertex with a dense id
+     *
+     * @param i the id of the vertex, 0 <= i < vertexCount()
+     * @return the vertex with id i
+     */
+    V vertexAt(int i) {
+        return vertices.get(i);
+    }
+
+    int[] offsets() {
+        return offsets;
+    }
+
+    int[] targets() {
+        return targets;
+    }
+
+    int[] weights() {
+        return weights;
+    }
+
+    private int slot(int i, int j) {
+        if (i == -1 || j == -1) {
+            return -1;
+        }
+        int slot = Arrays.binarySearch(targets, offsets[i], offsets[i + 1], j);
+        return slot < 0 ? -1 : slot;
+    }
+
+    E edgeBetween(int i, int j) {
+        return edgeAt(i, slot(i, j));
+    }
+
+    @SuppressWarnings("unchecked")
+    private E edgeAt(int i, int slot) {
+        return (E) new Edge<>(vertices.get(i), vertices.get(targets[slot]), weights[slot]);
+    }
+
+    //// ImGraph ////
+
+    /**
+     * Find the edge that connects two vertices if such an edge exists.
+     * This method should not permit graph mutations.
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the edge connecting v1 and v2 or null if there is no such edge
+     */
+    public E getEdge(V v1, V v2) {
+        int i = index(v1);
+        int slot = slot(i, index(v2));
+        return slot == -1 ? null : edgeAt(i, slot);
+    }
+
+    /**
+     * Run Dijkstra's algorithm from source.
+     * Entries of distances must be Integer.MAX_VALUE for every vertex the search may reach.
+     *
+     * @param source    the id to start from
+     * @param target    the id to stop at once it is settled, or -1 to settle everything reachable
+     * @param range     vertices further than range from source are not reached
+     * @param distances receives the distance from source of every reached vertex
+     * @param parents   receives the predecessor of every reached vertex, -1 for the source
+     * @param heap      an empty heap able to hold every vertex
+     * @param order     if not null, receives the settled vertices in the order they were settled
+     * @return the number of settled vertices
+     */
+    int search(int source, int target, int range, int[] distances, int[] parents,
+               IndexedMinHeap heap, int[] order) {
+        int settled = 0;
+        distances[source] = 0;
+        parents[source] = -1;
+        heap.push(source, 0);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (order != null) {
+                order[settled] = current;
+            }
+            settled++;
+            if (current == target) {
+                heap.clear();
+                break;
+            }
+            int currentDistance = distances[current];
+            for (int slot = offsets[current]; slot < offsets[current + 1]; slot++) {
+                int next = targets[slot];
+                int distance = currentDistance + weights[slot];
+                if (distance < distances[next] && distance <= range) {
+                    distances[next] = distance;
+                    parents[next] = current;
+                    heap.push(next, distance);
+                }
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * Return a set with k connected components of the graph.
+     *
+     * <ul>
+     * <li>When k = 1, the method returns one graph in the set, and that graph
+     * represents the minimum spanning tree of the graph.
+     * See: https://en.wikipedia.org/wiki/Minimum_spanning_tree</li>
+     *
+     * <li>When k = n, where n is the number of vertices in the graph, then
+     * the method returns a set of n graphs, and each graph contains a
+     * unique vertex and no edge.</li>
+     *
+     * <li>When k is in [2, n-1], the method partitions the graph into k connected sub-graphs
+     * such that for any two vertices V_i and V_j, if vertex V_i is in subgraph
+     * G_a and vertex V_j is in subgraph G_b (a != b), and there is an edge
+     * between V_i and V_j, and |G_a| > 1, then there must exist some vertex V_k in G_a such
+     * that the length of the edge between V_i and V_k is at most the length
+     * of the edge between V_i and V_j.</li>
+     * </ul>
+     *
+     * @return a set of graph partitions such that a vertex in one partition
+     * is no closer to a vertex in a different partition than it is to a vertex
+     * in its own partition.
+     * Or null if the number of components of the original graph is greater than k
+     */
+    public Set<ImGraph<V, E>> minimumSpanningComponents(int k) {
+        int n = vertices.size();
+        int m = edgeCount();
+        int[] sources = new int[m];
+        int[] slots = new int[m];
+        int[] ends = new int[m];
+        int[] lengths = new int[m];
+        int edges = 0;
+        for (int i = 0; i < n; i++) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                if (targets[slot] > i) {
+                    sources[edges] = i;
+                    slots[edges] = slot;
+                    ends[edges] = targets[slot];
+                    lengths[edges] = weights[slot];
+                    edges++;
+                }
+            }
+        }
+
+        DisjointSet sets = new DisjointSet(n);
+        boolean[] chosen = KruskalEngine.spanningForest(sources, ends, lengths, k, sets);
+        if (chosen == null) {
+            return null;
+        }
+
+        Map<Integer, ALGraph<V, E>> components = new HashMap<>();
+        for (int i = 0; i < n; i++) {
+            components.computeIfAbsent(sets.find(i), root -> new ALGraph<>()).addVertex(vertices.get(i));
+        }
+        for (int edge = 0; edge < m; edge++) {
+            if (chosen[edge]) {
+                components.get(sets.find(sources[edge])).addEdge(edgeAt(sources[edge], slots[edge]));
+            }
+        }
+        return KruskalEngine.asGraphs(components.values());
+    }
+
+    /**
+     * Compute the diameter of the graph.
+     * <ul>
+     * <li>The diameter of a graph is the length of the longest shortest path in the graph.</li>
+     * <li>If a graph has multiple components then we will define the diameter
+     * as the diameter of the largest component.</li>
+     * </ul>
+     *
+     * @return the diameter of the graph.
+     */
+    public int diameter() {
+        return new EccentricityEngine<>(this).diameter();
+    }
+
+    /**
+     * Compute the diameter of the graph as diameter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the diameter of the graph.
+     */
+    public int diameter(ForkJoinPool pool) {
+        return new EccentricityEngine<>(this, pool).diameter();
+    }
+
+    /**
+     * Compute the center of the graph.
+     *
+     * <ul>
+     * <li>For a vertex s, the eccentricity of s is defined as the maximum distance
+     * between s and any other vertex t in the graph.</li>
+     *
+     * <li>The center of a graph is the vertex with minimum eccentricity.</li>
+     *
+     * <li>If a graph is not connected, we will define the graph's center to be the
+     * center of the largest connected component.</li>
+     * </ul>
+     *
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public V getCenter() {
+        return new EccentricityEngine<>(this).center();
+    }
+
+    /**
+     * Compute the center of the graph as getCenter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public V getCenter(ForkJoinPool pool) {
+        return new EccentricityEngine<>(this, pool).center();
+    }
+
+    /**
+     * Find the connected component with the most vertices, the one holding
+     * the smallest id on ties.
+     *
+     * @return the ids of the vertices in the largest component in increasing order
+     */
+    int[] largestComponent() {
+        return ConnectedComponents.largest(IntBuffer.wrap(offsets), IntBuffer.wrap(targets));
+    }
+
+    //// MGraph ////
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return ids.containsKey(v);
+    }
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean addEdge(E e) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    public boolean edge(E e) {
+        return edge(e.v1(), e.v2());
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        return slot(index(v1), index(v2)) != -1;
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public int edgeLength(V v1, V v2) {
+        int slot = slot(index(v1), index(v2));
+        return slot == -1 ? -1 : weights[slot];
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        return edgeLengthSum;
+    }
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(E e) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(V v) {
+        throw new UnsupportedOperationException("CsrGraph is immutable");
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * The set is unmodifiable and shared between calls.
+     *
+     * @return a set of all vertices in the graph
+     */
+    public Set<V> allVertices() {
+        return vertexSet;
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v
+     */
+    public Set<E> allEdges(V v) {
+        Set<E> edges = new HashSet<>();
+        int i = index(v);
+        if (i != -1) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                edges.add(edgeAt(i, slot));
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return all edges in the graph
+     */
+    public Set<E> allEdges() {
+        Set<E> edges = new HashSet<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+                if (targets[slot] > i) {
+                    edges.add(edgeAt(i, slot));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w.
+     */
+    public Map<V, E> getNeighbours(V v) {
+        Map<V, E> neighbours = new HashMap<>();
+        forEachNeighbour(v, neighbours::put);
+        return neighbours;
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the v-w edge, walking the row of v.
+     * Edges are built on demand, nothing is collected.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        int i = index(v);
+        if (i == -1) {
+            return;
+        }
+        for (int slot = offsets[i]; slot < offsets[i + 1]; slot++) {
+            visitor.accept(vertices.get(targets[slot]), edgeAt(i, slot));
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package graph;
+
+import java.util.*;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A graph whose vertices have dense ids in [0, n), ordered by vertex id and then name,
+ * and that runs Dijkstra's algorithm on those ids. This is what EccentricityEngine needs
+ * from a graph, whether its rows live in arrays or in a mapped file, and what the path
+ * queries below are written against.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+abstract class DenseGraph<V extends Vertex, E extends Edge<V>> {
+
+    /**
+     * Obtain the number of vertices in the graph
+     *
+     * @return the number of vertices in the graph
+     */
+    abstract int vertexCount();
+
+    /**
+     * Obtain the vertex with a dense id
+     *
+     * @param i the id of the vertex, 0 <= i < vertexCount()
+     * @return the vertex with id i
+     */
+    abstract V vertexAt(int i);
+
+    /**
+     * Obtain the dense id of a vertex
+     *
+     * @param v the vertex to look up
+     * @return the id of v, or -1 if v is not part of the graph
+     */
+    abstract int index(V v);
+
+    /**
+     * Obtain the edge between two adjacent vertices
+     *
+     * @param i the id of one end of the edge
+     * @param j the id of the other end, adjacent to i
+     * @return the i-j edge
+     */
+    abstract E edgeBetween(int i, int j);
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public abstract int edgeLength(V v1, V v2);
+
+    /**
+     * Find the connected component with the most vertices, the one holding
+     * the smallest id on ties.
+     *
+     * @return the ids of the vertices in the largest component in increasing order
+     */
+    abstract int[] largestComponent();
+
+    /**
+     * Run Dijkstra's algorithm from source.
+     * Entries of distances must be Integer.MAX_VALUE for every vertex the search may reach.
+     *
+     * @param source    the id to start from
+     * @param target    the id to stop at once it is settled, or -1 to settle everything reachable
+     * @param range     vertices further than range from source are not reached
+     * @param distances receives the distance from source of every reached vertex
+     * @param parents   receives the predecessor of every reached vertex, -1 for the source
+     * @param heap      an empty heap able to hold every vertex
+     * @param order     if not null, receives the settled vertices in the order they were settled
+     * @return the number of settled vertices
+     */
+    abstract int search(int source, int target, int range, int[] distances, int[] parents,
+                        IndexedMinHeap heap, int[] order);
+
+    /**
+     * Compute the shortest path in the graph from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     *          if no such path exists it returns an empty list. If source is the same as the sink returns a list
+     *          with only one Vertex.
+     */
+    public List<V> shortestPath(V source, V sink) {
+        List<V> path = new ArrayList<>();
+        int s = index(source);
+        int t = index(sink);
+        if (s == -1 || t == -1) {
+            return path;
+        }
+
+        int n = vertexCount();
+        int[] distances = new int[n];
+        int[] parents = new int[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        search(s, t, Integer.MAX_VALUE, distances, parents, new IndexedMinHeap(n), null);
+
+        if (distances[t] == Integer.MAX_VALUE) {
+            return path;
+        }
+        for (int current = t; current != -1; current = parents[current]) {
+            path.add(vertexAt(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Compute the length of a given path
+     *
+     * @param path indicates the vertices on the given path
+     * @return the length of path
+     *          returns Integer.MAX_VALUE if list is empty
+     */
+    public int pathLength(List<V> path) {
+        return pathLength(this::edgeLength, path);
+    }
+
+    /**
+     * Compute the length of a path from the lengths of its edges, for any graph
+     *
+     * @param edgeLength gives the length of the edge between two consecutive vertices
+     * @param path       the vertices on the path
+     * @return the length of path, or Integer.MAX_VALUE if path is empty
+     */
+    static <V extends Vertex> int pathLength(ToIntBiFunction<V, V> edgeLength, List<V> path) {
+        if (path.isEmpty()) {
+            return Integer.MAX_VALUE;
+        }
+        int pathSum = 0;
+        for (int i = 0; i < path.size() - 1; i++) {
+            pathSum += edgeLength.applyAsInt(path.get(i), path.get(i + 1));
+        }
+        return pathSum;
+    }
+
+    /**
+     * Obtain all vertices w that are no more than a <em>path distance</em> of range from v.
+     *
+     * @param v     the vertex to start the search from.
+     * @param range the radius of the search.
+     * @return a map where the keys are the vertices in the neighbourhood of v,
+     *          and the value for key w is the last edge on the shortest path
+     *          from v to w.
+     */
+    public Map<V, E> getNeighbours(V v, int range) {
+        Map<V, E> neighbours = new HashMap<>();
+        int s = index(v);
+        if (s == -1 || range < 0) {
+            return neighbours;
+        }
+
+        int n = vertexCount();
+        int[] distances = new int[n];
+        int[] parents = new int[n];
+        int[] order = new int[n];
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        int settled = search(s, -1, range, distances, parents, new IndexedMinHeap(n), order);
+
+        for (int i = 1; i < settled; i++) {
+            int w = order[i];
+            neighbours.put(vertexAt(w), edgeBetween(parents[w], w));
+        }
+        return neighbours;
+    }
+}
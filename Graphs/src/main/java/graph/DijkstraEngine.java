@@ -0,0 +1,435 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Shortest path search over an MGraph using an indexed binary heap with decrease-key.
+ * Vertices are given dense int ids the first time the search reaches them, so a query
+ * only pays for the part of the graph it explores.
+ *
+ * Point-to-point queries search from the source alone or, in PathSearch.BIDIRECTIONAL, from
+ * both ends at once: since edges are undirected the search from the sink is the same search
+ * with the roles swapped. Both modes return a path of the same length, and the same path when
+ * the shortest one is unique. Given a Heuristic, shortestPath runs A* instead: the same search
+ * with each vertex queued by its distance plus the estimated distance left to the sink.
+ *
+ * An engine reuses its scratch buffers between queries and is not safe for concurrent use.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class DijkstraEngine<V extends Vertex, E extends Edge<V>> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final MGraph<V, E> graph;
+    private final PathSearch mode;
+    private final Map<V, Integer> ids = new HashMap<>();
+    private final List<V> vertices = new ArrayList<>();
+    private int[] distances = new int[INITIAL_CAPACITY];
+    private int[] parents = new int[INITIAL_CAPACITY];
+    private final List<E> parentEdges = new ArrayList<>();
+    private boolean[] settled = new boolean[INITIAL_CAPACITY];
+    private final IndexedMinHeap heap = new IndexedMinHeap(INITIAL_CAPACITY);
+    private int[] backDistances = new int[INITIAL_CAPACITY];
+    private int[] backParents = new int[INITIAL_CAPACITY];
+    private boolean[] backSettled = new boolean[INITIAL_CAPACITY];
+    private final IndexedMinHeap backHeap = new IndexedMinHeap(INITIAL_CAPACITY);
+    private final Relaxation relaxation = new Relaxation();
+    private boolean bidirectional;
+    private long shortest;
+    private int meeting;
+    private int settledCount;
+    private Heuristic<? super V> heuristic;
+    private V target;
+    private boolean verifyHeuristic;
+    // Rep Invariant:
+    //          vertices.get(ids.get(v)) == v for every interned vertex and every per-vertex
+    //          array is at least vertices.size() long.
+    // Abstract Function:
+    //          The state of the last search: distances[i] is the best known distance to vertices.get(i),
+    //          parents[i] the id of its predecessor on that path (-1 for the source) and
+    //          parentEdges.get(i) the last edge on that path (null for the source). The back arrays
+    //          hold the same from the sink of a bidirectional search, shortest is the length of the
+    //          shortest path it met so far, through the vertex meeting, and settledCount the number of
+    //          vertices settled by either search. heuristic and target are set only during an A* search.
+
+    /**
+     * Create an engine searching the given graph
+     *
+     * @param graph the graph to search, it is read and never mutated
+     */
+    public DijkstraEngine(MGraph<V, E> graph) {
+        this(graph, PathSearch.UNIDIRECTIONAL);
+    }
+
+    /**
+     * Create an engine searching the given graph
+     *
+     * @param graph the graph to search, it is read and never mutated
+     * @param mode  how shortestPath searches
+     */
+    public DijkstraEngine(MGraph<V, E> graph, PathSearch mode) {
+        this.graph = graph;
+        this.mode = mode;
+    }
+
+    /**
+     * Compute the shortest path in the graph from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     *          if no such path exists it returns an empty list. If source is the same as the sink returns a list
+     *          with only one Vertex.
+     */
+    public List<V> shortestPath(V source, V sink) {
+        if (!graph.vertex(source) || !graph.vertex(sink)) {
+            return new ArrayList<>();
+        }
+        reset();
+        int s = intern(source);
+        int t = intern(sink);
+        if (mode == PathSearch.BIDIRECTIONAL) {
+            searchBoth(s, t);
+            return meetingPath();
+        }
+        search(s, t, Integer.MAX_VALUE);
+        return path(s, t);
+    }
+
+    /**
+     * Compute the shortest path from source to sink with A*, settling vertices in order of their
+     * distance from source plus the heuristic's estimate of their distance to sink.
+     * The mode of the engine does not apply, the search is always from the source.
+     *
+     * @param source    the start vertex
+     * @param sink      the end vertex
+     * @param heuristic a consistent lower bound on the distance to sink
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     *          if no such path exists it returns an empty list. If source is the same as the sink returns a list
+     *          with only one Vertex.
+     * @throws IllegalStateException if heuristics are verified and the heuristic is found not to be consistent
+     *          or not to be admissible
+     */
+    public List<V> shortestPath(V source, V sink, Heuristic<? super V> heuristic) {
+        if (!graph.vertex(source) || !graph.vertex(sink)) {
+            return new ArrayList<>();
+        }
+        if (verifyHeuristic && heuristic.estimate(sink, sink) != 0) {
+            throw new IllegalStateException("Heuristic estimates " + sink + " away from itself");
+        }
+        reset();
+        int s = intern(source);
+        int t = intern(sink);
+        this.heuristic = heuristic;
+        this.target = sink;
+        try {
+            search(s, t, Integer.MAX_VALUE);
+            if (verifyHeuristic) {
+                verifyAdmissible();
+            }
+        } finally {
+            this.heuristic = null;
+            this.target = null;
+        }
+        return path(s, t);
+    }
+
+    /**
+     * Check the heuristic never overestimated the distance to the sink from a vertex the search reached
+     */
+    private void verifyAdmissible() {
+        ShortestPathTree<V> exact = new DijkstraEngine<>(graph).tree(target);
+        for (V v : vertices) {
+            int distance = exact.distance(v);
+            if (distance != Integer.MAX_VALUE && estimate(v) > distance) {
+                throw new IllegalStateException("Heuristic overestimates the distance from " + v + " to " + target);
+            }
+        }
+    }
+
+    /**
+     * Check that A* heuristics are consistent on every edge the search relaxes and, once the search
+     * is over, that they did not overestimate the distance to the sink from any vertex the search
+     * reached. The second check runs a full search from the sink and is meant for debugging.
+     *
+     * @param verify true to check heuristics, false (the default) to trust them
+     */
+    public void setVerifyHeuristic(boolean verify) {
+        this.verifyHeuristic = verify;
+    }
+
+    /**
+     * Obtain the amount of work done by the last query
+     *
+     * @return the number of vertices the last query settled, a vertex settled from both ends counts twice
+     */
+    public int settledVertices() {
+        return settledCount;
+    }
+
+    /**
+     * Compute the shortest paths from a source to every vertex it reaches
+     *
+     * @param source the start vertex
+     * @return the shortest path tree rooted at source, or null if source is not part of the graph
+     */
+    ShortestPathTree<V> tree(V source) {
+        if (!graph.vertex(source)) {
+            return null;
+        }
+        reset();
+        search(intern(source), -1, Integer.MAX_VALUE);
+
+        int n = vertices.size();
+        return new ShortestPathTree<>(new HashMap<>(ids), new ArrayList<>(vertices),
+                Arrays.copyOf(parents, n), Arrays.copyOf(distances, n));
+    }
+
+    /**
+     * Obtain all vertices w that are no more than a <em>path distance</em> of range from v.
+     * The search stops expanding once it is further than range from v.
+     *
+     * @param v     the vertex to start the search from.
+     * @param range the radius of the search.
+     * @return a map where the keys are the vertices in the neighbourhood of v,
+     *          and the value for key w is the last edge on the shortest path
+     *          from v to w.
+     */
+    public Map<V, E> neighbourhood(V v, int range) {
+        Map<V, E> neighbourhood = new HashMap<>();
+        if (!graph.vertex(v) || range < 0) {
+            return neighbourhood;
+        }
+        reset();
+        int s = intern(v);
+        search(s, -1, range);
+
+        for (int i = 0; i < vertices.size(); i++) {
+            if (settled[i] && i != s) {
+                neighbourhood.put(vertices.get(i), parentEdges.get(i));
+            }
+        }
+        return neighbourhood;
+    }
+
+    /**
+     * Answer several neighbourhood queries, sharing this engine's buffers between them
+     *
+     * @param queries maps each vertex to search from to the radius of its search
+     * @return a map from each queried vertex to neighbourhood(v, queries.get(v))
+     */
+    public Map<V, Map<V, E>> neighbourhoods(Map<V, Integer> queries) {
+        Map<V, Map<V, E>> neighbourhoods = new HashMap<>();
+        queries.forEach((v, range) -> neighbourhoods.put(v, neighbourhood(v, range)));
+        return neighbourhoods;
+    }
+
+    /**
+     * Run Dijkstra's algorithm from the interned vertex s
+     *
+     * @param s     the id of the source
+     * @param t     the id to stop at once it is settled, or -1 to settle everything in range
+     * @param range vertices further than range from s are not reached
+     */
+    private void search(int s, int t, int range) {
+        distances[s] = 0;
+        heap.push(s, 0);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            settled[current] = true;
+            settledCount++;
+            if (current == t) {
+                break;
+            }
+            relax(current, range, false);
+        }
+    }
+
+    /**
+     * Run Dijkstra's algorithm from s and from t at once, expanding the side with the smaller queue.
+     * No path through an unsettled vertex can be shorter than the sum of the smallest keys of
+     * both queues, so the search stops once that sum reaches the shortest path met so far.
+     *
+     * @param s the id of the source
+     * @param t the id of the sink
+     */
+    private void searchBoth(int s, int t) {
+        bidirectional = true;
+        shortest = Long.MAX_VALUE;
+        meeting = -1;
+        distances[s] = 0;
+        heap.push(s, 0);
+        backDistances[t] = 0;
+        backHeap.push(t, 0);
+        meet(s);
+
+        while (!heap.isEmpty() && !backHeap.isEmpty()) {
+            if ((long) heap.peekKey() + backHeap.peekKey() >= shortest) {
+                break;
+            }
+            boolean backward = backHeap.size() < heap.size();
+            int current;
+            if (backward) {
+                current = backHeap.poll();
+                backSettled[current] = true;
+            } else {
+                current = heap.poll();
+                settled[current] = true;
+            }
+            settledCount++;
+            relax(current, Integer.MAX_VALUE, backward);
+        }
+        bidirectional = false;
+    }
+
+    /**
+     * Record the path through v if both searches reached it and it is the shortest met so far
+     */
+    private void meet(int v) {
+        if (distances[v] != Integer.MAX_VALUE && backDistances[v] != Integer.MAX_VALUE
+                && (long) distances[v] + backDistances[v] < shortest) {
+            shortest = (long) distances[v] + backDistances[v];
+            meeting = v;
+        }
+    }
+
+    private void relax(int current, int range, boolean backward) {
+        relaxation.current = current;
+        relaxation.range = range;
+        relaxation.backward = backward;
+        if (heuristic != null && verifyHeuristic) {
+            relaxation.estimate = estimate(vertices.get(current));
+        }
+        graph.forEachNeighbour(vertices.get(current), relaxation);
+    }
+
+    /**
+     * Relaxes the edges of one settled vertex as the graph streams them,
+     * a single instance is reused for every vertex
+     */
+    private class Relaxation implements BiConsumer<V, E> {
+        int current;
+        int range;
+        boolean backward;
+        int estimate;
+
+        @Override
+        public void accept(V neighbour, E edge) {
+            int next = intern(neighbour);
+            if (heuristic != null && verifyHeuristic && estimate > (long) edge.length() + estimate(neighbour)) {
+                throw new IllegalStateException("Heuristic is not consistent on the edge "
+                        + vertices.get(current) + " - " + neighbour);
+            }
+            if (backward) {
+                if (backSettled[next]) {
+                    return;
+                }
+                int distance = backDistances[current] + edge.length();
+                if (distance < backDistances[next]) {
+                    backDistances[next] = distance;
+                    backParents[next] = current;
+                    backHeap.push(next, distance);
+                    meet(next);
+                }
+                return;
+            }
+            if (settled[next]) {
+                return;
+            }
+            int distance = distances[current] + edge.length();
+            if (distance < distances[next] && distance <= range) {
+                distances[next] = distance;
+                parents[next] = current;
+                parentEdges.set(next, edge);
+                heap.push(next, heuristic == null ? distance : key(distance, estimate(neighbour)));
+                if (bidirectional) {
+                    meet(next);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the A* key of a vertex, saturating at Integer.MAX_VALUE so that a large estimate
+     * cannot wrap around and move the vertex to the front of the queue
+     */
+    private static int key(int distance, int estimate) {
+        return (int) Math.min((long) distance + estimate, Integer.MAX_VALUE);
+    }
+
+    private int estimate(V v) {
+        int estimate = heuristic.estimate(v, target);
+        if (verifyHeuristic && estimate < 0) {
+            throw new IllegalStateException("Heuristic estimates " + v + " at " + estimate);
+        }
+        return estimate;
+    }
+
+    private List<V> path(int s, int t) {
+        List<V> path = new ArrayList<>();
+        if (distances[t] == Integer.MAX_VALUE) {
+            return path;
+        }
+        for (int current = t; current != -1; current = parents[current]) {
+            path.add(vertices.get(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    private List<V> meetingPath() {
+        List<V> path = new ArrayList<>();
+        if (meeting == -1) {
+            return path;
+        }
+        for (int current = meeting; current != -1; current = parents[current]) {
+            path.add(vertices.get(current));
+        }
+        Collections.reverse(path);
+        for (int current = backParents[meeting]; current != -1; current = backParents[current]) {
+            path.add(vertices.get(current));
+        }
+        return path;
+    }
+
+    private void reset() {
+        ids.clear();
+        vertices.clear();
+        parentEdges.clear();
+        heap.clear();
+        backHeap.clear();
+        settledCount = 0;
+    }
+
+    private int intern(V v) {
+        Integer id = ids.get(v);
+        if (id != null) {
+            return id;
+        }
+        int next = vertices.size();
+        if (next == distances.length) {
+            int capacity = next * 2;
+            distances = Arrays.copyOf(distances, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            settled = Arrays.copyOf(settled, capacity);
+            backDistances = Arrays.copyOf(backDistances, capacity);
+            backParents = Arrays.copyOf(backParents, capacity);
+            backSettled = Arrays.copyOf(backSettled, capacity);
+            heap.ensureCapacity(capacity);
+            backHeap.ensureCapacity(capacity);
+        }
+        ids.put(v, next);
+        vertices.add(v);
+        parentEdges.add(null);
+        distances[next] = Integer.MAX_VALUE;
+        parents[next] = -1;
+        settled[next] = false;
+        backDistances[next] = Integer.MAX_VALUE;
+        backParents[next] = -1;
+        backSettled[next] = false;
+        return next;
+    }
+}
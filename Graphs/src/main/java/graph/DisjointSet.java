@@ -0,0 +1,82 @@
+package graph;
+
+/**
+ * A disjoint-set forest over the ints [0, size) with path compression and union by rank.
+ */
+final class DisjointSet {
+    private final int[] parents;
+    private final byte[] ranks;
+    private int count;
+    // Rep Invariant:
+    //          following parents from any element ends at a root r with parents[r] == r,
+    //          and count is the number of roots.
+    // Abstract Function:
+    //          A partition of [0, size) where every set is named by its root.
+
+    /**
+     * Create a partition where every element is in a set of its own
+     *
+     * @param size the number of elements
+     */
+    DisjointSet(int size) {
+        parents = new int[size];
+        ranks = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parents[i] = i;
+        }
+        count = size;
+    }
+
+    /**
+     * Find the root of the set holding x
+     *
+     * @param x an element, 0 <= x < size
+     * @return the root of the set that holds x
+     */
+    int find(int x) {
+        int root = x;
+        while (parents[root] != root) {
+            root = parents[root];
+        }
+        while (parents[x] != root) {
+            int next = parents[x];
+            parents[x] = root;
+            x = next;
+        }
+        return root;
+    }
+
+    /**
+     * Merge the sets holding a and b
+     *
+     * @param a an element, 0 <= a < size
+     * @param b an element, 0 <= b < size
+     * @return true if a and b were in different sets and false otherwise
+     */
+    boolean union(int a, int b) {
+        int rootA = find(a);
+        int rootB = find(b);
+        if (rootA == rootB) {
+            return false;
+        }
+        if (ranks[rootA] < ranks[rootB]) {
+            parents[rootA] = rootB;
+        } else if (ranks[rootA] > ranks[rootB]) {
+            parents[rootB] = rootA;
+        } else {
+            parents[rootB] = rootA;
+            ranks[rootA]++;
+        }
+        count--;
+        return true;
+    }
+
+    /**
+     * Obtain the number of sets in the partition
+     *
+     * @return the number of disjoint sets
+     */
+    int count() {
+        return count;
+    }
+}
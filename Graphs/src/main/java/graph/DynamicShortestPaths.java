@@ -0,0 +1,388 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * Keeps the shortest path trees of registered sources up to date as edges are added and removed,
+ * in the style of Ramalingam and Reps: an update only touches the vertices whose distance changes.
+ *
+ * When an edge u-v shortens the path to v, the decrease is propagated from v with Dijkstra's
+ * algorithm, which stops wherever distances do not improve. When a tree edge p-c is removed, only
+ * the subtree hanging below c can get further away: its vertices are detached, each is given the
+ * best distance offered by a neighbour outside the subtree, and the subtree is settled again from
+ * those distances. Removing an edge that is not in a tree changes nothing.
+ *
+ * The graph is read, never mutated, and must already reflect a change when it is reported.
+ * Graph reports its own mutations to the instance it hands out. Not safe for concurrent use.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class DynamicShortestPaths<V extends Vertex, E extends Edge<V>> {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final MGraph<V, E> graph;
+    private final Map<V, Tree> trees = new HashMap<>();
+    private final IndexedMinHeap heap = new IndexedMinHeap(INITIAL_CAPACITY);
+    private long updatedVertices;
+    // Rep Invariant:
+    //          For every tree, every vertex reachable from its source in graph has an id, distances holds
+    //          its exact distance from the source and parents a predecessor on a shortest path, with the
+    //          children of each vertex linked through firstChild and nextSibling/previousSibling.
+    //          heap is empty between calls.
+    // Abstract Function:
+    //          Represents the shortest path trees rooted at each key of trees, updatedVertices counts the
+    //          distances set since creation.
+
+    /**
+     * Create an instance without sources
+     *
+     * @param graph the graph to follow, it is read and never mutated
+     */
+    public DynamicShortestPaths(MGraph<V, E> graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Start maintaining the shortest path tree of a source, computing it from scratch
+     *
+     * @param source the vertex to measure distances from
+     * @return true if source was registered and false if it already was or is not part of the graph
+     */
+    public boolean register(V source) {
+        if (trees.containsKey(source) || !graph.vertex(source)) {
+            return false;
+        }
+        Tree tree = new Tree();
+        int s = tree.intern(source);
+        tree.distances[s] = 0;
+        updatedVertices++;
+        heap.ensureCapacity(tree.capacity());
+        heap.push(s, 0);
+        tree.propagate();
+        trees.put(source, tree);
+        return true;
+    }
+
+    /**
+     * Stop maintaining the shortest path tree of a source
+     *
+     * @param source the vertex distances were measured from
+     * @return true if source was registered and false otherwise
+     */
+    public boolean unregister(V source) {
+        return trees.remove(source) != null;
+    }
+
+    /**
+     * Obtain the registered sources
+     *
+     * @return an unmodifiable view of the sources whose trees are maintained
+     */
+    public Set<V> sources() {
+        return Collections.unmodifiableSet(trees.keySet());
+    }
+
+    /**
+     * Obtain the length of the shortest path from a registered source
+     *
+     * @param source a registered source
+     * @param target the end vertex
+     * @return the distance from source to target, or Integer.MAX_VALUE if target cannot be reached
+     * @throws IllegalArgumentException if source is not registered
+     */
+    public int distance(V source, V target) {
+        Tree tree = tree(source);
+        Integer t = tree.ids.get(target);
+        return t == null ? UNREACHED : tree.distances[t];
+    }
+
+    /**
+     * Obtain a shortest path from a registered source
+     *
+     * @param source a registered source
+     * @param target the end vertex
+     * @return the vertices from source to target, both included, or an empty list if target cannot be reached
+     * @throws IllegalArgumentException if source is not registered
+     */
+    public List<V> shortestPath(V source, V target) {
+        Tree tree = tree(source);
+        List<V> path = new ArrayList<>();
+        Integer t = tree.ids.get(target);
+        if (t == null) {
+            return path;
+        }
+        for (int current = t; current != -1; current = tree.parents[current]) {
+            path.add(tree.vertices.get(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Obtain the amount of work done so far
+     *
+     * @return the number of times the distance of a vertex was set, by registrations and updates
+     */
+    public long updatedVertices() {
+        return updatedVertices;
+    }
+
+    private Tree tree(V source) {
+        Tree tree = trees.get(source);
+        if (tree == null) {
+            throw new IllegalArgumentException("Not a registered source: " + source);
+        }
+        return tree;
+    }
+
+    /**
+     * Update every tree after an edge was added to the graph
+     *
+     * @param e the added edge, already part of the graph
+     */
+    public void edgeAdded(E e) {
+        for (Tree tree : trees.values()) {
+            tree.edgeAdded(e.v1(), e.v2(), e.length());
+        }
+    }
+
+    /**
+     * Update every tree after an edge was removed from the graph
+     *
+     * @param e the removed edge, no longer part of the graph
+     */
+    public void edgeRemoved(E e) {
+        for (Tree tree : trees.values()) {
+            tree.edgeRemoved(e.v1(), e.v2());
+        }
+    }
+
+    /**
+     * Update every tree after a vertex was removed from the graph, unregistering it if it was a source
+     *
+     * @param v     the removed vertex, no longer part of the graph
+     * @param edges the edges that were incident on v
+     */
+    public void vertexRemoved(V v, Collection<E> edges) {
+        trees.remove(v);
+        for (E e : edges) {
+            edgeRemoved(e);
+        }
+    }
+
+    /**
+     * The shortest path tree of one source over dense ids, ids of unreachable vertices are recycled
+     */
+    private final class Tree {
+        final Map<V, Integer> ids = new HashMap<>();
+        final List<V> vertices = new ArrayList<>();
+        int[] distances = new int[INITIAL_CAPACITY];
+        int[] parents = new int[INITIAL_CAPACITY];
+        int[] firstChild = new int[INITIAL_CAPACITY];
+        int[] nextSibling = new int[INITIAL_CAPACITY];
+        int[] previousSibling = new int[INITIAL_CAPACITY];
+        private int[] freeIds = new int[INITIAL_CAPACITY];
+        private int freeCount;
+        private final Relaxation relaxation = new Relaxation();
+        private final Offer offer = new Offer();
+
+        int capacity() {
+            return distances.length;
+        }
+
+        int intern(V v) {
+            Integer known = ids.get(v);
+            if (known != null) {
+                return known;
+            }
+            int id;
+            if (freeCount > 0) {
+                id = freeIds[--freeCount];
+                vertices.set(id, v);
+            } else {
+                id = vertices.size();
+                vertices.add(v);
+                if (id == distances.length) {
+                    int grown = id * 2;
+                    distances = Arrays.copyOf(distances, grown);
+                    parents = Arrays.copyOf(parents, grown);
+                    firstChild = Arrays.copyOf(firstChild, grown);
+                    nextSibling = Arrays.copyOf(nextSibling, grown);
+                    previousSibling = Arrays.copyOf(previousSibling, grown);
+                    heap.ensureCapacity(grown);
+                }
+            }
+            ids.put(v, id);
+            distances[id] = UNREACHED;
+            parents[id] = -1;
+            firstChild[id] = -1;
+            nextSibling[id] = -1;
+            previousSibling[id] = -1;
+            return id;
+        }
+
+        private void release(int id) {
+            ids.remove(vertices.get(id));
+            vertices.set(id, null);
+            if (freeCount == freeIds.length) {
+                freeIds = Arrays.copyOf(freeIds, freeCount * 2);
+            }
+            freeIds[freeCount++] = id;
+        }
+
+        private void detach(int child) {
+            int parent = parents[child];
+            if (parent == -1) {
+                return;
+            }
+            if (previousSibling[child] == -1) {
+                firstChild[parent] = nextSibling[child];
+            } else {
+                nextSibling[previousSibling[child]] = nextSibling[child];
+            }
+            if (nextSibling[child] != -1) {
+                previousSibling[nextSibling[child]] = previousSibling[child];
+            }
+            parents[child] = -1;
+            nextSibling[child] = -1;
+            previousSibling[child] = -1;
+        }
+
+        private void attach(int child, int parent) {
+            detach(child);
+            parents[child] = parent;
+            nextSibling[child] = firstChild[parent];
+            if (firstChild[parent] != -1) {
+                previousSibling[firstChild[parent]] = child;
+            }
+            firstChild[parent] = child;
+        }
+
+        /**
+         * Give a vertex a shorter distance through a parent and queue it for propagation
+         */
+        private void improve(int id, int parent, int distance) {
+            distances[id] = distance;
+            attach(id, parent);
+            heap.push(id, distance);
+            updatedVertices++;
+        }
+
+        /**
+         * Settle the queued vertices, relaxing their edges until no distance improves
+         */
+        void propagate() {
+            while (!heap.isEmpty()) {
+                relaxation.current = heap.poll();
+                graph.forEachNeighbour(vertices.get(relaxation.current), relaxation);
+            }
+        }
+
+        void edgeAdded(V v1, V v2, int length) {
+            Integer id1 = ids.get(v1);
+            Integer id2 = ids.get(v2);
+            int d1 = id1 == null ? UNREACHED : distances[id1];
+            int d2 = id2 == null ? UNREACHED : distances[id2];
+            if (d1 != UNREACHED && d1 + length < d2) {
+                improve(intern(v2), id1, d1 + length);
+            } else if (d2 != UNREACHED && d2 + length < d1) {
+                improve(intern(v1), id2, d2 + length);
+            } else {
+                return;
+            }
+            propagate();
+        }
+
+        void edgeRemoved(V v1, V v2) {
+            Integer id1 = ids.get(v1);
+            Integer id2 = ids.get(v2);
+            if (id1 == null || id2 == null) {
+                return;
+            }
+            if (parents[id2] == id1) {
+                repair(id2);
+            } else if (parents[id1] == id2) {
+                repair(id1);
+            }
+        }
+
+        /**
+         * Recompute the distances of the subtree below root, which lost its tree edge
+         */
+        private void repair(int root) {
+            detach(root);
+            int[] subtree = new int[INITIAL_CAPACITY];
+            int size = 0;
+            subtree[size++] = root;
+            for (int i = 0; i < size; i++) {
+                for (int child = firstChild[subtree[i]]; child != -1; child = nextSibling[child]) {
+                    if (size == subtree.length) {
+                        subtree = Arrays.copyOf(subtree, size * 2);
+                    }
+                    subtree[size++] = child;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                int id = subtree[i];
+                distances[id] = UNREACHED;
+                parents[id] = -1;
+                firstChild[id] = -1;
+                nextSibling[id] = -1;
+                previousSibling[id] = -1;
+            }
+
+            for (int i = 0; i < size; i++) {
+                int id = subtree[i];
+                offer.best = UNREACHED;
+                offer.parent = -1;
+                graph.forEachNeighbour(vertices.get(id), offer);
+                if (offer.parent != -1) {
+                    improve(id, offer.parent, offer.best);
+                }
+            }
+            propagate();
+
+            for (int i = 0; i < size; i++) {
+                if (distances[subtree[i]] == UNREACHED) {
+                    release(subtree[i]);
+                }
+            }
+        }
+
+        /**
+         * Relaxes the edges of one settled vertex, a single instance is reused for every vertex
+         */
+        private final class Relaxation implements BiConsumer<V, E> {
+            int current;
+
+            @Override
+            public void accept(V neighbour, E edge) {
+                int distance = distances[current] + edge.length();
+                Integer known = ids.get(neighbour);
+                if (known == null || distance < distances[known]) {
+                    improve(known == null ? intern(neighbour) : known, current, distance);
+                }
+            }
+        }
+
+        /**
+         * Finds the neighbour outside a detached subtree that offers the shortest distance
+         */
+        private final class Offer implements BiConsumer<V, E> {
+            int best;
+            int parent;
+
+            @Override
+            public void accept(V neighbour, E edge) {
+                Integer known = ids.get(neighbour);
+                if (known != null && distances[known] != UNREACHED && distances[known] + edge.length() < best) {
+                    best = distances[known] + edge.length();
+                    parent = known;
+                }
+            }
+        }
+    }
+}
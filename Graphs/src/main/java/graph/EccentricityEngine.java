@@ -0,0 +1,306 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Computes eccentricities, the diameter and the center of the largest connected
+ * component of a CsrGraph, or of any other DenseGraph such as a MappedGraph.
+ *
+ * eccentricities() runs one single-source search per vertex. diameter() and center()
+ * are exact but usually need far fewer searches: in the style of Takes and Kosters'
+ * BoundingDiameters, every search from v tightens, for each other vertex w,
+ *     max(d(v,w), ecc(v) - d(v,w)) <= ecc(w) <= ecc(v) + d(v,w)
+ * and vertices whose bounds cannot change the answer are dropped without a search.
+ *
+ * Given a ForkJoinPool the engine runs its searches in rounds of one source per worker
+ * thread. Every worker keeps its own scratch buffers, and the bounds are merged on the
+ * calling thread after each round, so results are identical to a sequential run.
+ *
+ * An engine is not safe for concurrent use by several callers.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class EccentricityEngine<V extends Vertex, E extends Edge<V>> {
+    private final DenseGraph<V, E> graph;
+    private final int[] component;
+    private final ForkJoinPool pool;
+    private final List<Worker> workers = new ArrayList<>();
+    private int searches;
+    // Rep Invariant:
+    //          component holds the ids of the largest component of graph in increasing order,
+    //          there is at least one worker and exactly one when pool is null.
+    // Abstract Function:
+    //          Answers eccentricity queries about component, searches counts the
+    //          single-source searches run so far.
+
+    /**
+     * Create an engine that runs its searches on the calling thread
+     *
+     * @param graph the graph to analyse
+     */
+    public EccentricityEngine(CsrGraph<V, E> graph) {
+        this(graph, null);
+    }
+
+    /**
+     * Create an engine that runs its searches on a pool
+     *
+     * @param graph the graph to analyse
+     * @param pool  the pool to search on, one search per worker thread at a time,
+     *              or null to search on the calling thread
+     */
+    public EccentricityEngine(CsrGraph<V, E> graph, ForkJoinPool pool) {
+        this(graph, graph.largestComponent(), pool);
+    }
+
+    /**
+     * Create an engine over any dense graph that runs its searches on a pool
+     *
+     * @param graph the graph to analyse
+     * @param pool  the pool to search on, or null to search on the calling thread
+     * @return an engine over graph
+     */
+    static <V extends Vertex, E extends Edge<V>> EccentricityEngine<V, E> forDense(DenseGraph<V, E> graph, ForkJoinPool pool) {
+        return new EccentricityEngine<>(graph, graph.largestComponent(), pool);
+    }
+
+    private EccentricityEngine(DenseGraph<V, E> graph, int[] component, ForkJoinPool pool) {
+        this.graph = graph;
+        this.component = component;
+        this.pool = pool;
+        int parallelism = pool == null ? 1 : Math.max(1, Math.min(pool.getParallelism(), component.length));
+        for (int i = 0; i < parallelism; i++) {
+            workers.add(new Worker());
+        }
+    }
+
+    /**
+     * Obtain the number of single-source searches run by this engine so far
+     *
+     * @return the number of searches
+     */
+    public int searches() {
+        return searches;
+    }
+
+    /**
+     * Compute the eccentricity of every vertex in the largest connected component,
+     * with one single-source search per vertex.
+     *
+     * @return a map from each vertex of the largest component to its eccentricity
+     */
+    public Map<V, Integer> eccentricities() {
+        Map<V, Integer> eccentricities = new HashMap<>();
+        int[] sources = new int[workers.size()];
+        for (int next = 0; next < component.length; ) {
+            int count = 0;
+            while (count < sources.length && next < component.length) {
+                sources[count++] = component[next++];
+            }
+            run(sources, count);
+            for (int i = 0; i < count; i++) {
+                eccentricities.put(graph.vertexAt(sources[i]), workers.get(i).eccentricity);
+            }
+        }
+        return eccentricities;
+    }
+
+    /**
+     * Compute the diameter of the largest connected component
+     *
+     * @return the largest eccentricity in the largest component, 0 if the graph has no vertices
+     */
+    public int diameter() {
+        Bounds bounds = new Bounds();
+        int[] sources = new int[workers.size()];
+        int diameter = 0;
+
+        boolean pickUpper = true;
+        while (bounds.candidates > 0) {
+            int count = bounds.pick(sources, pickUpper);
+            pickUpper = !pickUpper;
+            run(sources, count);
+            for (int i = 0; i < count; i++) {
+                Worker worker = workers.get(i);
+                bounds.update(worker.distances, worker.eccentricity);
+                diameter = Math.max(diameter, worker.eccentricity);
+            }
+
+            for (int i = 0; i < component.length; i++) {
+                if (bounds.active[i]) {
+                    diameter = Math.max(diameter, bounds.lower[i]);
+                }
+            }
+            for (int i = 0; i < component.length; i++) {
+                if (bounds.active[i] && bounds.upper[i] <= diameter) {
+                    bounds.drop(i);
+                }
+            }
+        }
+        return diameter;
+    }
+
+    /**
+     * Compute the center of the largest connected component
+     *
+     * @return the vertex with the smallest eccentricity in the largest component, the one
+     *          ordered first by id and name on ties, or null if the graph has no vertices
+     */
+    public V center() {
+        Bounds bounds = new Bounds();
+        int[] sources = new int[workers.size()];
+        int center = -1;
+        int radius = Integer.MAX_VALUE;
+
+        boolean pickLower = true;
+        while (bounds.candidates > 0) {
+            int count = bounds.pick(sources, !pickLower);
+            pickLower = !pickLower;
+            run(sources, count);
+            for (int i = 0; i < count; i++) {
+                Worker worker = workers.get(i);
+                bounds.update(worker.distances, worker.eccentricity);
+            }
+
+            for (int i = 0; i < component.length; i++) {
+                if (!bounds.active[i]) {
+                    continue;
+                }
+                if (bounds.lower[i] == bounds.upper[i]) {
+                    if (bounds.lower[i] < radius || (bounds.lower[i] == radius && i < center)) {
+                        radius = bounds.lower[i];
+                        center = i;
+                    }
+                    bounds.drop(i);
+                }
+            }
+            for (int i = 0; i < component.length; i++) {
+                if (bounds.active[i]
+                        && (bounds.lower[i] > radius || (bounds.lower[i] == radius && i > center))) {
+                    bounds.drop(i);
+                }
+            }
+        }
+        return center == -1 ? null : graph.vertexAt(component[center]);
+    }
+
+    /**
+     * Search from sources[i] on worker i, for every i < count
+     */
+    private void run(int[] sources, int count) {
+        searches += count;
+        if (pool == null || count == 1) {
+            for (int i = 0; i < count; i++) {
+                workers.get(i).search(sources[i]);
+            }
+            return;
+        }
+
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Worker worker = workers.get(i);
+            int source = sources[i];
+            tasks.add(() -> {
+                worker.search(source);
+                return null;
+            });
+        }
+        try {
+            for (Future<Void> future : pool.invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while computing eccentricities", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Eccentricity search failed", e.getCause());
+        }
+    }
+
+    /**
+     * Scratch buffers for one single-source search at a time
+     */
+    private class Worker {
+        final int[] distances = new int[graph.vertexCount()];
+        final int[] parents = new int[graph.vertexCount()];
+        final int[] order = new int[graph.vertexCount()];
+        final IndexedMinHeap heap = new IndexedMinHeap(graph.vertexCount());
+        int eccentricity;
+
+        /**
+         * Search from source, leaving the distances of the component in distances
+         */
+        void search(int source) {
+            for (int v : component) {
+                distances[v] = Integer.MAX_VALUE;
+            }
+            int settled = graph.search(source, -1, Integer.MAX_VALUE, distances, parents, heap, order);
+            eccentricity = distances[order[settled - 1]];
+        }
+    }
+
+    /**
+     * Eccentricity bounds for the vertices of the component, indexed by position in component
+     */
+    private class Bounds {
+        final int[] lower = new int[component.length];
+        final int[] upper = new int[component.length];
+        final boolean[] active = new boolean[component.length];
+        final boolean[] picked = new boolean[component.length];
+        int candidates = component.length;
+
+        Bounds() {
+            Arrays.fill(upper, Integer.MAX_VALUE);
+            Arrays.fill(active, true);
+        }
+
+        /**
+         * Tighten the bounds with the distances of a search with the given eccentricity
+         */
+        void update(int[] distances, int eccentricity) {
+            for (int i = 0; i < component.length; i++) {
+                int distance = distances[component[i]];
+                lower[i] = Math.max(lower[i], Math.max(distance, eccentricity - distance));
+                upper[i] = (int) Math.min(upper[i], (long) eccentricity + distance);
+            }
+        }
+
+        void drop(int i) {
+            active[i] = false;
+            candidates--;
+        }
+
+        /**
+         * Choose up to sources.length distinct candidates, alternating between the largest
+         * upper bound and the smallest lower bound
+         *
+         * @param sources   receives the ids of the chosen vertices
+         * @param pickUpper whether the first choice is by largest upper bound
+         * @return the number of chosen vertices
+         */
+        int pick(int[] sources, boolean pickUpper) {
+            int count = 0;
+            while (count < sources.length && count < candidates) {
+                int best = -1;
+                for (int i = 0; i < component.length; i++) {
+                    if (active[i] && !picked[i] && (best == -1
+                            || (pickUpper ? upper[i] > upper[best] : lower[i] < lower[best]))) {
+                        best = i;
+                    }
+                }
+                picked[best] = true;
+                sources[count++] = component[best];
+                pickUpper = !pickUpper;
+            }
+            for (int i = 0; i < count; i++) {
+                picked[Arrays.binarySearch(component, sources[i])] = false;
+            }
+            return count;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package graph;
+
+/**
+ * Creates edges of a given type from their end points and length, such as Edge::new.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+@FunctionalInterface
+public interface EdgeFactory<V extends Vertex, E extends Edge<V>> {
+    /**
+     * Create an edge
+     *
+     * @param v1     one end of the edge
+     * @param v2     the other end of the edge, not equal to v1
+     * @param length the length of the edge, at least 0
+     * @return the v1-v2 edge with the given length
+     */
+    E create(V v1, V v2, int length);
+}
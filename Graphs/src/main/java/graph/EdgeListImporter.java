@@ -0,0 +1,483 @@
+package graph;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Streams edge-list text files into a graph.
+ *
+ * Every line holds one edge as "id1 name1 id2 name2 length", separated by spaces or tabs;
+ * blank lines and lines starting with '#' are skipped. A reader thread fills a fixed
+ * buffer from the channel and parses the bytes in place, without splitting lines into
+ * Strings, into batches of edges. Batches go to the calling thread through a bounded
+ * queue and come back through a pool once consumed, so a slow consumer holds the reader
+ * up rather than letting parsed edges pile up: memory stays bounded by the buffer and
+ * the batches whatever the size of the file.
+ *
+ * Lines that cannot be parsed, including lines longer than the buffer and negative
+ * lengths, are counted as malformed and skipped. Self-loops are counted and skipped.
+ * An importer is not safe for concurrent use, but can import several files in turn.
+ */
+public class EdgeListImporter {
+    private static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+    private static final int DEFAULT_BATCH_SIZE = 8192;
+    private static final int DEFAULT_QUEUE_CAPACITY = 4;
+
+    private final int bufferBytes;
+    private final int batchSize;
+    private final int queueCapacity;
+
+    /**
+     * Receives the parsed edges on the consuming thread
+     */
+    private interface Sink {
+        void accept(Vertex v1, Vertex v2, int length);
+    }
+
+    /**
+     * The counts of one import
+     */
+    public static final class Result {
+        private final long lines;
+        private final long edges;
+        private final long malformedLines;
+        private final long selfLoops;
+        private final long nanos;
+
+        Result(long lines, long edges, long malformedLines, long selfLoops, long nanos) {
+            this.lines = lines;
+            this.edges = edges;
+            this.malformedLines = malformedLines;
+            this.selfLoops = selfLoops;
+            this.nanos = nanos;
+        }
+
+        /**
+         * @return the number of lines read, blank, comment and malformed lines included
+         */
+        public long lines() {
+            return lines;
+        }
+
+        /**
+         * @return the number of edges handed to the graph
+         */
+        public long edges() {
+            return edges;
+        }
+
+        /**
+         * @return the number of lines skipped because they could not be parsed
+         */
+        public long malformedLines() {
+            return malformedLines;
+        }
+
+        /**
+         * @return the number of lines skipped because both vertices were the same
+         */
+        public long selfLoops() {
+            return selfLoops;
+        }
+
+        /**
+         * @return the wall clock time of the import in nanoseconds
+         */
+        public long nanos() {
+            return nanos;
+        }
+
+        /**
+         * @return the number of lines read per second of wall clock time
+         */
+        public double linesPerSecond() {
+            return nanos == 0 ? 0 : lines * 1e9 / nanos;
+        }
+    }
+
+    /**
+     * Create an importer with a 1 MB read buffer, batches of 8192 edges and at most 4 batches queued
+     */
+    public EdgeListImporter() {
+        this(DEFAULT_BUFFER_BYTES, DEFAULT_BATCH_SIZE, DEFAULT_QUEUE_CAPACITY);
+    }
+
+    /**
+     * Create an importer
+     *
+     * @param bufferBytes   the size of the read buffer, also the longest line that can be parsed
+     * @param batchSize     the number of edges handed over at a time
+     * @param queueCapacity the number of parsed batches that may wait for the consumer
+     */
+    public EdgeListImporter(int bufferBytes, int batchSize, int queueCapacity) {
+        if (bufferBytes < 1 || batchSize < 1 || queueCapacity < 1) {
+            throw new IllegalArgumentException("Buffer, batch and queue sizes must be positive");
+        }
+        this.bufferBytes = bufferBytes;
+        this.batchSize = batchSize;
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Import the edges of a file into a bulk loader
+     *
+     * @param file    the edge-list file to read
+     * @param builder receives every edge, as (v1, v2, length) triples, so it needs an EdgeFactory;
+     *                vertices are added as their edges are
+     * @return the counts of the import
+     * @throws IOException if the file cannot be read
+     */
+    public Result importInto(Path file, GraphBuilder<Vertex, Edge<Vertex>> builder) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importInto(channel, builder);
+        }
+    }
+
+    /**
+     * Import the edges of a channel into a bulk loader
+     *
+     * @param channel the edge-list text to read, it is read to its end and not closed
+     * @param builder receives every edge, as (v1, v2, length) triples, so it needs an EdgeFactory
+     * @return the counts of the import
+     * @throws IOException if the channel cannot be read
+     */
+    public Result importInto(ReadableByteChannel channel, GraphBuilder<Vertex, Edge<Vertex>> builder) throws IOException {
+        return run(channel, builder::addEdge);
+    }
+
+    /**
+     * Import the edges of a file straight into a graph, adding missing vertices
+     *
+     * @param file  the edge-list file to read
+     * @param graph receives every edge through addVertex and addEdge
+     * @return the counts of the import
+     * @throws IOException if the file cannot be read
+     */
+    public Result importInto(Path file, MGraph<Vertex, Edge<Vertex>> graph) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return importInto(channel, graph);
+        }
+    }
+
+    /**
+     * Import the edges of a channel straight into a graph, adding missing vertices
+     *
+     * @param channel the edge-list text to read, it is read to its end and not closed
+     * @param graph   receives every edge through addVertex and addEdge
+     * @return the counts of the import
+     * @throws IOException if the channel cannot be read
+     */
+    public Result importInto(ReadableByteChannel channel, MGraph<Vertex, Edge<Vertex>> graph) throws IOException {
+        return run(channel, (v1, v2, length) -> {
+            graph.addVertex(v1);
+            graph.addVertex(v2);
+            graph.addEdge(new Edge<>(v1, v2, length));
+        });
+    }
+
+    private Result run(ReadableByteChannel channel, Sink sink) throws IOException {
+        long start = System.nanoTime();
+        BlockingQueue<Batch> full = new ArrayBlockingQueue<>(queueCapacity + 1);
+        BlockingQueue<Batch> free = new ArrayBlockingQueue<>(queueCapacity + 2);
+        for (int i = 0; i < queueCapacity + 2; i++) {
+            free.add(new Batch(batchSize));
+        }
+        Parser parser = new Parser(channel, full, free);
+        Thread reader = new Thread(parser, "edge-list-reader");
+        reader.setDaemon(true);
+        reader.start();
+
+        long edges = 0;
+        boolean ended = false;
+        try {
+            while (true) {
+                Batch batch = full.take();
+                if (batch == Batch.END) {
+                    ended = true;
+                    break;
+                }
+                for (int i = 0; i < batch.size; i++) {
+                    sink.accept(batch.sources[i], batch.targets[i], batch.lengths[i]);
+                }
+                edges += batch.size;
+                batch.clear();
+                free.put(batch);
+            }
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while importing");
+        } finally {
+            if (!ended) {
+                stop(parser, reader, full, free);
+            }
+        }
+        if (parser.failure instanceof IOException) {
+            throw (IOException) parser.failure;
+        }
+        if (parser.failure != null) {
+            throw (RuntimeException) parser.failure;
+        }
+        return new Result(parser.lines, edges, parser.malformed, parser.selfLoops, System.nanoTime() - start);
+    }
+
+    /**
+     * Make the reader stop early and wait until it has. The reader is not interrupted, that would
+     * close an interruptible channel the caller still owns; it is told to stop and its batches are
+     * recycled until it queues the end marker, so it never stays blocked on either queue. It stops
+     * once the read in progress returns.
+     */
+    private static void stop(Parser parser, Thread reader, BlockingQueue<Batch> full, BlockingQueue<Batch> free) {
+        parser.cancelled = true;
+        boolean interrupted = false;
+        boolean ended = false;
+        while (!ended || reader.isAlive()) {
+            try {
+                if (!ended) {
+                    Batch batch = full.take();
+                    if (batch == Batch.END) {
+                        ended = true;
+                    } else {
+                        batch.clear();
+                        free.offer(batch);
+                    }
+                } else {
+                    reader.join();
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * A reusable block of parsed edges
+     */
+    private static final class Batch {
+        static final Batch END = new Batch(0);
+
+        final Vertex[] sources;
+        final Vertex[] targets;
+        final int[] lengths;
+        int size;
+
+        Batch(int capacity) {
+            sources = new Vertex[capacity];
+            targets = new Vertex[capacity];
+            lengths = new int[capacity];
+        }
+
+        boolean isFull() {
+            return size == lengths.length;
+        }
+
+        void clear() {
+            Arrays.fill(sources, 0, size, null);
+            Arrays.fill(targets, 0, size, null);
+            size = 0;
+        }
+    }
+
+    /**
+     * Reads and parses the channel on the reader thread
+     */
+    private final class Parser implements Runnable {
+        private final ReadableByteChannel channel;
+        private final BlockingQueue<Batch> full;
+        private final BlockingQueue<Batch> free;
+        private final byte[] data = new byte[bufferBytes];
+        private int cursor;
+        private int end;
+        private boolean valid;
+        private Batch batch;
+        // written by the reader thread before it queues the end marker, read once it has ended
+        long lines;
+        long malformed;
+        long selfLoops;
+        Exception failure;
+        // set by the consumer when it gives up, the reader then stops reading
+        volatile boolean cancelled;
+
+        Parser(ReadableByteChannel channel, BlockingQueue<Batch> full, BlockingQueue<Batch> free) {
+            this.channel = channel;
+            this.full = full;
+            this.free = free;
+        }
+
+        @Override
+        public void run() {
+            try {
+                try {
+                    batch = free.take();
+                    parse();
+                    if (batch.size > 0) {
+                        full.put(batch);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    failure = e;
+                }
+                full.put(Batch.END);
+            } catch (InterruptedException e) {
+                // the reader thread is never interrupted by the consumer, keep the status for whoever did
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void parse() throws IOException, InterruptedException {
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            boolean skipping = false;
+            boolean eof = false;
+            while (!eof && !cancelled) {
+                eof = channel.read(buffer) == -1;
+                int limit = buffer.position();
+                int lineStart = 0;
+                for (int i = 0; i < limit; i++) {
+                    if (data[i] == '\n') {
+                        if (skipping) {
+                            skipping = false;
+                        } else {
+                            line(lineStart, i);
+                        }
+                        lineStart = i + 1;
+                    }
+                }
+                if (eof) {
+                    if (lineStart < limit && !skipping) {
+                        line(lineStart, limit);
+                    }
+                    break;
+                }
+                if (lineStart == 0 && limit == data.length) {
+                    // a line longer than the buffer, drop it up to its newline
+                    if (!skipping) {
+                        lines++;
+                        malformed++;
+                        skipping = true;
+                    }
+                    buffer.clear();
+                    continue;
+                }
+                System.arraycopy(data, lineStart, data, 0, limit - lineStart);
+                buffer.position(limit - lineStart);
+            }
+        }
+
+        private void line(int start, int stop) throws InterruptedException {
+            lines++;
+            if (stop > start && data[stop - 1] == '\r') {
+                stop--;
+            }
+            cursor = start;
+            end = stop;
+            skipBlanks();
+            if (cursor == end || data[cursor] == '#') {
+                return;
+            }
+
+            valid = true;
+            int id1 = number();
+            String name1 = token();
+            int id2 = number();
+            String name2 = token();
+            int length = number();
+            skipBlanks();
+            if (!valid || cursor != end || length < 0) {
+                malformed++;
+                return;
+            }
+            Vertex v1 = new Vertex(id1, name1);
+            Vertex v2 = new Vertex(id2, name2);
+            if (v1.equals(v2)) {
+                selfLoops++;
+                return;
+            }
+
+            int i = batch.size++;
+            batch.sources[i] = v1;
+            batch.targets[i] = v2;
+            batch.lengths[i] = length;
+            if (batch.isFull()) {
+                full.put(batch);
+                batch = free.take();
+            }
+        }
+
+        private void skipBlanks() {
+            while (cursor < end && (data[cursor] == ' ' || data[cursor] == '\t')) {
+                cursor++;
+            }
+        }
+
+        private int tokenEnd() {
+            int stop = cursor;
+            while (stop < end && data[stop] != ' ' && data[stop] != '\t') {
+                stop++;
+            }
+            return stop;
+        }
+
+        /**
+         * Parse the next token as an int, clearing valid if it is not one
+         */
+        private int number() {
+            skipBlanks();
+            int stop = tokenEnd();
+            int i = cursor;
+            cursor = stop;
+            boolean negative = i < stop && data[i] == '-';
+            if (negative) {
+                i++;
+            }
+            if (i == stop) {
+                valid = false;
+                return 0;
+            }
+            long value = 0;
+            for (; i < stop; i++) {
+                int digit = data[i] - '0';
+                if (digit < 0 || digit > 9) {
+                    valid = false;
+                    return 0;
+                }
+                value = value * 10 + digit;
+                if (value > Integer.MAX_VALUE + 1L) {
+                    valid = false;
+                    return 0;
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                valid = false;
+                return 0;
+            }
+            return (int) value;
+        }
+
+        /**
+         * Read the next token as a String, clearing valid if there is none
+         */
+        private String token() {
+            skipBlanks();
+            int stop = tokenEnd();
+            if (stop == cursor) {
+                valid = false;
+                return null;
+            }
+            String token = valid ? new String(data, cursor, stop - cursor, StandardCharsets.UTF_8) : null;
+            cursor = stop;
+            return token;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package graph;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
 
 /**
  * Represents a graph with vertices of type V.
@@ -8,9 +10,19 @@ import java.util.*;
  * @param <V> represents a vertex type
  */
 public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>, MGraph<V, E> {
-    final private ALGraph<V, E> graph;
+    final private MGraph<V, E> graph;
+    private ComponentTracker<V, E> components;
+    private ShortestPathCache<V, E> pathCache;
+    private DynamicShortestPaths<V, E> dynamicPaths;
+    private volatile PathSearch pathSearch = PathSearch.UNIDIRECTIONAL;
+    private volatile Heuristic<? super V> heuristic;
+    private volatile boolean verifyHeuristic;
+    private volatile long version;
     // Rep Invariant:
-    //          An augmented list graph made up of weighted edges and vertices.
+    //          An augmented list graph made up of weighted edges and vertices,
+    //          components is null or tracks the components of graph, pathCache is null or caches
+    //          shortest paths of graph, dynamicPaths is null or keeps the trees of its sources in step
+    //          with graph, and version grows with every successful mutation.
     // Abstract Function:
     //          Represents an undirected Graph.
 
@@ -21,6 +33,18 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
         graph = alGraph;
     }
 
+    /**
+     * Wrap any mutable graph, for instance a ConcurrentALGraph to ingest from several threads.
+     * Component tracking is not safe for concurrent mutation. Over a VersionedGraph, path
+     * queries and analytics run on the version current when they start and never block
+     * writers to the storage; over any other graph they must run while no other thread mutates it.
+     *
+     * @param storage the graph holding the vertices and edges
+     */
+    public Graph(MGraph<V,E> storage){
+        graph = storage;
+    }
+
     /**
      * Find the edge that connects two vertices. (An edge between v1 and v2 has to exist)
      * This method should not permit graph mutations.
@@ -30,23 +54,12 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * @return the edge connecting v1 and v2
      */
     public E getEdge(V v1, V v2){
-        E edge = null;
-        Set<E> edges = allEdges(v1);
-        for (E e : edges){
-            if (e.v1().equals(v1) || e.v2().equals(v1)){
-                if (e.v2().equals(v2) || e.v1().equals(v2)){
-                    edge = e;
-                }
-            }
-        }
-        return edge;//if spec is followed edge will never return null
+        return graph.getEdge(v1, v2);//if spec is followed edge will never return null
     }
 
     /**
      * Compute the shortest path in the graph from source to sink
      *
-     * Code inspired from: https://www.youtube.com/watch?v=BuvKtCh0SKk&ab_channel=Geekific
-     *
      * @param source the start vertex
      * @param sink   the end vertex
      * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
@@ -54,65 +67,103 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      *          with only one Vertex.
      */
     public List<V> shortestPath(V source, V sink){
-        List<V> shortest = new ArrayList<>();
-
-        if (allEdges(source).isEmpty() || allEdges(sink).isEmpty() || !vertex(source) || !vertex(sink)){
-            return shortest;
+        if (dynamicPaths != null && dynamicPaths.sources().contains(source)){
+            return dynamicPaths.shortestPath(source, sink);
         }
+        ShortestPathCache<V, E> cache = pathCache;
+        if (cache != null){
+            return cache.shortestPath(source, sink);
+        }
+        Heuristic<? super V> estimate = heuristic;
+        if (estimate != null){
+            DijkstraEngine<V, E> engine = new DijkstraEngine<>(stable());
+            engine.setVerifyHeuristic(verifyHeuristic);
+            return engine.shortestPath(source, sink, estimate);
+        }
+        return new DijkstraEngine<>(stable(), pathSearch).shortestPath(source, sink);
+    }
+
+    /**
+     * Make shortestPath run A* with a heuristic when it is not answered by a cached or dynamic tree.
+     * A heuristic takes precedence over the PathSearch mode.
+     *
+     * @param heuristic a consistent lower bound on distances, or null to search without one
+     * @param verify    true to check the heuristic on every edge A* relaxes and against exact distances,
+     *                  throwing IllegalStateException from shortestPath if it is not consistent or admissible
+     */
+    public void setHeuristic(Heuristic<? super V> heuristic, boolean verify){
+        this.heuristic = heuristic;
+        this.verifyHeuristic = verify;
+    }
+
+    /**
+     * Choose how shortestPath searches when it is not answered by a cached or dynamic tree
+     *
+     * @param mode UNIDIRECTIONAL, the default, or BIDIRECTIONAL to search from both ends
+     */
+    public void setPathSearch(PathSearch mode){
+        pathSearch = mode;
+    }
 
-        Map<V, V> shortestPath = new HashMap<>();
-        Map<V, Integer> shortestLengths = new HashMap<>();
-        Set<V> allVertices = allVertices();
-        for (V v : allVertices){
-            shortestPath.put(v, v);
-            shortestLengths.put(v, Integer.MAX_VALUE);
+    /**
+     * Start caching the shortest path trees computed by shortestPath, replacing any previous cache.
+     * Cached trees are dropped as soon as the graph is mutated through this Graph. Over a VersionedGraph
+     * each search runs on the version current when it starts, and trees are dropped as soon as a newer
+     * version is published, whoever mutated the storage.
+     *
+     * @param maxTrees the most sources whose trees are kept, at least 1
+     * @param maxBytes the most memory the cached trees should take, as estimated from their sizes
+     * @return the cache, for its hit, miss and eviction statistics
+     */
+    public ShortestPathCache<V, E> enableShortestPathCache(int maxTrees, long maxBytes){
+        if (graph instanceof VersionedGraph){
+            pathCache = new ShortestPathCache<>(this::stable, g -> ((GraphSnapshot<V, E>) g).version(), maxTrees, maxBytes);
+        } else {
+            pathCache = new ShortestPathCache<>(() -> graph, g -> version, maxTrees, maxBytes);
         }
-        shortestLengths.replace(source,0);
-
-        List<V> unsettledVertices = new LinkedList<>(Collections.singleton(source));
-        Set<V> settledVertices = new HashSet<>();
-
-        while (!unsettledVertices.isEmpty()){
-            int unsettledShortest = Integer.MAX_VALUE;
-            int unsettledShortestIndex = 0;
-            for (int i = 0; i < unsettledVertices.size(); i++){
-                if (shortestLengths.get(unsettledVertices.get(i)) < unsettledShortest){
-                    unsettledShortest = shortestLengths.get(unsettledVertices.get(i));
-                    unsettledShortestIndex = i;
-                }
-            }//makes sure it checks the shortest length first
-            V currentVertex = unsettledVertices.remove(unsettledShortestIndex);
-
-            getNeighbours(currentVertex).entrySet()
-                    .stream()
-                    .filter(v -> !settledVertices.contains(v.getKey()))
-                    .forEach(v -> {
-                        V lilCurrent = v.getKey();
-                        int distance = shortestLengths.get(currentVertex) + edgeLength(lilCurrent, currentVertex);
-
-                        if (distance < shortestLengths.get(lilCurrent)){
-                            shortestLengths.replace(lilCurrent, distance);
-                            shortestPath.replace(lilCurrent, currentVertex);
-                        }
-                        unsettledVertices.add(lilCurrent);
-                    });
-            settledVertices.add(currentVertex);
-        }//uses dijkstra's algorithm to create a map of shortests paths.
-
-        V currentVertex = sink;
-        do{
-            if (!shortestPath.get(currentVertex).equals(currentVertex)){
-                shortest.add(currentVertex);
-                currentVertex = shortestPath.get(currentVertex);
-            } else {
-                break;
-            }
-        } while (!currentVertex.equals(source));
-        shortest.add(source);
+        return pathCache;
+    }
 
-        Collections.reverse(shortest);
+    /**
+     * Stop caching shortest paths and drop the cached trees
+     */
+    public void disableShortestPathCache(){
+        pathCache = null;
+    }
+
+    /**
+     * Choose landmarks on the graph as it is now and compute their distance tables, for
+     * lower and upper bounds on distances and, through setHeuristic, goal-directed shortestPath
+     * queries on graphs without coordinates. The tables are not updated by later mutations.
+     *
+     * @param k         the number of landmarks, at least 1
+     * @param selection how landmarks are chosen
+     * @return the landmarks and their tables
+     */
+    public Landmarks<V> landmarks(int k, LandmarkSelection selection){
+        return Landmarks.build(stable(), k, selection);
+    }
+
+    /**
+     * Obtain the shortest path trees kept up to date as the graph is mutated through this Graph.
+     * shortestPath answers from the tree of a registered source instead of searching.
+     *
+     * @return the trees, created without sources on the first call
+     */
+    public DynamicShortestPaths<V, E> dynamicShortestPaths(){
+        if (dynamicPaths == null){
+            dynamicPaths = new DynamicShortestPaths<>(graph);
+        }
+        return dynamicPaths;
+    }
 
-        return shortest;
+    /**
+     * Obtain the version of the graph
+     *
+     * @return a number that grows with every successful addVertex, addEdge and remove
+     */
+    public long version(){
+        return version;
     }
 
     /**
@@ -146,20 +197,22 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      *          from v to w.
      */
     public Map<V, E> getNeighbours(V v, int range){
-        Map<V,E> neighbours = getNeighbours(v);
-
-        neighbours.entrySet().removeIf(vertex ->
-                pathLength(shortestPath(v, vertex.getKey())) > range
-        );
+        return new DijkstraEngine<>(stable()).neighbourhood(v, range);
+    }
 
-        return neighbours;
+    /**
+     * Answer several getNeighbours(v, range) queries at once, sharing the search buffers between them.
+     *
+     * @param queries maps each vertex to start a search from to the radius of its search.
+     * @return a map from each queried vertex v to getNeighbours(v, queries.get(v)).
+     */
+    public Map<V, Map<V, E>> getNeighbours(Map<V, Integer> queries){
+        return new DijkstraEngine<>(stable()).neighbourhoods(queries);
     }
 
     /**
      * Return a set with k connected components of the graph.
      *
-     * inspired from: https://www.youtube.com/watch?v=jsmMtJpPnhU&ab_channel=WilliamFiset
-     *
      * <ul>
      * <li>When k = 1, the method returns one graph in the set, and that graph
      * represents the minimum spanning tree of the graph.
@@ -182,160 +235,8 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * in its own partition.
      * However, if components of original graph is greater than k, returns null.
      */
-
     public Set<ImGraph<V, E>> minimumSpanningComponents(int k) {
-        Set<ImGraph<V, E>> msc = new HashSet<>();
-        List<ALGraph<V,E>> components = new ArrayList<>();
-        components = splitIntoComponents(graph);
-        Comparator<E> descending_edge_comparator = new Comparator<E>() { //descending (large to small)
-            @Override
-            public int compare(E e1, E e2) {
-                return e2.length() - e1.length();
-            }
-        };
-
-        if (components.size() <= k) {
-            List<ALGraph<V, E>> mst = new ArrayList<>();
-            Set<E> all_MSC_Edges = new HashSet<>();
-            components.forEach(g -> {
-                if(g.allEdges().size() > 0) {
-                    ALGraph<V,E> mst_component = minimumSpanningTree(g);
-                    all_MSC_Edges.addAll(mst_component.allEdges());
-                    mst.add(mst_component);
-                }
-                else{mst.add(g);}
-            });
-
-            //creates a priority queue of all edges in descending order
-            PriorityQueue<E> edges_pq = new PriorityQueue<>(all_MSC_Edges.size(), descending_edge_comparator);
-            all_MSC_Edges.forEach(e -> edges_pq.add(e));
-
-            for (int i = mst.size(); i < k; i++) {
-                E head = edges_pq.poll();
-                mst.forEach(g -> {
-                    g.remove(head);
-                });
-            }
-
-            mst.forEach(g -> {
-                splitIntoComponents(g).forEach(c -> {
-                    ImGraph<V,E> mst_component = new Graph(c);
-                    msc.add(mst_component);
-                });
-            });
-            return msc;
-        }
-        return null;
-    }
-
-    private List<ALGraph<V,E>> splitIntoComponents(ALGraph<V,E> undivided_graph) {
-        List<ALGraph<V,E>> components = new ArrayList<>();
-        List<V> graph_vertices = new ArrayList<V>(undivided_graph.allVertices());
-        while(graph_vertices.size() != 0) {
-            //reseting edges and vertex set (fields)
-            edgesSet = new HashSet<E>();
-            vertexSet = new HashSet<V>();
-            ALGraph<V,E> component_graph = new ALGraph<>();
-
-            //calls a recursive depth first search method with the first index of vertices list
-            dFSRecursion(graph_vertices.get(0), undivided_graph);
-
-            //defining component_graph using vertexset and edgesset
-            //and adding to components (list of MGraphs – components of original graph)
-            vertexSet.forEach(v -> {
-                component_graph.addVertex(v);
-            });
-            edgesSet.forEach(e -> {
-                component_graph.addEdge(e);
-            });
-            components.add(component_graph);
-
-            //remove used vertices from original vertices set
-            graph_vertices.removeAll(vertexSet);
-        }
-        return components;
-    }
-
-    private Set<E> edgesSet;
-    private Set<V> vertexSet;
-
-    private void dFSRecursion(V current, MGraph<V,E> instance) {
-        vertexSet.add(current);
-        Set<E> current_edges = instance.allEdges(current);
-
-        current_edges.forEach(e -> {
-            if(!edgesSet.contains(e)) {
-                edgesSet.add(e);
-                if(!e.v1().equals(current)) {
-                    dFSRecursion(e.v1(), instance);
-                }
-                else {
-                    dFSRecursion(e.v2(), instance);
-                }
-            }
-        });
-    }
-
-    private ALGraph<V,E> minimumSpanningTree(ALGraph<V,E> component) {
-
-        Comparator<E> ascending_edge_comparator = new Comparator<E>() { //ascending (small to large)
-            @Override
-            public int compare(E e1, E e2) {
-                return e1.length() - e2.length();
-            }
-        };
-
-        int n = component.allVertices().size();
-        int m = n-1;
-
-        List<V> vertices = new ArrayList<>(component.allVertices());
-
-        boolean[] visited = new boolean[n];
-        Arrays.fill(visited, Boolean.FALSE);
-
-        PriorityQueue<E> edges_pq = new PriorityQueue<E>(component.allEdges().size(), ascending_edge_comparator);
-        int edgeCount = 0;
-        Set<E> mstEdges = new HashSet<>();
-
-        int current_node = 0;
-
-        addEdge(current_node, visited, vertices, edges_pq);
-
-        while(edges_pq.size() > 0 && edgeCount != m) {
-            int next_node;
-            E edge = edges_pq.poll();
-            if(!edge.v1().equals(vertices.get(current_node))) {
-                next_node = vertices.indexOf(edge.v1());
-            }
-            else {
-                next_node = vertices.indexOf(edge.v2());
-            }
-
-            if(visited[next_node]) {continue;}
-
-            mstEdges.add(edge);
-            current_node = next_node;
-            addEdge(current_node, visited, vertices, edges_pq);
-            edgeCount++;
-        }
-
-        ALGraph<V,E> msc = new ALGraph<>();
-
-        vertices.forEach(v -> msc.addVertex(v));
-        mstEdges.forEach(e -> msc.addEdge(e));
-
-        return msc;
-    }
-
-    private void addEdge(int index, boolean[] visited, List<V> vertices, PriorityQueue<E> edges_pq) {
-        V node = vertices.get(index);
-        visited[index] = true;
-        Map<V,E> neighbours = graph.getNeighbours(node);
-        neighbours.forEach((v,e) -> {
-            if(!visited[vertices.indexOf(v)]) {
-                edges_pq.add(e);
-            }
-        });
+        return new KruskalEngine<>(stable()).minimumSpanningComponents(k);
     }
 
     /**
@@ -349,23 +250,18 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * @return the diameter of the graph.
      */
     public int diameter(){
-        int diameter = 0;
-        int maxLength = 0;
-
-        for (V vertex1 : allVertices()){
-            for (V vertex2 : allVertices()){
-                if (!vertex1.equals(vertex2)){
-                    List<V> current = shortestPath(vertex1, vertex2);
-                    int currentSize = current.size();
-                    if (currentSize > maxLength){
-                        diameter = pathLength(current);
-                        maxLength = currentSize;
-                    }
-                }
-            }
-        }
+        return new EccentricityEngine<>(analyticsSnapshot()).diameter();
+    }
 
-        return diameter;
+    /**
+     * Compute the diameter of the graph as diameter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the diameter of the graph.
+     */
+    public int diameter(ForkJoinPool pool){
+        return new EccentricityEngine<>(analyticsSnapshot(), pool).diameter();
     }
 
     /**
@@ -381,33 +277,107 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * center of the largest connected component.</li>
      * </ul>
      *
-     * @return the center of the graph.
+     * @return the center of the graph, the vertex ordered first by id and name on ties,
+     *          or null if the graph has no vertices.
      */
     public V getCenter(){
-        V vertex = null;
-        int minEccentricity = Integer.MAX_VALUE;
-
-        for (V vertex1 : allVertices()){
-            int currentMax = 0;
-
-            for (V vertex2 : allVertices()){
-                if (!vertex1.equals(vertex2)){
-                    int current;
-                    List<V> currentPath = shortestPath(vertex1, vertex2);
-                    current = pathLength(currentPath);
-                    if (current > currentMax){
-                        currentMax = current;
-                    }
-                }
-            }
+        return new EccentricityEngine<>(analyticsSnapshot()).center();
+    }
 
-            if (currentMax < minEccentricity){
-                minEccentricity = currentMax;
-                vertex = vertex1;
-            }
+    /**
+     * Compute the center of the graph as getCenter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public V getCenter(ForkJoinPool pool){
+        return new EccentricityEngine<>(analyticsSnapshot(), pool).center();
+    }
+
+    /**
+     * Obtain the number of connected components of the graph.
+     * The components are tracked incrementally from the first call on, so later
+     * calls only pay for the mutations made in between.
+     *
+     * @return the number of connected components, 0 if the graph has no vertices.
+     */
+    public int componentCount(){
+        return components().count();
+    }
+
+    /**
+     * Check if two vertices are connected by a path
+     *
+     * @param v1 one vertex
+     * @param v2 the other vertex
+     * @return true if both vertices are part of the graph and in the same connected component
+     */
+    public boolean connected(V v1, V v2){
+        return components().connected(v1, v2);
+    }
+
+    /**
+     * Obtain the connected component of a vertex
+     *
+     * @param v the vertex of interest
+     * @return the vertices connected to v, v included, or an empty set if v is not part of the graph
+     */
+    public Set<V> component(V v){
+        return components().component(v);
+    }
+
+    /**
+     * Obtain the largest connected component of the graph
+     *
+     * @return the vertices of the component with the most vertices, on ties the one holding
+     *          the vertex ordered first by id and name, or an empty set if the graph has no vertices
+     */
+    public Set<V> largestComponent(){
+        return components().largest();
+    }
+
+    private ComponentTracker<V, E> components(){
+        if (components == null){
+            components = new ComponentTracker<>(graph);
+        }
+        return components;
+    }
+
+    /**
+     * Pin the graph as it is now, for queries that must not see later mutations.
+     * O(1) when the graph is stored in a VersionedGraph, otherwise a copy is made.
+     *
+     * @return an immutable snapshot of the graph
+     */
+    public ImGraph<V, E> snapshot(){
+        if (graph instanceof VersionedGraph){
+            return ((VersionedGraph<V, E>) graph).snapshot();
+        }
+        return new CsrGraph<>(graph);
+    }
+
+    /**
+     * Obtain the storage to run a query on: the current version when the graph is
+     * versioned, so that concurrent writers cannot change it mid-query, or the graph itself
+     */
+    private MGraph<V, E> stable(){
+        if (graph instanceof VersionedGraph){
+            return ((VersionedGraph<V, E>) graph).snapshot();
         }
+        return graph;
+    }
 
-        return vertex;
+    /**
+     * Copy the graph for diameter and center, EccentricityEngine keeps to its largest component.
+     * Only the tracked largest component is copied when components are already tracked,
+     * the tracker is never installed for this.
+     */
+    private CsrGraph<V, E> analyticsSnapshot(){
+        if (components != null && !(graph instanceof VersionedGraph)){
+            return new CsrGraph<>(graph, components.largest());
+        }
+        return new CsrGraph<>(stable());
     }
 
     /**
@@ -417,7 +387,14 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * @return true if the vertex was added successfully and false otherwise
      */
     public boolean addVertex(V v){
-        return graph.addVertex(v);
+        boolean added = graph.addVertex(v);
+        if (added){
+            version++;
+            if (components != null){
+                components.vertexAdded(v);
+            }
+        }
+        return added;
     }
 
     /**
@@ -437,7 +414,17 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * @return true if the edge was successfully added and false otherwise
      */
     public boolean addEdge(E e) {
-        return graph.addEdge(e);
+        boolean added = graph.addEdge(e);
+        if (added){
+            version++;
+            if (components != null){
+                components.edgeAdded(e);
+            }
+            if (dynamicPaths != null){
+                dynamicPaths.edgeAdded(e);
+            }
+        }
+        return added;
     }
 
     /**
@@ -488,7 +475,17 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * @return true if e was successfully removed and false otherwise
      */
     public boolean remove(E e){
-        return graph.remove(e);
+        boolean removed = graph.remove(e);
+        if (removed){
+            version++;
+            if (components != null){
+                components.edgeRemoved(e);
+            }
+            if (dynamicPaths != null){
+                dynamicPaths.edgeRemoved(e);
+            }
+        }
+        return removed;
     }
 
     /**
@@ -498,7 +495,18 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
      * @return true if v was successfully removed and false otherwise
      */
     public boolean remove(V v){
-        return graph.remove(v);
+        if (components != null && graph.vertex(v)){
+            components.vertexRemoved(v);
+        }
+        List<E> incident = dynamicPaths != null && graph.vertex(v) ? new ArrayList<>(graph.allEdges(v)) : null;
+        boolean removed = graph.remove(v);
+        if (removed){
+            version++;
+            if (incident != null){
+                dynamicPaths.vertexRemoved(v, incident);
+            }
+        }
+        return removed;
     }
 
     /**
@@ -543,6 +551,17 @@ public class Graph<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>
         return graph.getNeighbours(v);
     }
 
+    /**
+     * Visit every neighbour w of vertex v together with the v-w edge, without collecting
+     * or cloning them. The graph must not be mutated while the visit is in progress.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor){
+        graph.forEachNeighbour(v, visitor);
+    }
+
 
     //// add all new code above this line ////
 
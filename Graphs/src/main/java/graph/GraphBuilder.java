@@ -0,0 +1,392 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Bulk loads a graph: vertices and edges are collected first, then deduplicated and
+ * turned into a graph in one linear pass, without the per call checks of addVertex
+ * and addEdge.
+ *
+ * Vertices get dense ids in the order they are first seen, the end points of an edge
+ * count as seen. Edges are kept as primitive (source, target, length) triples. Before
+ * a build they are bucketed by their smaller end point with a stable counting sort, and
+ * a stamp per larger end point finds repeated pairs within a bucket, so deduplication
+ * takes O(V + E) and, like repeated addEdge calls, keeps the first edge between two vertices.
+ * Self-loops are rejected as they are added.
+ *
+ * The builder can be reused: adding more after a build and building again gives a graph
+ * with everything added so far.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class GraphBuilder<V extends Vertex, E extends Edge<V>> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final EdgeFactory<V, E> factory;
+    private final Map<V, Integer> ids = new HashMap<>();
+    private final List<V> vertices = new ArrayList<>();
+    private final List<E> edges = new ArrayList<>();
+    private int[] sources = new int[INITIAL_CAPACITY];
+    private int[] targets = new int[INITIAL_CAPACITY];
+    private int[] lengths = new int[INITIAL_CAPACITY];
+    private int edgeCount;
+    private int duplicateVertices;
+    private int selfLoops;
+    private int[] kept;
+    // Rep Invariant:
+    //          vertices.get(ids.get(v)) == v for every vertex added, and vertices holds no other vertex.
+    //          For i < edgeCount, sources[i] != targets[i] are ids of vertices, lengths[i] >= 0 and
+    //          edges.get(i) is the edge object given for edge i or null if it was given as a triple.
+    //          kept is null or lists in increasing order the edges that are the first between their end points.
+    // Abstract Function:
+    //          Represents the graph with vertices and, for each edge of kept (computed when null),
+    //          an edge vertices.get(sources[i])-vertices.get(targets[i]) of length lengths[i].
+
+    /**
+     * Create a builder for edges given as objects
+     */
+    public GraphBuilder() {
+        this(null);
+    }
+
+    /**
+     * Create a builder that also takes edges given as (v1, v2, length) triples
+     *
+     * @param factory creates an edge object for each edge given as a triple
+     */
+    public GraphBuilder(EdgeFactory<V, E> factory) {
+        this.factory = factory;
+    }
+
+    private int intern(V v) {
+        Integer id = ids.get(v);
+        if (id == null) {
+            id = vertices.size();
+            ids.put(v, id);
+            vertices.add(v);
+        }
+        return id;
+    }
+
+    /**
+     * Add a vertex
+     *
+     * @param v the vertex to add, ignored and counted as a duplicate if it was already added
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addVertex(V v) {
+        if (ids.containsKey(v)) {
+            duplicateVertices++;
+        } else {
+            intern(v);
+        }
+        return this;
+    }
+
+    /**
+     * Add a batch of vertices
+     *
+     * @param batch the vertices to add
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addVertices(Iterable<? extends V> batch) {
+        for (V v : batch) {
+            addVertex(v);
+        }
+        return this;
+    }
+
+    /**
+     * Add an edge, adding its end points if they are not already there
+     *
+     * @param e the edge to add
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addEdge(E e) {
+        append(intern(e.v1()), intern(e.v2()), e.length(), e);
+        return this;
+    }
+
+    /**
+     * Add a batch of edges, adding their end points if they are not already there
+     *
+     * @param batch the edges to add
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addEdges(Iterator<? extends E> batch) {
+        while (batch.hasNext()) {
+            addEdge(batch.next());
+        }
+        return this;
+    }
+
+    /**
+     * Add a batch of edges, adding their end points if they are not already there
+     *
+     * @param batch the edges to add
+     * @return this builder
+     */
+    public GraphBuilder<V, E> addEdges(Iterable<? extends E> batch) {
+        return addEdges(batch.iterator());
+    }
+
+    /**
+     * Add an edge given by its end points, adding them if they are not already there.
+     * The edge object is only created when a graph is built.
+     *
+     * @param v1     one end of the edge
+     * @param v2     the other end of the edge, the edge is rejected and counted as a self-loop if it equals v1
+     * @param length the length of the edge
+     * @return this builder
+     * @throws IllegalStateException    if the builder was created without an EdgeFactory
+     * @throws IllegalArgumentException if length is negative
+     */
+    public GraphBuilder<V, E> addEdge(V v1, V v2, int length) {
+        if (factory == null) {
+            throw new IllegalStateException("Edges given by their end points need an EdgeFactory");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Edge weight cannot be negative");
+        }
+        if (v1.equals(v2)) {
+            intern(v1);
+            selfLoops++;
+            return this;
+        }
+        append(intern(v1), intern(v2), length, null);
+        return this;
+    }
+
+    private void append(int source, int target, int length, E e) {
+        if (edgeCount == sources.length) {
+            int grown = edgeCount * 2;
+            sources = Arrays.copyOf(sources, grown);
+            targets = Arrays.copyOf(targets, grown);
+            lengths = Arrays.copyOf(lengths, grown);
+        }
+        sources[edgeCount] = source;
+        targets[edgeCount] = target;
+        lengths[edgeCount] = length;
+        edges.add(e);
+        edgeCount++;
+        kept = null;
+    }
+
+    /**
+     * Obtain the number of distinct vertices added so far, end points of edges included
+     *
+     * @return the number of vertices a built graph has
+     */
+    public int vertexCount() {
+        return vertices.size();
+    }
+
+    /**
+     * Obtain the number of distinct edges added so far
+     *
+     * @return the number of edges a built graph has
+     */
+    public int edgeCount() {
+        return kept().length;
+    }
+
+    /**
+     * Obtain the number of vertices rejected because they were already added
+     *
+     * @return the number of rejected duplicate vertices
+     */
+    public int duplicateVertices() {
+        return duplicateVertices;
+    }
+
+    /**
+     * Obtain the number of edges rejected because an edge between the same vertices came first
+     *
+     * @return the number of rejected duplicate edges
+     */
+    public int duplicateEdges() {
+        return edgeCount - kept().length;
+    }
+
+    /**
+     * Obtain the number of edges rejected because both their ends were the same vertex
+     *
+     * @return the number of rejected self-loops
+     */
+    public int selfLoops() {
+        return selfLoops;
+    }
+
+    /**
+     * Find the edges that are the first between their end points
+     */
+    private int[] kept() {
+        if (kept != null) {
+            return kept;
+        }
+        int n = vertices.size();
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < edgeCount; i++) {
+            offsets[Math.min(sources[i], targets[i]) + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] order = new int[edgeCount];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i = 0; i < edgeCount; i++) {
+            order[fill[Math.min(sources[i], targets[i])]++] = i;
+        }
+
+        int[] stamps = new int[n];
+        Arrays.fill(stamps, -1);
+        boolean[] first = new boolean[edgeCount];
+        int count = 0;
+        for (int v = 0; v < n; v++) {
+            for (int slot = offsets[v]; slot < offsets[v + 1]; slot++) {
+                int i = order[slot];
+                int other = Math.max(sources[i], targets[i]);
+                if (stamps[other] != v) {
+                    stamps[other] = v;
+                    first[i] = true;
+                    count++;
+                }
+            }
+        }
+
+        kept = new int[count];
+        count = 0;
+        for (int i = 0; i < edgeCount; i++) {
+            if (first[i]) {
+                kept[count++] = i;
+            }
+        }
+        return kept;
+    }
+
+    private E edgeAt(int i) {
+        E e = edges.get(i);
+        if (e == null) {
+            e = factory.create(vertices.get(sources[i]), vertices.get(targets[i]), lengths[i]);
+            edges.set(i, e);
+        }
+        return e;
+    }
+
+    /**
+     * Build an adjacency list graph whose reads return views
+     *
+     * @return a new graph with every vertex and distinct edge added
+     */
+    public ALGraph<V, E> buildALGraph() {
+        return buildALGraph(ReadMode.VIEW);
+    }
+
+    /**
+     * Build an adjacency list graph
+     *
+     * @param readMode whether reads of the graph return views or cloned copies
+     * @return a new graph with every vertex and distinct edge added
+     */
+    public ALGraph<V, E> buildALGraph(ReadMode readMode) {
+        int[] keep = kept();
+        int[] degrees = new int[vertices.size()];
+        List<E> edgeList = new ArrayList<>(keep.length);
+        for (int i : keep) {
+            degrees[sources[i]]++;
+            degrees[targets[i]]++;
+            edgeList.add(edgeAt(i));
+        }
+        ALGraph<V, E> graph = new ALGraph<>(readMode);
+        graph.load(vertices, degrees, edgeList);
+        return graph;
+    }
+
+    /**
+     * Build an adjacency matrix graph sized to hold exactly the vertices added
+     *
+     * @return a new graph with every vertex and distinct edge added
+     */
+    public AMGraph<V, E> buildAMGraph() {
+        AMGraph<V, E> graph = new AMGraph<>(Math.max(2, vertices.size()));
+        vertices.forEach(graph::addVertex);
+        for (int i : kept()) {
+            graph.addEdge(edgeAt(i));
+        }
+        return graph;
+    }
+
+    /**
+     * Build a compact adjacency matrix graph sized to hold exactly the vertices added
+     *
+     * @param encoding how the graph stores edge lengths
+     * @return a new graph with every vertex and distinct edge added
+     * @throws IllegalArgumentException if the length of an edge does not fit the encoding
+     */
+    public CompactAMGraph<V, E> buildCompactAMGraph(WeightEncoding encoding) {
+        int[] keep = kept();
+        for (int i : keep) {
+            if (!encoding.fits(lengths[i])) {
+                throw new IllegalArgumentException("Edge length " + lengths[i] + " does not fit " + encoding);
+            }
+        }
+        CompactAMGraph<V, E> graph = new CompactAMGraph<>(Math.max(2, vertices.size()), encoding);
+        vertices.forEach(graph::addVertex);
+        for (int i : keep) {
+            graph.addEdge(edgeAt(i));
+        }
+        return graph;
+    }
+
+    /**
+     * Build an immutable compressed sparse row graph straight from the edge triples,
+     * no edge object is created
+     *
+     * @return a new graph with every vertex and distinct edge added
+     */
+    public CsrGraph<V, E> buildCsrGraph() {
+        int n = vertices.size();
+        Integer[] byOrder = new Integer[n];
+        for (int v = 0; v < n; v++) {
+            byOrder[v] = v;
+        }
+        Arrays.sort(byOrder, Comparator.comparing(vertices::get,
+                Comparator.comparingInt(Vertex::id).thenComparing(Vertex::name)));
+        int[] rank = new int[n];
+        List<V> sorted = new ArrayList<>(n);
+        for (int r = 0; r < n; r++) {
+            rank[byOrder[r]] = r;
+            sorted.add(vertices.get(byOrder[r]));
+        }
+
+        int[] keep = kept();
+        int[] offsets = new int[n + 1];
+        for (int i : keep) {
+            offsets[rank[sources[i]] + 1]++;
+            offsets[rank[targets[i]] + 1]++;
+        }
+        for (int r = 0; r < n; r++) {
+            offsets[r + 1] += offsets[r];
+        }
+        long[] rows = new long[offsets[n]];
+        int[] fill = Arrays.copyOf(offsets, n);
+        for (int i : keep) {
+            int s = rank[sources[i]];
+            int t = rank[targets[i]];
+            rows[fill[s]++] = ((long) t << 32) | lengths[i];
+            rows[fill[t]++] = ((long) s << 32) | lengths[i];
+        }
+
+        int[] csrTargets = new int[rows.length];
+        int[] csrWeights = new int[rows.length];
+        for (int r = 0; r < n; r++) {
+            Arrays.sort(rows, offsets[r], offsets[r + 1]);
+            for (int slot = offsets[r]; slot < offsets[r + 1]; slot++) {
+                csrTargets[slot] = (int) (rows[slot] >>> 32);
+                csrWeights[slot] = (int) rows[slot];
+            }
+        }
+        return new CsrGraph<>(sorted, offsets, csrTargets, csrWeights);
+    }
+}
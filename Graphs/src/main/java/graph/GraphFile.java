@@ -0,0 +1,161 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads and writes graphs in a binary file format laid out for memory mapping.
+ *
+ * All values are big-endian ints and every section starts on a 4 byte boundary:
+ * <pre>
+ *   header        magic, format version, vertex count n, slot count m, name bytes b,
+ *                 edge length sum, 2 reserved ints                               32 bytes
+ *   ids           the id of each vertex, vertices ordered by id and then name   4n bytes
+ *   name offsets  where the name of each vertex starts in names, then b         4(n + 1) bytes
+ *   names         the UTF-8 names of the vertices, padded to a multiple of 4    b bytes + padding
+ *   offsets       the start of the row of each vertex in targets, then m        4(n + 1) bytes
+ *   targets       the dense ids of the neighbours of each vertex, sorted by row 4m bytes
+ *   weights       the length of the edge in the matching slot of targets        4m bytes
+ * </pre>
+ * The sections after the header are exactly the arrays of a CsrGraph, every undirected
+ * edge is stored once in each direction.
+ */
+public final class GraphFile {
+    static final int MAGIC = 0x47524146;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    private static final int BUFFER_BYTES = 1 << 16;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Write a graph to a file, replacing its contents.
+     * Any graph can be written: ALGraph, AMGraph, Graph and the rest are first laid out as a CsrGraph.
+     *
+     * @param graph the graph to write, it is read and never mutated
+     * @param path  the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static <V extends Vertex, E extends Edge<V>> void write(MGraph<V, E> graph, Path path) throws IOException {
+        write(graph instanceof CsrGraph ? (CsrGraph<V, E>) graph : new CsrGraph<>(graph), path);
+    }
+
+    /**
+     * Write a compressed sparse row graph to a file, replacing its contents
+     *
+     * @param graph the graph to write
+     * @param path  the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public static <V extends Vertex, E extends Edge<V>> void write(CsrGraph<V, E> graph, Path path) throws IOException {
+        int n = graph.vertexCount();
+        byte[][] names = new byte[n][];
+        int nameBytes = 0;
+        for (int i = 0; i < n; i++) {
+            names[i] = graph.vertexAt(i).name().getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[i].length;
+        }
+        int[] offsets = graph.offsets();
+        int[] targets = graph.targets();
+        int[] weights = graph.weights();
+
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            Output out = new Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            out.putInt(n);
+            out.putInt(targets.length);
+            out.putInt(nameBytes);
+            out.putInt(graph.edgeLengthSum());
+            out.putInt(0);
+            out.putInt(0);
+
+            for (int i = 0; i < n; i++) {
+                out.putInt(graph.vertexAt(i).id());
+            }
+            int nameOffset = 0;
+            for (byte[] name : names) {
+                out.putInt(nameOffset);
+                nameOffset += name.length;
+            }
+            out.putInt(nameOffset);
+            for (byte[] name : names) {
+                out.put(name);
+            }
+            out.put(new byte[padding(nameBytes)]);
+            out.putInts(offsets);
+            out.putInts(targets);
+            out.putInts(weights);
+            out.flush();
+        }
+    }
+
+    /**
+     * Map a graph file into memory
+     *
+     * @param path the file to read, written by one of the write methods
+     * @return a graph served straight from the mapped file
+     * @throws IOException if the file cannot be read or is not a graph file
+     */
+    public static MappedGraph open(Path path) throws IOException {
+        return MappedGraph.open(path);
+    }
+
+    /**
+     * Obtain the number of bytes that pad a section of some length to a multiple of 4
+     */
+    static int padding(long length) {
+        return (int) (-length & 3);
+    }
+
+    /**
+     * Writes ints and bytes to a channel through one reused buffer
+     */
+    static final class Output {
+        private final FileChannel channel;
+        private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+
+        Output(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void putInt(int value) throws IOException {
+            if (buffer.remaining() < Integer.BYTES) {
+                flush();
+            }
+            buffer.putInt(value);
+        }
+
+        void putInts(int[] values) throws IOException {
+            for (int value : values) {
+                putInt(value);
+            }
+        }
+
+        void put(byte[] bytes) throws IOException {
+            int written = 0;
+            while (written < bytes.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                int chunk = Math.min(buffer.remaining(), bytes.length - written);
+                buffer.put(bytes, written, chunk);
+                written += chunk;
+            }
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,334 @@
+package graph;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * One version of a VersionedGraph, immutable and safe to share between threads.
+ *
+ * The adjacency is a persistent map from each vertex to a persistent map from its neighbours
+ * to the edges reaching them, so a version shares every untouched vertex with the versions
+ * before and after it. Pinning a snapshot is only holding on to it; analytics run on it
+ * while writers go on publishing newer versions, without either side waiting.
+ *
+ * Vertices and edges handed out are the stored objects and are not cloned, and reads return
+ * unmodifiable views. Mutations throw UnsupportedOperationException.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public final class GraphSnapshot<V extends Vertex, E extends Edge<V>> implements ImGraph<V, E>, MGraph<V, E> {
+    private final PersistentMap<V, PersistentMap<V, E>> adjacency;
+    private final int edgeCount;
+    private final int edgeLengthSum;
+    private final long version;
+    // Rep Invariant:
+    //          adjacency.get(v).get(w) == e iff adjacency.get(w).get(v) == e, and then e joins v and w.
+    //          edgeCount and edgeLengthSum are the number and the total length of those edges.
+    // Abstract Function:
+    //          Represents the undirected graph with the keys of adjacency as vertices and an edge e
+    //          for every adjacency.get(v).get(w) == e, as it was at version.
+
+    GraphSnapshot(PersistentMap<V, PersistentMap<V, E>> adjacency, int edgeCount, int edgeLengthSum, long version) {
+        this.adjacency = adjacency;
+        this.edgeCount = edgeCount;
+        this.edgeLengthSum = edgeLengthSum;
+        this.version = version;
+    }
+
+    /**
+     * Obtain the version of the graph this snapshot was taken at
+     *
+     * @return the number of successful mutations made before this snapshot
+     */
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Obtain the number of vertices in the graph
+     *
+     * @return the number of vertices in the graph
+     */
+    public int vertexCount() {
+        return adjacency.size();
+    }
+
+    /**
+     * Obtain the number of edges in the graph
+     *
+     * @return the number of edges in the graph
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    PersistentMap<V, PersistentMap<V, E>> adjacency() {
+        return adjacency;
+    }
+
+    PersistentMap<V, E> row(V v) {
+        PersistentMap<V, E> row = adjacency.get(v);
+        return row == null ? PersistentMap.empty() : row;
+    }
+
+    //// ImGraph ////
+
+    /**
+     * Find the edge that connects two vertices if such an edge exists.
+     * This method should not permit graph mutations.
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the edge connecting v1 and v2 or null if there is no such edge
+     */
+    public E getEdge(V v1, V v2) {
+        return row(v1).get(v2);
+    }
+
+    /**
+     * Compute the shortest path in the graph from source to sink
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     *          if no such path exists it returns an empty list. If source is the same as the sink returns a list
+     *          with only one Vertex.
+     */
+    public List<V> shortestPath(V source, V sink) {
+        return new DijkstraEngine<>(this).shortestPath(source, sink);
+    }
+
+    /**
+     * Compute the length of a given path
+     *
+     * @param path indicates the vertices on the given path
+     * @return the length of path
+     *          returns Integer.MAX_VALUE if list is empty
+     */
+    public int pathLength(List<V> path) {
+        return DenseGraph.pathLength(this::edgeLength, path);
+    }
+
+    /**
+     * Obtain all vertices w that are no more than a <em>path distance</em> of range from v.
+     *
+     * @param v     the vertex to start the search from.
+     * @param range the radius of the search.
+     * @return a map where the keys are the vertices in the neighbourhood of v,
+     *          and the value for key w is the last edge on the shortest path
+     *          from v to w.
+     */
+    public Map<V, E> getNeighbours(V v, int range) {
+        return new DijkstraEngine<>(this).neighbourhood(v, range);
+    }
+
+    /**
+     * Return a set with k connected components of the graph, as described by
+     * ImGraph.minimumSpanningComponents.
+     *
+     * @return a set of graph partitions such that a vertex in one partition
+     * is no closer to a vertex in a different partition than it is to a vertex
+     * in its own partition.
+     * Or null if the number of components of the original graph is greater than k
+     */
+    public Set<ImGraph<V, E>> minimumSpanningComponents(int k) {
+        return new KruskalEngine<>(this).minimumSpanningComponents(k);
+    }
+
+    /**
+     * Compute the diameter of the graph, the diameter of its largest component
+     * if it is not connected.
+     *
+     * @return the diameter of the graph.
+     */
+    public int diameter() {
+        return new EccentricityEngine<>(new CsrGraph<>(this)).diameter();
+    }
+
+    /**
+     * Compute the diameter of the graph as diameter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the diameter of the graph.
+     */
+    public int diameter(ForkJoinPool pool) {
+        return new EccentricityEngine<>(new CsrGraph<>(this), pool).diameter();
+    }
+
+    /**
+     * Compute the center of the graph, the center of its largest component
+     * if it is not connected.
+     *
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public V getCenter() {
+        return new EccentricityEngine<>(new CsrGraph<>(this)).center();
+    }
+
+    /**
+     * Compute the center of the graph as getCenter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public V getCenter(ForkJoinPool pool) {
+        return new EccentricityEngine<>(new CsrGraph<>(this), pool).center();
+    }
+
+    //// MGraph ////
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean addVertex(V v) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return adjacency.containsKey(v);
+    }
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean addEdge(E e) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    public boolean edge(E e) {
+        return edge(e.v1(), e.v2());
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        return row(v1).containsKey(v2);
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public int edgeLength(V v1, V v2) {
+        E edge = getEdge(v1, v2);
+        return edge == null ? -1 : edge.length();
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        return edgeLengthSum;
+    }
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(E e) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    /**
+     * Unsupported, the snapshot cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(V v) {
+        throw new UnsupportedOperationException("GraphSnapshot is immutable");
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return a set of all vertices in the graph
+     */
+    public Set<V> allVertices() {
+        return adjacency.asMap().keySet();
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v
+     */
+    public Set<E> allEdges(V v) {
+        return GraphViews.set(row(v).asMap().values(), o -> o instanceof Edge<?> && incident(v, (Edge<?>) o));
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return all edges in the graph
+     */
+    public Set<E> allEdges() {
+        Set<E> edges = new HashSet<>();
+        for (PersistentMap<V, E> row : adjacency.asMap().values()) {
+            edges.addAll(row.asMap().values());
+        }
+        return Collections.unmodifiableSet(edges);
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w.
+     */
+    public Map<V, E> getNeighbours(V v) {
+        return row(v).asMap();
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the stored v-w edge.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        for (Map.Entry<V, E> entry : row(v).asMap().entrySet()) {
+            visitor.accept(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private boolean incident(V v, Edge<?> e) {
+        Object other = e.v1().equals(v) ? e.v2() : e.v2().equals(v) ? e.v1() : null;
+        return other != null && row(v).containsKey(other);
+    }
+}
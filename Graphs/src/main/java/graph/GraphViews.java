@@ -0,0 +1,106 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Unmodifiable views over graph storage, used by the backends in ReadMode.VIEW.
+ * None of these views copy or clone the elements they expose.
+ */
+final class GraphViews {
+    private GraphViews() {
+    }
+
+    /**
+     * View a collection as a set
+     *
+     * @param elements the backing elements, which must not hold two equal elements
+     * @param contains the membership test for the set
+     * @return an unmodifiable set view of elements
+     */
+    static <T> Set<T> set(Collection<T> elements, Predicate<Object> contains) {
+        return new AbstractSet<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return Collections.unmodifiableCollection(elements).iterator();
+            }
+
+            @Override
+            public int size() {
+                return elements.size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return contains.test(o);
+            }
+        };
+    }
+
+    /**
+     * View a collection as a set, membership is tested on the collection itself
+     *
+     * @param elements supplies the backing elements on every access, so the view follows the
+     *                 collection even if the storage replaces it; they must not hold two equal elements
+     * @return an unmodifiable set view of elements
+     */
+    static <T> Set<T> set(Supplier<? extends Collection<T>> elements) {
+        return new AbstractSet<T>() {
+            @Override
+            public Iterator<T> iterator() {
+                return Collections.unmodifiableCollection(elements.get()).iterator();
+            }
+
+            @Override
+            public int size() {
+                return elements.get().size();
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return elements.get().contains(o);
+            }
+        };
+    }
+
+    /**
+     * View the edges incident on v as a map from each neighbour of v to the edge reaching it
+     *
+     * @param v     the vertex the edges are incident on
+     * @param edges supplies the backing edges, each incident on v, on every access
+     * @return an unmodifiable map view of the neighbourhood of v
+     */
+    static <V extends Vertex, E extends Edge<V>> Map<V, E> neighbours(V v, Supplier<? extends Collection<E>> edges) {
+        Set<Map.Entry<V, E>> entries = new AbstractSet<Map.Entry<V, E>>() {
+            @Override
+            public Iterator<Map.Entry<V, E>> iterator() {
+                Iterator<E> iterator = edges.get().iterator();
+                return new Iterator<Map.Entry<V, E>>() {
+                    @Override
+                    public boolean hasNext() {
+                        return iterator.hasNext();
+                    }
+
+                    @Override
+                    public Map.Entry<V, E> next() {
+                        E edge = iterator.next();
+                        return new AbstractMap.SimpleImmutableEntry<>(edge.distinctVertex(v), edge);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return edges.get().size();
+            }
+        };
+
+        return new AbstractMap<V, E>() {
+            @Override
+            public Set<Entry<V, E>> entrySet() {
+                return entries;
+            }
+        };
+    }
+}
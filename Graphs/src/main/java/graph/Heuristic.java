@@ -0,0 +1,52 @@
+package graph;
+
+import java.util.function.IntFunction;
+
+/**
+ * A lower bound on the length of the shortest path between two vertices, used to direct
+ * DijkstraEngine's A* search towards the sink.
+ *
+ * The search never reopens a settled vertex, so the estimate must be consistent:
+ * estimate(sink, sink) == 0 and estimate(v, sink) <= length(v, w) + estimate(w, sink) for
+ * every edge v-w. A consistent estimate never exceeds the true distance. Estimates derived
+ * from a metric the edge lengths never undercut, such as the straight line between coordinates,
+ * are consistent.
+ *
+ * @param <V> represents a vertex type
+ */
+@FunctionalInterface
+public interface Heuristic<V extends Vertex> {
+
+    /**
+     * Estimate the distance between two vertices
+     *
+     * @param v    the vertex the search has reached
+     * @param sink the vertex the search is heading to
+     * @return a non-negative lower bound on the length of the shortest path from v to sink
+     */
+    int estimate(V v, V sink);
+
+    /**
+     * Estimate distances by the straight line between the coordinates of vertices, rounded down
+     *
+     * @param coordinates the coordinates of a vertex given its id, in any number of dimensions and
+     *                    scaled so no edge is shorter than the straight line between its ends,
+     *                    or null for a vertex without coordinates, which is estimated at 0
+     * @return the heuristic
+     */
+    static Heuristic<Vertex> euclidean(IntFunction<double[]> coordinates) {
+        return (v, sink) -> {
+            double[] from = coordinates.apply(v.id());
+            double[] to = coordinates.apply(sink.id());
+            if (from == null || to == null) {
+                return 0;
+            }
+            double sum = 0;
+            for (int i = 0; i < from.length; i++) {
+                double delta = from[i] - to[i];
+                sum += delta * delta;
+            }
+            return (int) Math.min(Math.floor(Math.sqrt(sum)), Integer.MAX_VALUE);
+        };
+    }
+}
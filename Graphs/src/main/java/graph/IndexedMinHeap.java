@@ -0,0 +1,165 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A binary min-heap over dense int items with decrease-key.
+ * Items with equal keys are ordered by item id so that searches are deterministic.
+ */
+final class IndexedMinHeap {
+    private int[] heap;
+    private int[] positions;
+    private int[] keys;
+    private int size;
+    // Rep Invariant:
+    //          heap[0..size) holds the queued items, positions[heap[i]] == i for all i < size,
+    //          positions[item] == -1 for items that are not queued and no child orders before its parent.
+    // Abstract Function:
+    //          A priority queue of items, each item ordered by keys[item].
+
+    /**
+     * Create an empty heap
+     *
+     * @param capacity the number of items the heap can hold before it has to grow
+     */
+    IndexedMinHeap(int capacity) {
+        capacity = Math.max(capacity, 1);
+        heap = new int[capacity];
+        positions = new int[capacity];
+        keys = new int[capacity];
+        Arrays.fill(positions, -1);
+    }
+
+    /**
+     * Make sure items in [0, capacity) can be queued
+     *
+     * @param capacity the number of items the heap must be able to address
+     */
+    void ensureCapacity(int capacity) {
+        if (capacity > positions.length) {
+            int newCapacity = Math.max(capacity, positions.length * 2);
+            int oldCapacity = positions.length;
+            heap = Arrays.copyOf(heap, newCapacity);
+            keys = Arrays.copyOf(keys, newCapacity);
+            positions = Arrays.copyOf(positions, newCapacity);
+            Arrays.fill(positions, oldCapacity, newCapacity, -1);
+        }
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int item) {
+        return positions[item] != -1;
+    }
+
+    /**
+     * Queue an item, or lower its key if it is already queued with a larger key
+     *
+     * @param item the item to queue, 0 <= item < capacity
+     * @param key  the priority of the item
+     * @return true if the heap changed and false otherwise
+     */
+    boolean push(int item, int key) {
+        int position = positions[item];
+        if (position == -1) {
+            keys[item] = key;
+            heap[size] = item;
+            positions[item] = size;
+            siftUp(size++);
+            return true;
+        }
+        if (key < keys[item]) {
+            keys[item] = key;
+            siftUp(position);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Obtain the smallest key in the heap
+     *
+     * @return the key of the item at the top of the heap
+     */
+    int peekKey() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return keys[heap[0]];
+    }
+
+    /**
+     * Remove the item with the smallest key
+     *
+     * @return the removed item
+     */
+    int poll() {
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        int top = heap[0];
+        positions[top] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            positions[heap[0]] = 0;
+            siftDown(0);
+        }
+        return top;
+    }
+
+    /**
+     * Remove all items from the heap, in time proportional to the number of queued items
+     */
+    void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    private boolean less(int item1, int item2) {
+        return keys[item1] < keys[item2] || (keys[item1] == keys[item2] && item1 < item2);
+    }
+
+    private void siftUp(int position) {
+        int item = heap[position];
+        while (position > 0) {
+            int parent = (position - 1) >>> 1;
+            if (!less(item, heap[parent])) {
+                break;
+            }
+            heap[position] = heap[parent];
+            positions[heap[position]] = position;
+            position = parent;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+
+    private void siftDown(int position) {
+        int item = heap[position];
+        int half = size >>> 1;
+        while (position < half) {
+            int child = 2 * position + 1;
+            if (child + 1 < size && less(heap[child + 1], heap[child])) {
+                child++;
+            }
+            if (!less(heap[child], item)) {
+                break;
+            }
+            heap[position] = heap[child];
+            positions[heap[position]] = position;
+            position = child;
+        }
+        heap[position] = item;
+        positions[item] = position;
+    }
+}
@@ -0,0 +1,389 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * An undirected weighted graph over int vertex ids, the primitive counterpart of Graph.
+ *
+ * Ids are mapped to dense slots through an open-addressing IntIntHashMap, and each slot keeps
+ * its neighbours' slots and the edge lengths in parallel int arrays. Traversals and searches
+ * work on those arrays directly, so they box nothing and allocate nothing per edge. Once a row
+ * reaches INDEXED_DEGREE neighbours it also gets an IntIntHashMap from neighbour to position,
+ * so that finding, adding and removing an edge stay O(1) on high degree vertices. A graph of
+ * Vertex objects is bridged in with from(MGraph), which uses Vertex.id() as the int id.
+ *
+ * shortestPath reuses scratch buffers between calls, so an IntGraph is not safe for concurrent use.
+ */
+public class IntGraph {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int[] EMPTY_ROW = new int[0];
+    private static final int INDEXED_DEGREE = 16;
+
+    private final IntIntHashMap slots = new IntIntHashMap(INITIAL_CAPACITY);
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[][] targets = new int[INITIAL_CAPACITY][];
+    private int[][] lengths = new int[INITIAL_CAPACITY][];
+    private int[] degrees = new int[INITIAL_CAPACITY];
+    private IntIntHashMap[] positions = new IntIntHashMap[INITIAL_CAPACITY];
+    private int capacity;
+    private int[] freeSlots = new int[INITIAL_CAPACITY];
+    private int freeCount;
+    private int edgeCount;
+    private long edgeLengthSum;
+
+    private int[] distances = EMPTY_ROW;
+    private int[] parents = EMPTY_ROW;
+    private int[] stamps = EMPTY_ROW;
+    private int stamp;
+    private IndexedMinHeap heap;
+    // Rep Invariant:
+    //          slots maps each vertex id to a slot s < capacity with ids[s] == id, every other slot below
+    //          capacity is in freeSlots[0..freeCount) with degree 0. For each slot s, targets[s][k] and
+    //          lengths[s][k] for k < degrees[s] are the distinct neighbours of s and the edge lengths,
+    //          and t is a neighbour of s with length w iff s is a neighbour of t with length w.
+    //          positions[s] is null or maps each of those neighbours to its k, it is not null once
+    //          degrees[s] reached INDEXED_DEGREE and null for free slots.
+    // Abstract Function:
+    //          Represents an undirected graph with vertex ids[s] for every used slot s and an edge
+    //          ids[s]-ids[targets[s][k]] of length lengths[s][k] for every k < degrees[s].
+
+    /**
+     * Create a primitive copy of a graph, using Vertex.id() as the id of each vertex
+     *
+     * @param graph the graph to copy, it is read and never mutated
+     * @return an IntGraph with the same structure as graph
+     * @throws IllegalArgumentException if two vertices of graph have the same id
+     */
+    public static <V extends Vertex, E extends Edge<V>> IntGraph from(MGraph<V, E> graph) {
+        IntGraph intGraph = new IntGraph();
+        for (V v : graph.allVertices()) {
+            if (!intGraph.addVertex(v.id())) {
+                throw new IllegalArgumentException("Duplicate vertex id " + v.id());
+            }
+        }
+        for (E e : graph.allEdges()) {
+            intGraph.addEdge(e.v1().id(), e.v2().id(), e.length());
+        }
+        return intGraph;
+    }
+
+    /**
+     * Add a vertex to the graph
+     *
+     * @param v the id of the vertex to add
+     * @return true if the vertex was added successfully and false if it is already in the graph
+     */
+    public boolean addVertex(int v) {
+        if (slots.get(v) != -1) {
+            return false;
+        }
+        int slot;
+        if (freeCount > 0) {
+            slot = freeSlots[--freeCount];
+        } else {
+            if (capacity == ids.length) {
+                grow();
+            }
+            slot = capacity++;
+            targets[slot] = EMPTY_ROW;
+            lengths[slot] = EMPTY_ROW;
+        }
+        ids[slot] = v;
+        slots.put(v, slot);
+        return true;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v the id of the vertex
+     * @return true if v is part of the graph and false otherwise
+     */
+    public boolean vertex(int v) {
+        return slots.get(v) != -1;
+    }
+
+    /**
+     * Add an edge to the graph
+     *
+     * @param v1     the id of one end of the edge
+     * @param v2     the id of the other end of the edge
+     * @param length the length of the edge
+     * @return true if the edge was added and false if an end point is missing or v1-v2 is already an edge
+     * @throws IllegalArgumentException if v1 == v2 or length is negative, as new Edge does
+     */
+    public boolean addEdge(int v1, int v2, int length) {
+        if (v1 == v2) {
+            throw new IllegalArgumentException("The same vertex cannot be at both ends of an edge");
+        }
+        if (length < 0) {
+            throw new IllegalArgumentException("Edge weight cannot be negative");
+        }
+        int s1 = slots.get(v1);
+        int s2 = slots.get(v2);
+        if (s1 == -1 || s2 == -1 || position(s1, s2) != -1) {
+            return false;
+        }
+        append(s1, s2, length);
+        append(s2, s1, length);
+        edgeCount++;
+        edgeLengthSum += length;
+        return true;
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @return true if v1-v2 is an edge in the graph and false otherwise
+     */
+    public boolean edge(int v1, int v2) {
+        return edgeLength(v1, v2) != -1;
+    }
+
+    /**
+     * Determine the length of an edge in the graph
+     *
+     * @return the length of the v1-v2 edge if it is part of the graph or -1 otherwise
+     */
+    public int edgeLength(int v1, int v2) {
+        int s1 = slots.get(v1);
+        int s2 = slots.get(v2);
+        if (s1 == -1 || s2 == -1) {
+            return -1;
+        }
+        int k = position(s1, s2);
+        return k == -1 ? -1 : lengths[s1][k];
+    }
+
+    /**
+     * Remove an edge from the graph
+     *
+     * @return true if v1-v2 was an edge and was removed and false otherwise
+     */
+    public boolean removeEdge(int v1, int v2) {
+        int s1 = slots.get(v1);
+        int s2 = slots.get(v2);
+        if (s1 == -1 || s2 == -1) {
+            return false;
+        }
+        int k = position(s1, s2);
+        if (k == -1) {
+            return false;
+        }
+        edgeLengthSum -= lengths[s1][k];
+        edgeCount--;
+        removeAt(s1, k);
+        removeAt(s2, position(s2, s1));
+        return true;
+    }
+
+    /**
+     * Remove a vertex and all its edges from the graph
+     *
+     * @return true if v was part of the graph and was removed and false otherwise
+     */
+    public boolean removeVertex(int v) {
+        int slot = slots.remove(v);
+        if (slot == -1) {
+            return false;
+        }
+        for (int k = 0; k < degrees[slot]; k++) {
+            int neighbour = targets[slot][k];
+            removeAt(neighbour, position(neighbour, slot));
+            edgeLengthSum -= lengths[slot][k];
+            edgeCount--;
+        }
+        degrees[slot] = 0;
+        positions[slot] = null;
+        if (freeCount == freeSlots.length) {
+            freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        }
+        freeSlots[freeCount++] = slot;
+        return true;
+    }
+
+    /**
+     * Obtain the number of vertices in the graph
+     */
+    public int vertexCount() {
+        return slots.size();
+    }
+
+    /**
+     * Obtain the number of edges in the graph
+     */
+    public int edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     */
+    public long edgeLengthSum() {
+        return edgeLengthSum;
+    }
+
+    /**
+     * Obtain the number of edges incident on a vertex
+     *
+     * @return the degree of v, or -1 if v is not part of the graph
+     */
+    public int degree(int v) {
+        int slot = slots.get(v);
+        return slot == -1 ? -1 : degrees[slot];
+    }
+
+    /**
+     * Visit every neighbour of a vertex without allocating.
+     * The graph must not be mutated by the visitor.
+     *
+     * @param v       the id of the vertex whose neighbours are visited
+     * @param visitor receives the id of each neighbour and the length of the edge to it
+     */
+    public void forEachNeighbour(int v, IntIntConsumer visitor) {
+        int slot = slots.get(v);
+        if (slot == -1) {
+            return;
+        }
+        int[] row = targets[slot];
+        int[] rowLengths = lengths[slot];
+        for (int k = 0; k < degrees[slot]; k++) {
+            visitor.accept(ids[row[k]], rowLengths[k]);
+        }
+    }
+
+    /**
+     * Compute the shortest path from source to sink with Dijkstra's algorithm
+     *
+     * @param source the id of the start vertex
+     * @param sink   the id of the end vertex
+     * @return the ids of the vertices, in order, on the shortest path from source to sink (both end points
+     *          included), an empty array if there is no such path and {source} if source == sink
+     */
+    public int[] shortestPath(int source, int sink) {
+        int s = slots.get(source);
+        int t = slots.get(sink);
+        if (s == -1 || t == -1) {
+            return EMPTY_ROW;
+        }
+        prepareSearch();
+        reach(s, 0, -1);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (current == t) {
+                break;
+            }
+            int distance = distances[current];
+            int[] row = targets[current];
+            int[] rowLengths = lengths[current];
+            for (int k = 0; k < degrees[current]; k++) {
+                int next = row[k];
+                int candidate = distance + rowLengths[k];
+                if (stamps[next] != stamp || candidate < distances[next]) {
+                    reach(next, candidate, current);
+                }
+            }
+        }
+        return stamps[t] == stamp ? path(t) : EMPTY_ROW;
+    }
+
+    private void reach(int slot, int distance, int parent) {
+        stamps[slot] = stamp;
+        distances[slot] = distance;
+        parents[slot] = parent;
+        heap.push(slot, distance);
+    }
+
+    private int[] path(int t) {
+        int length = 0;
+        for (int current = t; current != -1; current = parents[current]) {
+            length++;
+        }
+        int[] path = new int[length];
+        for (int current = t; current != -1; current = parents[current]) {
+            path[--length] = ids[current];
+        }
+        return path;
+    }
+
+    /**
+     * Make the scratch buffers cover every slot and invalidate the previous search
+     */
+    private void prepareSearch() {
+        if (distances.length < capacity) {
+            distances = new int[ids.length];
+            parents = new int[ids.length];
+            stamps = new int[ids.length];
+            heap = new IndexedMinHeap(ids.length);
+            stamp = 0;
+        }
+        heap.clear();
+        if (++stamp == 0) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+    }
+
+    /**
+     * Find a neighbour in the row of a slot, through the index of the row once it has one
+     *
+     * @return the position of target in the row of slot, or -1 if it is not there
+     */
+    private int position(int slot, int target) {
+        IntIntHashMap index = positions[slot];
+        if (index != null) {
+            return index.get(target);
+        }
+        int[] row = targets[slot];
+        for (int k = 0; k < degrees[slot]; k++) {
+            if (row[k] == target) {
+                return k;
+            }
+        }
+        return -1;
+    }
+
+    private void append(int slot, int target, int length) {
+        int degree = degrees[slot];
+        if (degree == targets[slot].length) {
+            int grown = Math.max(4, degree * 2);
+            targets[slot] = Arrays.copyOf(targets[slot], grown);
+            lengths[slot] = Arrays.copyOf(lengths[slot], grown);
+        }
+        targets[slot][degree] = target;
+        lengths[slot][degree] = length;
+        degrees[slot] = degree + 1;
+        if (positions[slot] != null) {
+            positions[slot].put(target, degree);
+        } else if (degree + 1 == INDEXED_DEGREE) {
+            IntIntHashMap index = new IntIntHashMap(2 * INDEXED_DEGREE);
+            for (int i = 0; i <= degree; i++) {
+                index.put(targets[slot][i], i);
+            }
+            positions[slot] = index;
+        }
+    }
+
+    private void removeAt(int slot, int k) {
+        int last = --degrees[slot];
+        IntIntHashMap index = positions[slot];
+        if (index != null) {
+            index.remove(targets[slot][k]);
+            if (k != last) {
+                index.put(targets[slot][last], k);
+            }
+        }
+        targets[slot][k] = targets[slot][last];
+        lengths[slot][k] = lengths[slot][last];
+    }
+
+    private void grow() {
+        int grown = ids.length * 2;
+        ids = Arrays.copyOf(ids, grown);
+        targets = Arrays.copyOf(targets, grown);
+        lengths = Arrays.copyOf(lengths, grown);
+        degrees = Arrays.copyOf(degrees, grown);
+        positions = Arrays.copyOf(positions, grown);
+    }
+}
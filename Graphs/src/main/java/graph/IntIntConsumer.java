@@ -0,0 +1,15 @@
+package graph;
+
+/**
+ * Receives a pair of ints without boxing, such as a neighbour and the length of the edge to it.
+ */
+@FunctionalInterface
+public interface IntIntConsumer {
+    /**
+     * Accept a pair of ints
+     *
+     * @param first  the first value, a neighbour for adjacency traversals
+     * @param second the second value, an edge length for adjacency traversals
+     */
+    void accept(int first, int second);
+}
@@ -0,0 +1,132 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * An open-addressing map from int keys to non negative int values, without boxing.
+ * Collisions are resolved by linear probing and removals shift the following entries back,
+ * so lookups never have to step over deleted markers.
+ */
+final class IntIntHashMap {
+    private static final int EMPTY = -1;
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    // Rep Invariant:
+    //          keys.length == values.length is a power of two with mask == keys.length - 1, at most half
+    //          the cells are used, a cell is used iff its value is not EMPTY, and every key sits at or
+    //          after its home cell with no unused cell in between (wrapping around).
+    // Abstract Function:
+    //          Maps keys[i] to values[i] for every used cell i.
+
+    /**
+     * Create an empty map
+     *
+     * @param expected the number of entries to make room for
+     */
+    IntIntHashMap(int expected) {
+        int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+    }
+
+    private int home(int key) {
+        int hash = key * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+
+    /**
+     * Obtain the value of a key
+     *
+     * @return the value of key, or -1 if the key is absent
+     */
+    int get(int key) {
+        for (int i = home(key); values[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                return values[i];
+            }
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Map a key to a value
+     *
+     * @param value a non negative value
+     * @return the previous value of key, or -1 if the key was absent
+     */
+    int put(int key, int value) {
+        int i = home(key);
+        for (; values[i] != EMPTY; i = (i + 1) & mask) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+        return EMPTY;
+    }
+
+    /**
+     * Remove a key
+     *
+     * @return the value key had, or -1 if the key was absent
+     */
+    int remove(int key) {
+        int i = home(key);
+        while (values[i] != EMPTY && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        if (removed == EMPTY) {
+            return EMPTY;
+        }
+        /* move back every later entry of the run whose home does not lie in (i, j] */
+        for (int j = (i + 1) & mask; values[j] != EMPTY; j = (j + 1) & mask) {
+            int home = home(keys[j]);
+            if (((j - home) & mask) >= ((j - i) & mask)) {
+                keys[i] = keys[j];
+                values[i] = values[j];
+                i = j;
+            }
+        }
+        values[i] = EMPTY;
+        size--;
+        return removed;
+    }
+
+    /**
+     * Obtain the number of entries
+     */
+    int size() {
+        return size;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, EMPTY);
+        mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != EMPTY) {
+                int j = home(oldKeys[i]);
+                while (values[j] != EMPTY) {
+                    j = (j + 1) & mask;
+                }
+                keys[j] = oldKeys[i];
+                values[j] = oldValues[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Computes minimum spanning components with Kruskal's algorithm: the edges are sorted
+ * by length once and merged through a disjoint-set forest until k components remain.
+ * Runs in O(E log E) and keeps no state between calls, so one engine may be used
+ * from several threads as long as the graph is not mutated meanwhile.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class KruskalEngine<V extends Vertex, E extends Edge<V>> {
+    private final MGraph<V, E> graph;
+
+    /**
+     * Create an engine over a graph
+     *
+     * @param graph the graph to partition, it is read and never mutated
+     */
+    public KruskalEngine(MGraph<V, E> graph) {
+        this.graph = graph;
+    }
+
+    /**
+     * Return a set with k connected components of the graph, as described by
+     * ImGraph.minimumSpanningComponents.
+     *
+     * @param k the number of components wanted
+     * @return a set of k minimum spanning trees, one per component, built from the graph's own edges,
+     *          or null if the number of components of the original graph is greater than k
+     */
+    public Set<ImGraph<V, E>> minimumSpanningComponents(int k) {
+        List<V> vertices = new ArrayList<>(graph.allVertices());
+        Map<V, Integer> ids = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            ids.put(vertices.get(i), i);
+        }
+
+        List<E> edges = new ArrayList<>(graph.allEdges());
+        int m = edges.size();
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] lengths = new int[m];
+        for (int i = 0; i < m; i++) {
+            E edge = edges.get(i);
+            sources[i] = ids.get(edge.v1());
+            targets[i] = ids.get(edge.v2());
+            lengths[i] = edge.length();
+        }
+
+        DisjointSet sets = new DisjointSet(vertices.size());
+        boolean[] chosen = spanningForest(sources, targets, lengths, k, sets);
+        if (chosen == null) {
+            return null;
+        }
+
+        Map<Integer, ALGraph<V, E>> components = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            components.computeIfAbsent(sets.find(i), root -> new ALGraph<>()).addVertex(vertices.get(i));
+        }
+        for (int i = 0; i < m; i++) {
+            if (chosen[i]) {
+                components.get(sets.find(sources[i])).addEdge(edges.get(i));
+            }
+        }
+        return asGraphs(components.values());
+    }
+
+    /**
+     * Run Kruskal's algorithm over an edge list until k components remain.
+     * Edges of equal length are taken in list order.
+     *
+     * @param sources one end of each edge
+     * @param targets the other end of each edge
+     * @param lengths the length of each edge
+     * @param k       the number of components wanted
+     * @param sets    a partition with every vertex in its own set, receives the k components
+     * @return which edges belong to the spanning forest,
+     *          or null if the edges leave more than k components
+     */
+    static boolean[] spanningForest(int[] sources, int[] targets, int[] lengths, int k, DisjointSet sets) {
+        int m = lengths.length;
+        long[] byLength = new long[m];
+        for (int i = 0; i < m; i++) {
+            byLength[i] = ((long) lengths[i] << 32) | i;
+        }
+        Arrays.sort(byLength);
+
+        boolean[] chosen = new boolean[m];
+        for (int i = 0; i < m && sets.count() > k; i++) {
+            int edge = (int) byLength[i];
+            if (sets.union(sources[edge], targets[edge])) {
+                chosen[edge] = true;
+            }
+        }
+        return sets.count() > k ? null : chosen;
+    }
+
+    /**
+     * Wrap component graphs as the ImGraph results of minimumSpanningComponents
+     */
+    static <V extends Vertex, E extends Edge<V>> Set<ImGraph<V, E>> asGraphs(Collection<ALGraph<V, E>> components) {
+        Set<ImGraph<V, E>> msc = new HashSet<>();
+        components.forEach(component -> msc.add(new Graph<>(component)));
+        return msc;
+    }
+}
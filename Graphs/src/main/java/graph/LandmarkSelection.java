@@ -0,0 +1,22 @@
+package graph;
+
+/**
+ * How Landmarks chooses the vertices whose distance tables it keeps.
+ * Both start from the vertex furthest from the first vertex and, on a graph with several
+ * components, put a landmark in each component before a second one in any component.
+ */
+public enum LandmarkSelection {
+    /**
+     * Choose each next landmark as the vertex furthest from every landmark chosen so far.
+     */
+    FARTHEST,
+
+    /**
+     * Choose each next landmark as Goldberg and Werneck's avoid does: grow a shortest path tree
+     * from the vertex furthest from the landmarks, weigh each vertex by how much its distance
+     * from the root exceeds the lower bound the current landmarks give, and descend into the
+     * heaviest subtree without a landmark down to a leaf. Covers the regions the current bounds
+     * serve worst, at the cost of one more search per landmark.
+     */
+    AVOID
+}
@@ -0,0 +1,419 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * Distance tables from a few landmark vertices, for the ALT (A*, landmarks, triangle inequality)
+ * technique. For every landmark L the triangle inequality bounds the distance between v and w by
+ * |d(L,v) - d(L,w)| from below and by d(L,v) + d(L,w) from above, so each bound costs O(k) table
+ * lookups for k landmarks. The lower bound is a consistent heuristic, a Landmarks can be handed to
+ * DijkstraEngine.shortestPath or Graph.setHeuristic to direct point-to-point searches on graphs
+ * without coordinates.
+ *
+ * The tables describe the graph they were computed on. They remain valid bounds while edges are
+ * only removed or lengthened, but adding or shortening an edge may invalidate them. Vertices added
+ * after the tables were computed are estimated at 0.
+ *
+ * Tables can be saved and loaded back. All values are big-endian ints:
+ * <pre>
+ *   header      magic, format version, vertex count n, landmark count k           16 bytes
+ *   ids         the id of each vertex, vertices ordered by id and then name        4n bytes
+ *   names       the hash code of the name of each vertex                           4n bytes
+ *   landmarks   the dense id of each landmark                                      4k bytes
+ *   tables      the distance from each landmark to each vertex, landmark by        4kn bytes
+ *               landmark, Integer.MAX_VALUE for vertices the landmark cannot reach
+ * </pre>
+ *
+ * @param <V> represents a vertex type
+ */
+public final class Landmarks<V extends Vertex> implements Heuristic<V> {
+    static final int MAGIC = 0x414C5446;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 16;
+    private static final Comparator<Vertex> ORDER = Comparator.comparingInt(Vertex::id).thenComparing(Vertex::name);
+    private static final int UNREACHED = Integer.MAX_VALUE;
+
+    private final List<V> vertices;
+    private final Map<V, Integer> ids;
+    private final int[] landmarks;
+    private final int[][] distances;
+    // Rep Invariant:
+    //          vertices is ordered by id and then name, ids.get(vertices.get(i)) == i, landmarks holds
+    //          k distinct dense ids and distances is int[k][n] with n == vertices.size().
+    // Abstract Function:
+    //          distances[j][i] is the length of the shortest path between vertices.get(landmarks[j])
+    //          and vertices.get(i), or Integer.MAX_VALUE if there is none.
+
+    private Landmarks(List<V> vertices, int[] landmarks, int[][] distances) {
+        this.vertices = Collections.unmodifiableList(vertices);
+        this.ids = new HashMap<>();
+        for (int i = 0; i < vertices.size(); i++) {
+            ids.put(vertices.get(i), i);
+        }
+        this.landmarks = landmarks;
+        this.distances = distances;
+    }
+
+    /**
+     * Choose landmarks in a graph and compute their distance tables, one full search per landmark
+     * (two with AVOID). Graph.landmarks preprocesses a snapshot of a Graph.
+     *
+     * @param graph     the graph to preprocess, it is read and never mutated
+     * @param k         the number of landmarks, at least 1, fewer are chosen if the graph has fewer vertices
+     * @param selection how landmarks are chosen
+     * @return the landmarks and their tables
+     */
+    public static <V extends Vertex, E extends Edge<V>> Landmarks<V> build(MGraph<V, E> graph, int k,
+                                                                        LandmarkSelection selection) {
+        if (k < 1) {
+            throw new IllegalArgumentException("At least one landmark is needed");
+        }
+        CsrGraph<V, E> csr = graph instanceof CsrGraph ? (CsrGraph<V, E>) graph : new CsrGraph<>(graph);
+        int n = csr.vertexCount();
+        List<V> vertices = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            vertices.add(csr.vertexAt(i));
+        }
+        int count = Math.min(k, n);
+        int[] landmarks = new int[count];
+        int[][] distances = new int[count][];
+        if (n == 0) {
+            return new Landmarks<>(vertices, landmarks, distances);
+        }
+
+        Selector selector = new Selector(csr);
+        for (int j = 0; j < count; j++) {
+            int landmark;
+            if (selection == LandmarkSelection.AVOID) {
+                landmark = selector.avoid(distances, j);
+            } else {
+                landmark = selector.furthestFromLandmarks();
+            }
+            landmarks[j] = landmark;
+            distances[j] = selector.add(landmark);
+        }
+        return new Landmarks<>(vertices, landmarks, distances);
+    }
+
+    /**
+     * The scratch state of one landmark selection over a dense graph
+     */
+    private static final class Selector {
+        private final DenseGraph<?, ?> graph;
+        private final int n;
+        private final int[] closest;
+        private final boolean[] chosen;
+        private final int[] distances;
+        private final int[] parents;
+        private final int[] order;
+        private final IndexedMinHeap heap;
+        // Rep Invariant:
+        //          closest[i] is the distance from i to the nearest landmark added so far,
+        //          Integer.MAX_VALUE if none reaches it, and chosen marks the landmarks added so far.
+
+        Selector(DenseGraph<?, ?> graph) {
+            this.graph = graph;
+            this.n = graph.vertexCount();
+            closest = new int[n];
+            Arrays.fill(closest, UNREACHED);
+            chosen = new boolean[n];
+            distances = new int[n];
+            parents = new int[n];
+            order = new int[n];
+            heap = new IndexedMinHeap(n);
+        }
+
+        /**
+         * Search from a vertex
+         *
+         * @return the number of vertices settled, order holds them in the order they were settled
+         */
+        private int search(int source) {
+            Arrays.fill(distances, UNREACHED);
+            return graph.search(source, -1, UNREACHED, distances, parents, heap, order);
+        }
+
+        /**
+         * @return the vertex that is not a landmark with the largest distance to its nearest landmark,
+         *          the first such vertex on ties. If no landmark reaches the first unreached vertex,
+         *          the vertex furthest from it in its component.
+         */
+        int furthestFromLandmarks() {
+            int best = -1;
+            for (int i = 0; i < n; i++) {
+                if (!chosen[i] && (best == -1 || closest[i] > closest[best])) {
+                    best = i;
+                }
+            }
+            if (closest[best] == UNREACHED) {
+                return order[search(best) - 1];
+            }
+            return best;
+        }
+
+        int avoid(int[][] tables, int count) {
+            int root = furthestFromLandmarks();
+            if (closest[root] == UNREACHED) {
+                return root;
+            }
+            int settled = search(root);
+
+            long[] sizes = new long[n];
+            boolean[] covered = new boolean[n];
+            for (int i = settled - 1; i >= 0; i--) {
+                int v = order[i];
+                if (chosen[v]) {
+                    covered[v] = true;
+                }
+                if (covered[v]) {
+                    sizes[v] = 0;
+                } else {
+                    sizes[v] += distances[v] - lowerBound(tables, count, root, v);
+                }
+                int parent = parents[v];
+                if (parent != -1) {
+                    covered[parent] |= covered[v];
+                    sizes[parent] += sizes[v];
+                }
+            }
+
+            int[] firstChild = new int[n];
+            int[] nextSibling = new int[n];
+            Arrays.fill(firstChild, -1);
+            for (int i = settled - 1; i > 0; i--) {
+                int v = order[i];
+                nextSibling[v] = firstChild[parents[v]];
+                firstChild[parents[v]] = v;
+            }
+
+            int heaviest = root;
+            for (int i = 0; i < settled; i++) {
+                if (sizes[order[i]] > sizes[heaviest]) {
+                    heaviest = order[i];
+                }
+            }
+            if (sizes[heaviest] == 0) {
+                return root;
+            }
+            for (int leaf = heaviest; ; ) {
+                int next = -1;
+                for (int child = firstChild[leaf]; child != -1; child = nextSibling[child]) {
+                    if (sizes[child] > 0 && (next == -1 || sizes[child] > sizes[next])) {
+                        next = child;
+                    }
+                }
+                if (next == -1) {
+                    return leaf;
+                }
+                leaf = next;
+            }
+        }
+
+        /**
+         * Make a vertex a landmark
+         *
+         * @return the distances from the landmark to every vertex
+         */
+        int[] add(int landmark) {
+            search(landmark);
+            chosen[landmark] = true;
+            for (int i = 0; i < n; i++) {
+                closest[i] = Math.min(closest[i], distances[i]);
+            }
+            return distances.clone();
+        }
+
+        private static int lowerBound(int[][] tables, int count, int v, int w) {
+            int bound = 0;
+            for (int j = 0; j < count; j++) {
+                int dv = tables[j][v];
+                int dw = tables[j][w];
+                if (dv != UNREACHED && dw != UNREACHED) {
+                    bound = Math.max(bound, Math.abs(dv - dw));
+                }
+            }
+            return bound;
+        }
+    }
+
+    /**
+     * Obtain the landmarks
+     *
+     * @return the landmark vertices, in the order they were chosen
+     */
+    public List<V> landmarks() {
+        List<V> result = new ArrayList<>(landmarks.length);
+        for (int landmark : landmarks) {
+            result.add(vertices.get(landmark));
+        }
+        return result;
+    }
+
+    /**
+     * Obtain a lower bound on the length of the shortest path between two vertices in O(k)
+     *
+     * @param v one end of the path
+     * @param w the other end of the path
+     * @return a lower bound on the distance between v and w, Integer.MAX_VALUE if a landmark shows
+     *          they are in different components, or 0 if either is not in the tables
+     */
+    public int lowerBound(V v, V w) {
+        Integer i = ids.get(v);
+        Integer t = ids.get(w);
+        if (i == null || t == null) {
+            return 0;
+        }
+        int bound = 0;
+        for (int[] table : distances) {
+            int dv = table[i];
+            int dw = table[t];
+            if ((dv == UNREACHED) != (dw == UNREACHED)) {
+                return UNREACHED;
+            }
+            if (dv != UNREACHED) {
+                bound = Math.max(bound, Math.abs(dv - dw));
+            }
+        }
+        return bound;
+    }
+
+    /**
+     * Obtain an upper bound on the length of the shortest path between two vertices in O(k),
+     * the length of the shortest detour through a landmark
+     *
+     * @param v one end of the path
+     * @param w the other end of the path
+     * @return an upper bound on the distance between v and w, or Integer.MAX_VALUE if no landmark
+     *          reaches both or either is not in the tables
+     */
+    public int upperBound(V v, V w) {
+        Integer i = ids.get(v);
+        Integer t = ids.get(w);
+        if (i == null || t == null) {
+            return UNREACHED;
+        }
+        if (i.equals(t)) {
+            return 0;
+        }
+        long bound = UNREACHED;
+        for (int[] table : distances) {
+            if (table[i] != UNREACHED && table[t] != UNREACHED) {
+                bound = Math.min(bound, (long) table[i] + table[t]);
+            }
+        }
+        return (int) bound;
+    }
+
+    /**
+     * Estimate the distance to the sink for A*, the lower bound of a path that may exist
+     *
+     * @param v    the vertex the search has reached
+     * @param sink the vertex the search is heading to
+     * @return lowerBound(v, sink), or 0 where lowerBound shows there is no path
+     */
+    @Override
+    public int estimate(V v, V sink) {
+        int bound = lowerBound(v, sink);
+        return bound == UNREACHED ? 0 : bound;
+    }
+
+    /**
+     * Write the tables to a file, replacing its contents
+     *
+     * @param path the file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void save(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            GraphFile.Output out = new GraphFile.Output(channel);
+            out.putInt(MAGIC);
+            out.putInt(FORMAT_VERSION);
+            out.putInt(vertices.size());
+            out.putInt(landmarks.length);
+            for (V v : vertices) {
+                out.putInt(v.id());
+            }
+            for (V v : vertices) {
+                out.putInt(v.name().hashCode());
+            }
+            out.putInts(landmarks);
+            for (int[] table : distances) {
+                out.putInts(table);
+            }
+            out.flush();
+        }
+    }
+
+    /**
+     * Read tables written by save, for the graph they were computed on
+     *
+     * @param path  the file to read
+     * @param graph the graph the tables were computed on, holding the same vertices
+     * @return the landmarks and their tables
+     * @throws IOException if the file cannot be read, is not a landmark file or was computed
+     *          on a graph with other vertices
+     */
+    public static <V extends Vertex, E extends Edge<V>> Landmarks<V> load(Path path, MGraph<V, E> graph)
+            throws IOException {
+        List<V> vertices = new ArrayList<>(graph.allVertices());
+        vertices.sort(ORDER);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                throw new IOException("Not a landmark file: " + path);
+            }
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES).asIntBuffer();
+            if (header.get(0) != MAGIC) {
+                throw new IOException("Not a landmark file: " + path);
+            }
+            if (header.get(1) != FORMAT_VERSION) {
+                throw new IOException("Unsupported landmark file version " + header.get(1) + ": " + path);
+            }
+            int n = header.get(2);
+            int k = header.get(3);
+            if (n < 0 || k < 0 || channel.size() != HEADER_BYTES + 4L * (2L * n + k + (long) k * n)) {
+                throw new IOException("Truncated or corrupt landmark file: " + path);
+            }
+            if (n != vertices.size()) {
+                throw new IOException("Landmark file is for a graph with " + n + " vertices: " + path);
+            }
+
+            long position = HEADER_BYTES;
+            int[] ids = read(channel, position, n);
+            position += 4L * n;
+            int[] names = read(channel, position, n);
+            position += 4L * n;
+            for (int i = 0; i < n; i++) {
+                if (ids[i] != vertices.get(i).id() || names[i] != vertices.get(i).name().hashCode()) {
+                    throw new IOException("Landmark file is for a graph with other vertices: " + path);
+                }
+            }
+            int[] landmarks = read(channel, position, k);
+            position += 4L * k;
+            for (int landmark : landmarks) {
+                if (landmark < 0 || landmark >= n) {
+                    throw new IOException("Truncated or corrupt landmark file: " + path);
+                }
+            }
+            int[][] distances = new int[k][];
+            for (int j = 0; j < k; j++) {
+                distances[j] = read(channel, position, n);
+                position += 4L * n;
+            }
+            return new Landmarks<>(vertices, landmarks, distances);
+        }
+    }
+
+    private static int[] read(FileChannel channel, long position, int count) throws IOException {
+        int[] values = new int[count];
+        if (count > 0) {
+            channel.map(FileChannel.MapMode.READ_ONLY, position, 4L * count).asIntBuffer().get(values);
+        }
+        return values;
+    }
+}
@@ -2,6 +2,7 @@ package graph;
 
 import java.util.Map;
 import java.util.Set;
+import java.util.function.BiConsumer;
 
 public interface MGraph<V extends Vertex, E extends Edge<V>> {
 
@@ -113,4 +114,26 @@ public interface MGraph<V extends Vertex, E extends Edge<V>> {
      * @return a map containing each vertex w that neighbors v and the edge between v and w.
      */
     Map<V, E> getNeighbours(V v); //should there be a public?
+
+    /**
+     * Find the edge that connects two vertices
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the stored v1-v2 edge, or null if there is none
+     */
+    default E getEdge(V v1, V v2) {
+        return getNeighbours(v1).get(v2);
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the v-w edge, without collecting
+     * or cloning them. The graph must not be mutated while the visit is in progress.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    default void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        getNeighbours(v).forEach(visitor);
+    }
 }
@@ -0,0 +1,503 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiConsumer;
+
+/**
+ * An immutable graph served straight from a memory mapped GraphFile.
+ *
+ * Opening a file only maps its sections, nothing is deserialized: searches walk the mapped
+ * offsets, targets and weights, a vertex is found by binary search over the mapped ids, and
+ * vertices and edges are built on demand as plain Vertex and Edge objects. The pages of the
+ * file are loaded by the operating system as they are touched, so opening is O(1) in the size
+ * of the graph and processes mapping the same file share its pages.
+ *
+ * Each section is mapped on its own and must be smaller than 2 GB. The mapping stays valid
+ * after the file is closed, until the graph is garbage collected. Mutations throw
+ * UnsupportedOperationException.
+ */
+public final class MappedGraph extends DenseGraph<Vertex, Edge<Vertex>> implements ImGraph<Vertex, Edge<Vertex>>, MGraph<Vertex, Edge<Vertex>> {
+    private final int vertexCount;
+    private final int edgeLengthSum;
+    private final IntBuffer ids;
+    private final IntBuffer nameOffsets;
+    private final ByteBuffer names;
+    private final IntBuffer offsets;
+    private final IntBuffer targets;
+    private final IntBuffer weights;
+    // Rep Invariant:
+    //          The buffers hold the sections of a GraphFile of vertexCount vertices, as described there.
+    // Abstract Function:
+    //          Represents an undirected graph with vertex vertexAt(i) for each i in [0, vertexCount),
+    //          and an edge vertexAt(i)-vertexAt(targets[s]) of length weights[s] for each slot s in row i.
+
+    private MappedGraph(int vertexCount, int edgeLengthSum, IntBuffer ids, IntBuffer nameOffsets, ByteBuffer names,
+                        IntBuffer offsets, IntBuffer targets, IntBuffer weights) {
+        this.vertexCount = vertexCount;
+        this.edgeLengthSum = edgeLengthSum;
+        this.ids = ids;
+        this.nameOffsets = nameOffsets;
+        this.names = names;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Map a graph file into memory
+     *
+     * @param path the file to read, written by GraphFile
+     * @return a graph served straight from the mapped file
+     * @throws IOException if the file cannot be read or is not a graph file
+     */
+    static MappedGraph open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < GraphFile.HEADER_BYTES) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            IntBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, GraphFile.HEADER_BYTES).asIntBuffer();
+            if (header.get(0) != GraphFile.MAGIC) {
+                throw new IOException("Not a graph file: " + path);
+            }
+            if (header.get(1) != GraphFile.FORMAT_VERSION) {
+                throw new IOException("Unsupported graph file version " + header.get(1) + ": " + path);
+            }
+            int n = header.get(2);
+            int slots = header.get(3);
+            int nameBytes = header.get(4);
+            long end = GraphFile.HEADER_BYTES + 4L * n + 4L * (n + 1) + nameBytes + GraphFile.padding(nameBytes)
+                    + 4L * (n + 1) + 8L * slots;
+            if (n < 0 || slots < 0 || nameBytes < 0 || channel.size() != end) {
+                throw new IOException("Truncated or corrupt graph file: " + path);
+            }
+
+            Sections sections = new Sections(channel, GraphFile.HEADER_BYTES);
+            IntBuffer ids = sections.ints(n);
+            IntBuffer nameOffsets = sections.ints(n + 1);
+            ByteBuffer names = sections.bytes(nameBytes);
+            sections.skip(GraphFile.padding(nameBytes));
+            IntBuffer offsets = sections.ints(n + 1);
+            IntBuffer targets = sections.ints(slots);
+            IntBuffer weights = sections.ints(slots);
+            return new MappedGraph(n, header.get(5), ids, nameOffsets, names, offsets, targets, weights);
+        }
+    }
+
+    /**
+     * Maps consecutive sections of a file
+     */
+    private static final class Sections {
+        private final FileChannel channel;
+        private long position;
+
+        Sections(FileChannel channel, long position) {
+            this.channel = channel;
+            this.position = position;
+        }
+
+        ByteBuffer bytes(int length) throws IOException {
+            ByteBuffer section = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            position += length;
+            return section;
+        }
+
+        IntBuffer ints(int count) throws IOException {
+            return bytes(Math.multiplyExact(count, Integer.BYTES)).asIntBuffer();
+        }
+
+        void skip(int length) {
+            position += length;
+        }
+    }
+
+    /**
+     * Obtain the number of vertices in the graph
+     *
+     * @return the number of vertices in the graph
+     */
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Obtain the number of edges in the graph
+     *
+     * @return the number of edges in the graph
+     */
+    public int edgeCount() {
+        return targets.limit() / 2;
+    }
+
+    private String name(int i) {
+        int start = nameOffsets.get(i);
+        byte[] bytes = new byte[nameOffsets.get(i + 1) - start];
+        ByteBuffer view = names.duplicate();
+        view.position(start);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Obtain the dense id of a vertex by binary search over the mapped ids
+     *
+     * @param v the vertex of interest
+     * @return the id of v or -1 if v is not part of the graph
+     */
+    int index(Vertex v) {
+        int low = 0;
+        int high = vertexCount;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (ids.get(middle) < v.id()) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        for (int i = low; i < vertexCount && ids.get(i) == v.id(); i++) {
+            if (name(i).equals(v.name())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    Vertex vertexAt(int i) {
+        return new Vertex(ids.get(i), name(i));
+    }
+
+    private int slot(int i, int j) {
+        if (i == -1 || j == -1) {
+            return -1;
+        }
+        int low = offsets.get(i);
+        int high = offsets.get(i + 1) - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int target = targets.get(middle);
+            if (target < j) {
+                low = middle + 1;
+            } else if (target > j) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -1;
+    }
+
+    Edge<Vertex> edgeBetween(int i, int j) {
+        return edgeAt(i, slot(i, j));
+    }
+
+    private Edge<Vertex> edgeAt(int i, int slot) {
+        return new Edge<>(vertexAt(i), vertexAt(targets.get(slot)), weights.get(slot));
+    }
+
+    int[] largestComponent() {
+        return ConnectedComponents.largest(offsets, targets);
+    }
+
+    int search(int source, int target, int range, int[] distances, int[] parents,
+               IndexedMinHeap heap, int[] order) {
+        int settled = 0;
+        distances[source] = 0;
+        parents[source] = -1;
+        heap.push(source, 0);
+
+        while (!heap.isEmpty()) {
+            int current = heap.poll();
+            if (order != null) {
+                order[settled] = current;
+            }
+            settled++;
+            if (current == target) {
+                heap.clear();
+                break;
+            }
+            int currentDistance = distances[current];
+            int end = offsets.get(current + 1);
+            for (int slot = offsets.get(current); slot < end; slot++) {
+                int next = targets.get(slot);
+                int distance = currentDistance + weights.get(slot);
+                if (distance < distances[next] && distance <= range) {
+                    distances[next] = distance;
+                    parents[next] = current;
+                    heap.push(next, distance);
+                }
+            }
+        }
+        return settled;
+    }
+
+    //// ImGraph ////
+
+    /**
+     * Find the edge that connects two vertices if such an edge exists.
+     * This method should not permit graph mutations.
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the edge connecting v1 and v2 or null if there is no such edge
+     */
+    public Edge<Vertex> getEdge(Vertex v1, Vertex v2) {
+        int i = index(v1);
+        int slot = slot(i, index(v2));
+        return slot == -1 ? null : edgeAt(i, slot);
+    }
+
+    /**
+     * Return a set with k connected components of the graph, as described by
+     * ImGraph.minimumSpanningComponents.
+     *
+     * @return a set of graph partitions such that a vertex in one partition
+     * is no closer to a vertex in a different partition than it is to a vertex
+     * in its own partition.
+     * Or null if the number of components of the original graph is greater than k
+     */
+    public Set<ImGraph<Vertex, Edge<Vertex>>> minimumSpanningComponents(int k) {
+        return new KruskalEngine<>(this).minimumSpanningComponents(k);
+    }
+
+    /**
+     * Compute the diameter of the graph, the diameter of its largest component
+     * if it is not connected.
+     *
+     * @return the diameter of the graph.
+     */
+    public int diameter() {
+        return EccentricityEngine.forDense(this, null).diameter();
+    }
+
+    /**
+     * Compute the diameter of the graph as diameter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the diameter of the graph.
+     */
+    public int diameter(ForkJoinPool pool) {
+        return EccentricityEngine.forDense(this, pool).diameter();
+    }
+
+    /**
+     * Compute the center of the graph, the center of its largest component
+     * if it is not connected.
+     *
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public Vertex getCenter() {
+        return EccentricityEngine.forDense(this, null).center();
+    }
+
+    /**
+     * Compute the center of the graph as getCenter() does, running the
+     * single-source searches in parallel on a pool.
+     *
+     * @param pool the pool to run the searches on
+     * @return the center of the graph, or null if the graph has no vertices.
+     */
+    public Vertex getCenter(ForkJoinPool pool) {
+        return EccentricityEngine.forDense(this, pool).center();
+    }
+
+    //// MGraph ////
+
+    /**
+     * Unsupported, the mapped graph cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean addVertex(Vertex v) {
+        throw new UnsupportedOperationException("MappedGraph is immutable");
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(Vertex v) {
+        return index(v) != -1;
+    }
+
+    /**
+     * Unsupported, the mapped graph cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean addEdge(Edge<Vertex> e) {
+        throw new UnsupportedOperationException("MappedGraph is immutable");
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    public boolean edge(Edge<Vertex> e) {
+        return edge(e.v1(), e.v2());
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(Vertex v1, Vertex v2) {
+        return slot(index(v1), index(v2)) != -1;
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public int edgeLength(Vertex v1, Vertex v2) {
+        int slot = slot(index(v1), index(v2));
+        return slot == -1 ? -1 : weights.get(slot);
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        return edgeLengthSum;
+    }
+
+    /**
+     * Unsupported, the mapped graph cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(Edge<Vertex> e) {
+        throw new UnsupportedOperationException("MappedGraph is immutable");
+    }
+
+    /**
+     * Unsupported, the mapped graph cannot be mutated
+     *
+     * @throws UnsupportedOperationException always
+     */
+    public boolean remove(Vertex v) {
+        throw new UnsupportedOperationException("MappedGraph is immutable");
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * The set is an unmodifiable view of the file, vertices are built as they are iterated.
+     *
+     * @return a set of all vertices in the graph
+     */
+    public Set<Vertex> allVertices() {
+        return new AbstractSet<Vertex>() {
+            @Override
+            public Iterator<Vertex> iterator() {
+                return new Iterator<Vertex>() {
+                    private int next;
+
+                    @Override
+                    public boolean hasNext() {
+                        return next < vertexCount;
+                    }
+
+                    @Override
+                    public Vertex next() {
+                        if (next == vertexCount) {
+                            throw new NoSuchElementException();
+                        }
+                        return vertexAt(next++);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return vertexCount;
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return o instanceof Vertex && index((Vertex) o) != -1;
+            }
+        };
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v
+     */
+    public Set<Edge<Vertex>> allEdges(Vertex v) {
+        Set<Edge<Vertex>> edges = new HashSet<>();
+        forEachNeighbour(v, (w, edge) -> edges.add(edge));
+        return edges;
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return all edges in the graph
+     */
+    public Set<Edge<Vertex>> allEdges() {
+        Set<Edge<Vertex>> edges = new HashSet<>();
+        for (int i = 0; i < vertexCount; i++) {
+            for (int slot = offsets.get(i); slot < offsets.get(i + 1); slot++) {
+                if (targets.get(slot) > i) {
+                    edges.add(edgeAt(i, slot));
+                }
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w.
+     */
+    public Map<Vertex, Edge<Vertex>> getNeighbours(Vertex v) {
+        Map<Vertex, Edge<Vertex>> neighbours = new HashMap<>();
+        forEachNeighbour(v, neighbours::put);
+        return neighbours;
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the v-w edge, walking the mapped row of v.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(Vertex v, BiConsumer<? super Vertex, ? super Edge<Vertex>> visitor) {
+        int i = index(v);
+        if (i == -1) {
+            return;
+        }
+        Vertex source = vertexAt(i);
+        for (int slot = offsets.get(i); slot < offsets.get(i + 1); slot++) {
+            Vertex neighbour = vertexAt(targets.get(slot));
+            visitor.accept(neighbour, new Edge<>(source, neighbour, weights.get(slot)));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package graph;
+
+/**
+ * How DijkstraEngine answers a point-to-point shortestPath query.
+ */
+public enum PathSearch {
+    /**
+     * Expand from the source until the sink is settled.
+     */
+    UNIDIRECTIONAL,
+
+    /**
+     * Expand from the source and, over the same undirected edges, from the sink, always growing
+     * the search with the smaller queue, and stop once the smallest keys of both queues add up
+     * to the shortest path met so far. Settles far fewer vertices when the sink is far away.
+     */
+    BIDIRECTIONAL
+}
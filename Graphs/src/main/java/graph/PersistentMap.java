@@ -0,0 +1,380 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * An immutable hash map with structural sharing, laid out as a hash array mapped trie.
+ *
+ * Each level of the trie consumes 5 bits of the key's hash and keeps only its occupied
+ * children, addressed through a 32 bit bitmap. plus() and minus() copy the path from the
+ * root to the key, O(log32 n) nodes, and share every other node with the map they were
+ * derived from, so old versions stay valid and cost nothing to keep. Keys whose hashes
+ * are fully equal end up together in a collision node below the last level.
+ *
+ * @param <K> the type of the keys
+ * @param <T> the type of the values
+ */
+final class PersistentMap<K, T> {
+    private static final int BITS = 5;
+    private static final int MASK = (1 << BITS) - 1;
+    private static final PersistentMap<?, ?> EMPTY = new PersistentMap<>(null, 0);
+
+    private final Node root;
+    private final int size;
+    // Rep Invariant:
+    //          root is null iff size == 0, no node is empty, and size is the number of leaves under root.
+    //          A leaf sits in the node reached by following the 5 bit groups of its hash from the root.
+    // Abstract Function:
+    //          Represents the map from the key of each leaf under root to the value of that leaf.
+
+    private PersistentMap(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Obtain the empty map
+     *
+     * @return a map without keys
+     */
+    @SuppressWarnings("unchecked")
+    static <K, T> PersistentMap<K, T> empty() {
+        return (PersistentMap<K, T>) EMPTY;
+    }
+
+    /**
+     * Obtain the number of keys in the map
+     *
+     * @return the number of keys
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Obtain the value of a key
+     *
+     * @param key the key to look up
+     * @return the value of key, or null if key is not in the map
+     */
+    @SuppressWarnings("unchecked")
+    T get(Object key) {
+        Leaf leaf = root == null ? null : root.find(spread(key), key, 0);
+        return leaf == null ? null : (T) leaf.getValue();
+    }
+
+    /**
+     * Check if a key is in the map
+     *
+     * @param key the key to look up
+     * @return true if key is in the map
+     */
+    boolean containsKey(Object key) {
+        return root != null && root.find(spread(key), key, 0) != null;
+    }
+
+    /**
+     * Obtain a map that also maps key to value
+     *
+     * @param key   the key to add or replace
+     * @param value the value of key
+     * @return a map like this one but with key mapped to value, this map if it already was
+     */
+    PersistentMap<K, T> plus(K key, T value) {
+        int hash = spread(key);
+        Leaf leaf = new Leaf(hash, key, value);
+        if (root == null) {
+            return new PersistentMap<>(new Node(1 << (hash & MASK), new Object[]{leaf}), 1);
+        }
+        boolean present = root.find(hash, key, 0) != null;
+        Node updated = root.plus(leaf, 0);
+        return updated == root ? this : new PersistentMap<>(updated, present ? size : size + 1);
+    }
+
+    /**
+     * Obtain a map without a key
+     *
+     * @param key the key to remove
+     * @return a map like this one but without key, this map if key is not in it
+     */
+    PersistentMap<K, T> minus(Object key) {
+        if (root == null) {
+            return this;
+        }
+        Node updated = root.minus(spread(key), key, 0);
+        if (updated == root) {
+            return this;
+        }
+        return updated == null ? empty() : new PersistentMap<>(updated, size - 1);
+    }
+
+    /**
+     * View the map as an unmodifiable java.util.Map, lookups go through the trie
+     *
+     * @return an unmodifiable view of this map
+     */
+    Map<K, T> asMap() {
+        Set<Map.Entry<K, T>> entries = new AbstractSet<Map.Entry<K, T>>() {
+            @Override
+            public Iterator<Map.Entry<K, T>> iterator() {
+                return new LeafIterator<>(root);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+
+        return new AbstractMap<K, T>() {
+            @Override
+            public Set<Entry<K, T>> entrySet() {
+                return entries;
+            }
+
+            @Override
+            public T get(Object key) {
+                return PersistentMap.this.get(key);
+            }
+
+            @Override
+            public boolean containsKey(Object key) {
+                return PersistentMap.this.containsKey(key);
+            }
+        };
+    }
+
+    private static int spread(Object key) {
+        int hash = key.hashCode();
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * A key and its value
+     */
+    private static final class Leaf implements Map.Entry<Object, Object> {
+        private final int hash;
+        private final Object key;
+        private final Object value;
+
+        Leaf(int hash, Object key, Object value) {
+            this.hash = hash;
+            this.key = key;
+            this.value = value;
+        }
+
+        @Override
+        public Object getKey() {
+            return key;
+        }
+
+        @Override
+        public Object getValue() {
+            return value;
+        }
+
+        @Override
+        public Object setValue(Object value) {
+            throw new UnsupportedOperationException("PersistentMap entries are immutable");
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Map.Entry)) {
+                return false;
+            }
+            Map.Entry<?, ?> entry = (Map.Entry<?, ?>) o;
+            return key.equals(entry.getKey()) && Objects.equals(value, entry.getValue());
+        }
+
+        @Override
+        public int hashCode() {
+            return key.hashCode() ^ Objects.hashCode(value);
+        }
+
+        @Override
+        public String toString() {
+            return key + "=" + value;
+        }
+    }
+
+    /**
+     * An inner node of the trie. Its children are leaves or nodes, stored in the order of their
+     * 5 bit hash group; a node below the last level is a collision node holding leaves only,
+     * without a bitmap.
+     */
+    private static final class Node {
+        private final int bitmap;
+        private final Object[] children;
+
+        Node(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        Leaf find(int hash, Object key, int shift) {
+            if (shift >= Integer.SIZE) {
+                for (Object child : children) {
+                    if (((Leaf) child).getKey().equals(key)) {
+                        return (Leaf) child;
+                    }
+                }
+                return null;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = children[Integer.bitCount(bitmap & (bit - 1))];
+            if (child instanceof Leaf) {
+                Leaf leaf = (Leaf) child;
+                return leaf.hash == hash && leaf.getKey().equals(key) ? leaf : null;
+            }
+            return ((Node) child).find(hash, key, shift + BITS);
+        }
+
+        Node plus(Leaf leaf, int shift) {
+            if (shift >= Integer.SIZE) {
+                for (int i = 0; i < children.length; i++) {
+                    if (((Leaf) children[i]).getKey().equals(leaf.getKey())) {
+                        return replace(i, leaf);
+                    }
+                }
+                Object[] grown = Arrays.copyOf(children, children.length + 1);
+                grown[children.length] = leaf;
+                return new Node(0, grown);
+            }
+            int bit = 1 << ((leaf.hash >>> shift) & MASK);
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            if ((bitmap & bit) == 0) {
+                Object[] grown = new Object[children.length + 1];
+                System.arraycopy(children, 0, grown, 0, index);
+                grown[index] = leaf;
+                System.arraycopy(children, index, grown, index + 1, children.length - index);
+                return new Node(bitmap | bit, grown);
+            }
+            Object child = children[index];
+            if (child instanceof Leaf) {
+                Leaf existing = (Leaf) child;
+                if (existing.hash == leaf.hash && existing.getKey().equals(leaf.getKey())) {
+                    return existing.getValue() == leaf.getValue() ? this : replace(index, leaf);
+                }
+                return replace(index, pair(existing, leaf, shift + BITS));
+            }
+            Node updated = ((Node) child).plus(leaf, shift + BITS);
+            return updated == child ? this : replace(index, updated);
+        }
+
+        Node minus(int hash, Object key, int shift) {
+            if (shift >= Integer.SIZE) {
+                for (int i = 0; i < children.length; i++) {
+                    if (((Leaf) children[i]).getKey().equals(key)) {
+                        return children.length == 1 ? null : new Node(0, without(i));
+                    }
+                }
+                return this;
+            }
+            int bit = 1 << ((hash >>> shift) & MASK);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = Integer.bitCount(bitmap & (bit - 1));
+            Object child = children[index];
+            Object updated;
+            if (child instanceof Leaf) {
+                Leaf leaf = (Leaf) child;
+                if (leaf.hash != hash || !leaf.getKey().equals(key)) {
+                    return this;
+                }
+                updated = null;
+            } else {
+                updated = ((Node) child).minus(hash, key, shift + BITS);
+                if (updated == child) {
+                    return this;
+                }
+            }
+            if (updated != null) {
+                return replace(index, updated);
+            }
+            return children.length == 1 ? null : new Node(bitmap & ~bit, without(index));
+        }
+
+        private Node replace(int index, Object child) {
+            Object[] copy = children.clone();
+            copy[index] = child;
+            return new Node(bitmap, copy);
+        }
+
+        private Object[] without(int index) {
+            Object[] shrunk = new Object[children.length - 1];
+            System.arraycopy(children, 0, shrunk, 0, index);
+            System.arraycopy(children, index + 1, shrunk, index, shrunk.length - index);
+            return shrunk;
+        }
+
+        /**
+         * Build the node holding two leaves whose hashes agree below shift
+         */
+        private static Node pair(Leaf a, Leaf b, int shift) {
+            if (shift >= Integer.SIZE) {
+                return new Node(0, new Object[]{a, b});
+            }
+            int bitA = 1 << ((a.hash >>> shift) & MASK);
+            int bitB = 1 << ((b.hash >>> shift) & MASK);
+            if (bitA == bitB) {
+                return new Node(bitA, new Object[]{pair(a, b, shift + BITS)});
+            }
+            return new Node(bitA | bitB, bitA < bitB ? new Object[]{a, b} : new Object[]{b, a});
+        }
+    }
+
+    /**
+     * Walks the leaves of a trie depth first, holding one array position per level
+     */
+    private static final class LeafIterator<K, T> implements Iterator<Map.Entry<K, T>> {
+        private final Object[][] arrays = new Object[Integer.SIZE / BITS + 2][];
+        private final int[] positions = new int[arrays.length];
+        private int depth = -1;
+        private Leaf next;
+
+        LeafIterator(Node root) {
+            if (root != null) {
+                arrays[++depth] = root.children;
+            }
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (depth >= 0) {
+                if (positions[depth] == arrays[depth].length) {
+                    depth--;
+                    continue;
+                }
+                Object child = arrays[depth][positions[depth]++];
+                if (child instanceof Leaf) {
+                    next = (Leaf) child;
+                    return;
+                }
+                arrays[++depth] = ((Node) child).children;
+                positions[depth] = 0;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Map.Entry<K, T> next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Leaf leaf = next;
+            advance();
+            return (Map.Entry<K, T>) (Map.Entry<?, ?>) leaf;
+        }
+    }
+}
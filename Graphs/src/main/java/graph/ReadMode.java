@@ -0,0 +1,24 @@
+package graph;
+
+/**
+ * How a graph hands out the vertices and edges it stores from
+ * allVertices, allEdges and getNeighbours.
+ */
+public enum ReadMode {
+    /**
+     * Return unmodifiable collections that share the graph's own vertex and edge objects.
+     * ALGraph returns live views, which reflect later mutations of the graph; AMGraph builds
+     * the edges it returns, so its edge collections are unmodifiable snapshots.
+     *
+     * The shared objects are the keys the graph is indexed by and must not be mutated:
+     * calling updateName on a vertex obtained this way changes its hash code and corrupts
+     * the graph. Use COPY to hand vertices to code that may rename them.
+     */
+    VIEW,
+
+    /**
+     * Return new collections holding clones of the graph's vertices and edges.
+     * The result is detached from the graph and may be freely modified.
+     */
+    COPY
+}
@@ -0,0 +1,180 @@
+package graph;
+
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * A bounded cache of single-source shortest path trees, keyed by source.
+ *
+ * A miss runs one full Dijkstra search from the source and keeps the whole tree, so every
+ * later query from that source, to any sink, is answered by walking parent links. Trees
+ * are evicted in least recently used order once there are more than maxTrees of them or
+ * their estimated size exceeds maxBytes.
+ *
+ * Each lookup obtains the graph to search from a supplier, so that over versioned storage a
+ * search runs on a single pinned version. The cache remembers the version of the graph its
+ * trees were computed at; the first lookup that obtains another version drops every tree.
+ * Searches run outside the lock of the cache, so concurrent readers only contend for the bookkeeping.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class ShortestPathCache<V extends Vertex, E extends Edge<V>> {
+    private final Supplier<? extends MGraph<V, E>> graph;
+    private final ToLongFunction<? super MGraph<V, E>> version;
+    private final int maxTrees;
+    private final long maxBytes;
+    private final LinkedHashMap<V, ShortestPathTree<V>> trees = new LinkedHashMap<>(16, 0.75f, true);
+    private long cachedVersion;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+    // Rep Invariant:
+    //          Every tree in trees was computed on a graph at cachedVersion, there are at most
+    //          maxTrees of them and bytes is the sum of their sizes, at most maxBytes unless a single
+    //          tree is larger. trees iterates from the least to the most recently used tree.
+    // Abstract Function:
+    //          Caches the shortest path trees of the keys of trees, with counts of the lookups
+    //          served by a tree (hits), those that needed a search (misses), trees dropped to make
+    //          room (evictions) and times every tree was dropped for a new version (invalidations).
+
+    /**
+     * Create an empty cache
+     *
+     * @param graph    supplies the graph to search on each lookup, it is read and never mutated
+     * @param version  the version of a graph obtained from graph, it must change whenever the graph is mutated
+     * @param maxTrees the most trees to keep, at least 1
+     * @param maxBytes the most memory the trees should take, as estimated from their sizes
+     */
+    public ShortestPathCache(Supplier<? extends MGraph<V, E>> graph, ToLongFunction<? super MGraph<V, E>> version,
+                             int maxTrees, long maxBytes) {
+        if (maxTrees < 1 || maxBytes < 1) {
+            throw new IllegalArgumentException("The cache must hold at least one tree");
+        }
+        this.graph = graph;
+        this.version = version;
+        this.maxTrees = maxTrees;
+        this.maxBytes = maxBytes;
+        this.cachedVersion = version.applyAsLong(graph.get());
+    }
+
+    /**
+     * Compute the shortest path from source to sink, reusing the tree of source if it is cached
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the vertices, in order, on the shortest path from source to sink (both end points are part of the list),
+     *          if no such path exists it returns an empty list. If source is the same as the sink returns a list
+     *          with only one Vertex.
+     */
+    public List<V> shortestPath(V source, V sink) {
+        ShortestPathTree<V> tree = tree(source);
+        return tree == null ? new ArrayList<>() : tree.path(sink);
+    }
+
+    /**
+     * Compute the length of the shortest path from source to sink, reusing the tree of source if it is cached
+     *
+     * @param source the start vertex
+     * @param sink   the end vertex
+     * @return the length of the shortest path, or Integer.MAX_VALUE if there is none
+     */
+    public int distance(V source, V sink) {
+        ShortestPathTree<V> tree = tree(source);
+        return tree == null ? Integer.MAX_VALUE : tree.distance(sink);
+    }
+
+    private ShortestPathTree<V> tree(V source) {
+        MGraph<V, E> searched = graph.get();
+        long current = version.applyAsLong(searched);
+        synchronized (this) {
+            if (current != cachedVersion) {
+                if (!trees.isEmpty()) {
+                    invalidations++;
+                }
+                trees.clear();
+                bytes = 0;
+                cachedVersion = current;
+            }
+            ShortestPathTree<V> tree = trees.get(source);
+            if (tree != null) {
+                hits++;
+                return tree;
+            }
+            misses++;
+        }
+
+        ShortestPathTree<V> tree = new DijkstraEngine<>(searched).tree(source);
+        if (tree != null) {
+            store(source, tree, current);
+        }
+        return tree;
+    }
+
+    private synchronized void store(V source, ShortestPathTree<V> tree, long computedAt) {
+        if (computedAt != cachedVersion || trees.containsKey(source)) {
+            return;
+        }
+        trees.put(source, tree);
+        bytes += tree.bytes();
+        Iterator<ShortestPathTree<V>> eldest = trees.values().iterator();
+        while (trees.size() > 1 && (trees.size() > maxTrees || bytes > maxBytes)) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Drop every cached tree, the statistics are kept
+     */
+    public synchronized void clear() {
+        trees.clear();
+        bytes = 0;
+    }
+
+    /**
+     * @return the number of lookups answered from a cached tree
+     */
+    public synchronized long hits() {
+        return hits;
+    }
+
+    /**
+     * @return the number of lookups that had to search the graph
+     */
+    public synchronized long misses() {
+        return misses;
+    }
+
+    /**
+     * @return the number of trees dropped to stay within maxTrees and maxBytes
+     */
+    public synchronized long evictions() {
+        return evictions;
+    }
+
+    /**
+     * @return the number of times the cache was emptied because the graph changed
+     */
+    public synchronized long invalidations() {
+        return invalidations;
+    }
+
+    /**
+     * @return the number of trees currently cached
+     */
+    public synchronized int size() {
+        return trees.size();
+    }
+
+    /**
+     * @return the estimated memory taken by the cached trees in bytes
+     */
+    public synchronized long bytes() {
+        return bytes;
+    }
+}
@@ -0,0 +1,72 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * The shortest paths from one source to every vertex it reaches, as computed by
+ * DijkstraEngine.tree(). Immutable, so it can be shared between threads.
+ *
+ * @param <V> represents a vertex type
+ */
+final class ShortestPathTree<V extends Vertex> {
+    // rough heap footprint of a HashMap entry with its boxed id, plus one slot in each array
+    private static final long BYTES_PER_VERTEX = 80;
+    private static final long BYTES_PER_TREE = 96;
+
+    private final Map<V, Integer> ids;
+    private final List<V> vertices;
+    private final int[] parents;
+    private final int[] distances;
+    // Rep Invariant:
+    //          vertices.get(ids.get(v)) == v for every reached vertex, id 0 is the source, parents[0] == -1
+    //          and every other parents[i] is the id of the predecessor of vertices.get(i) on a shortest path.
+    // Abstract Function:
+    //          Represents the shortest path tree rooted at vertices.get(0), distances[i] is the
+    //          length of the shortest path to vertices.get(i).
+
+    ShortestPathTree(Map<V, Integer> ids, List<V> vertices, int[] parents, int[] distances) {
+        this.ids = ids;
+        this.vertices = vertices;
+        this.parents = parents;
+        this.distances = distances;
+    }
+
+    /**
+     * Obtain the shortest path from the source to a vertex
+     *
+     * @param sink the end vertex
+     * @return the vertices from the source to sink, both included, or an empty list if sink is not reached
+     */
+    List<V> path(V sink) {
+        List<V> path = new ArrayList<>();
+        Integer t = ids.get(sink);
+        if (t == null) {
+            return path;
+        }
+        for (int current = t; current != -1; current = parents[current]) {
+            path.add(vertices.get(current));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Obtain the length of the shortest path from the source to a vertex
+     *
+     * @param sink the end vertex
+     * @return the distance to sink, or Integer.MAX_VALUE if sink is not reached
+     */
+    int distance(V sink) {
+        Integer t = ids.get(sink);
+        return t == null ? Integer.MAX_VALUE : distances[t];
+    }
+
+    /**
+     * Estimate the heap memory held by the tree
+     *
+     * @return an estimate of the size of the tree in bytes
+     */
+    long bytes() {
+        return BYTES_PER_TREE + BYTES_PER_VERTEX * vertices.size();
+    }
+}
@@ -0,0 +1,247 @@
+package graph;
+
+import java.util.*;
+import java.util.function.BiConsumer;
+
+/**
+ * A mutable graph stored as a sequence of immutable versions.
+ *
+ * Every successful mutation builds the next GraphSnapshot from the current one, copying only
+ * the trie paths of the vertices it touches, and publishes it with a single volatile write.
+ * snapshot() pins the current version in O(1): long running analytics such as diameter()
+ * or minimumSpanningComponents() run on the pinned version while writers carry on, and see
+ * none of their changes. Writers are serialised with each other; readers never take a lock
+ * and never hold writers up.
+ *
+ * Reads on the graph itself go to the latest version and return unmodifiable views of it.
+ *
+ * @param <V> represents a vertex type
+ * @param <E> represents an edge type
+ */
+public class VersionedGraph<V extends Vertex, E extends Edge<V>> implements MGraph<V, E> {
+    private volatile GraphSnapshot<V, E> head =
+            new GraphSnapshot<>(PersistentMap.empty(), 0, 0, 0);
+    // Rep Invariant:
+    //          head is only replaced while holding the lock of this graph, by a snapshot
+    //          whose version is one more than the one it replaces.
+    // Abstract Function:
+    //          Represents the graph of head, earlier snapshots are its past versions.
+
+    /**
+     * Pin the current version of the graph
+     *
+     * @return an immutable snapshot of the graph as it is now, unaffected by later mutations
+     */
+    public GraphSnapshot<V, E> snapshot() {
+        return head;
+    }
+
+    /**
+     * Obtain the current version of the graph
+     *
+     * @return the number of successful mutations made so far
+     */
+    public long version() {
+        return head.version();
+    }
+
+    private void publish(PersistentMap<V, PersistentMap<V, E>> adjacency, int edgeCount, int edgeLengthSum) {
+        head = new GraphSnapshot<>(adjacency, edgeCount, edgeLengthSum, head.version() + 1);
+    }
+
+    /**
+     * Add a vertex to the graph
+     *
+     * @param v vertex to add
+     * @return true if the vertex was added successfully and false otherwise
+     */
+    public synchronized boolean addVertex(V v) {
+        GraphSnapshot<V, E> current = head;
+        if (current.vertex(v)) {
+            return false;
+        }
+        publish(current.adjacency().plus(v, PersistentMap.empty()), current.edgeCount(), current.edgeLengthSum());
+        return true;
+    }
+
+    /**
+     * Check if a vertex is part of the graph
+     *
+     * @param v vertex to check in the graph
+     * @return true of v is part of the graph and false otherwise
+     */
+    public boolean vertex(V v) {
+        return head.vertex(v);
+    }
+
+    /**
+     * Add an edge of the graph
+     *
+     * @param e the edge to add to the graph
+     * @return true if the edge was successfully added and false otherwise
+     */
+    public synchronized boolean addEdge(E e) {
+        GraphSnapshot<V, E> current = head;
+        V v1 = e.v1();
+        V v2 = e.v2();
+        if (!current.vertex(v1) || !current.vertex(v2) || current.edge(v1, v2)) {
+            return false;
+        }
+        PersistentMap<V, PersistentMap<V, E>> adjacency = current.adjacency()
+                .plus(v1, current.row(v1).plus(v2, e))
+                .plus(v2, current.row(v2).plus(v1, e));
+        publish(adjacency, current.edgeCount() + 1, current.edgeLengthSum() + e.length());
+        return true;
+    }
+
+    /**
+     * Check if an edge is part of the graph
+     *
+     * @param e the edge to check in the graph
+     * @return true if e is an edge in the graph and false otherwise
+     */
+    public boolean edge(E e) {
+        return head.edge(e);
+    }
+
+    /**
+     * Check if v1-v2 is an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return true of the v1-v2 edge is part of the graph and false otherwise
+     */
+    public boolean edge(V v1, V v2) {
+        return head.edge(v1, v2);
+    }
+
+    /**
+     * Find the edge that connects two vertices
+     *
+     * @param v1 one end of the edge
+     * @param v2 the other end of the edge
+     * @return the stored v1-v2 edge, or null if there is none
+     */
+    public E getEdge(V v1, V v2) {
+        return head.getEdge(v1, v2);
+    }
+
+    /**
+     * Determine the length on an edge in the graph
+     *
+     * @param v1 the first vertex of the edge
+     * @param v2 the second vertex of the edge
+     * @return the length of the v1-v2 edge if this edge is part of the graph or -1 otherwise
+     */
+    public int edgeLength(V v1, V v2) {
+        return head.edgeLength(v1, v2);
+    }
+
+    /**
+     * Obtain the sum of the lengths of all edges in the graph
+     *
+     * @return the sum of the lengths of all edges in the graph
+     */
+    public int edgeLengthSum() {
+        return head.edgeLengthSum();
+    }
+
+    /**
+     * Remove an edge from the graph
+     *
+     * @param e the edge to remove
+     * @return true if e was successfully removed and false otherwise
+     */
+    public synchronized boolean remove(E e) {
+        GraphSnapshot<V, E> current = head;
+        V v1 = e.v1();
+        V v2 = e.v2();
+        E edge = current.getEdge(v1, v2);
+        if (edge == null) {
+            return false;
+        }
+        PersistentMap<V, PersistentMap<V, E>> adjacency = current.adjacency()
+                .plus(v1, current.row(v1).minus(v2))
+                .plus(v2, current.row(v2).minus(v1));
+        publish(adjacency, current.edgeCount() - 1, current.edgeLengthSum() - edge.length());
+        return true;
+    }
+
+    /**
+     * Remove a vertex from the graph
+     *
+     * @param v the vertex to remove
+     * @return true if v was successfully removed and false otherwise
+     */
+    public synchronized boolean remove(V v) {
+        GraphSnapshot<V, E> current = head;
+        if (!current.vertex(v)) {
+            return false;
+        }
+        PersistentMap<V, PersistentMap<V, E>> adjacency = current.adjacency();
+        int edgeCount = current.edgeCount();
+        int edgeLengthSum = current.edgeLengthSum();
+        for (Map.Entry<V, E> entry : current.row(v).asMap().entrySet()) {
+            V neighbour = entry.getKey();
+            adjacency = adjacency.plus(neighbour, adjacency.get(neighbour).minus(v));
+            edgeCount--;
+            edgeLengthSum -= entry.getValue().length();
+        }
+        publish(adjacency.minus(v), edgeCount, edgeLengthSum);
+        return true;
+    }
+
+    /**
+     * Obtain a set of all vertices in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return a set of all vertices in the graph, as of the current version
+     */
+    public Set<V> allVertices() {
+        return head.allVertices();
+    }
+
+    /**
+     * Obtain a set of all edges incident on v.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @param v the vertex of interest
+     * @return all edges incident on v, as of the current version
+     */
+    public Set<E> allEdges(V v) {
+        return head.allEdges(v);
+    }
+
+    /**
+     * Obtain a set of all edges in the graph.
+     * Access to this set **should not** permit graph mutations.
+     *
+     * @return all edges in the graph, as of the current version
+     */
+    public Set<E> allEdges() {
+        return head.allEdges();
+    }
+
+    /**
+     * Obtain all the neighbours of vertex v.
+     * Access to this map **should not** permit graph mutations.
+     *
+     * @param v is the vertex whose neighbourhood we want.
+     * @return a map containing each vertex w that neighbors v and the edge between v and w,
+     *          as of the current version
+     */
+    public Map<V, E> getNeighbours(V v) {
+        return head.getNeighbours(v);
+    }
+
+    /**
+     * Visit every neighbour w of vertex v together with the stored v-w edge,
+     * as of the current version.
+     *
+     * @param v       the vertex whose neighbourhood we want, nothing is visited if it is not part of the graph.
+     * @param visitor receives each vertex w that neighbors v and the edge between v and w.
+     */
+    public void forEachNeighbour(V v, BiConsumer<? super V, ? super E> visitor) {
+        head.forEachNeighbour(v, visitor);
+    }
+}
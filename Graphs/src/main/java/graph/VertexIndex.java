@@ -0,0 +1,169 @@
+package graph;
+
+import java.util.*;
+
+/**
+ * Interns vertices as dense int slots, for backends that keep per-vertex data in arrays.
+ * Lookups in both directions are O(1), and the slot of a released vertex is handed to the
+ * next interned vertex, so slots stay below the largest number of vertices ever held at once.
+ * A retired vertex instead leaves a tombstone slot behind that is only reclaimed by compact(),
+ * for backends that clean up after removed vertices in batches.
+ *
+ * @param <V> represents a vertex type
+ */
+final class VertexIndex<V extends Vertex> {
+    private final Map<V, Integer> slots = new HashMap<>();
+    private final List<V> vertices = new ArrayList<>();
+    private int[] free = new int[8];
+    private int freeCount;
+    // Rep Invariant:
+    //          vertices.get(slots.get(v)) == v for every interned v, every other entry of vertices is null
+    //          and its slot is either among free[0..freeCount) or a tombstone.
+    // Abstract Function:
+    //          Maps each interned vertex v to slot slots.get(v), capacity() is vertices.size().
+
+    /**
+     * Intern a vertex
+     *
+     * @param v the vertex to intern
+     * @return the slot of v, a released slot if there is one and capacity() otherwise
+     */
+    int intern(V v) {
+        Integer slot = slots.get(v);
+        if (slot != null) {
+            return slot;
+        }
+        int next;
+        if (freeCount > 0) {
+            next = free[--freeCount];
+            vertices.set(next, v);
+        } else {
+            next = vertices.size();
+            vertices.add(v);
+        }
+        slots.put(v, next);
+        return next;
+    }
+
+    /**
+     * Release the slot of a vertex for reuse
+     *
+     * @param v the vertex to release
+     * @return the slot v had, or -1 if v was not interned
+     */
+    int release(V v) {
+        Integer slot = slots.remove(v);
+        if (slot == null) {
+            return -1;
+        }
+        vertices.set(slot, null);
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = slot;
+        return slot;
+    }
+
+    /**
+     * Remove a vertex, leaving its slot as a tombstone until compact()
+     *
+     * @param v the vertex to retire
+     * @return the slot v had, or -1 if v was not interned
+     */
+    int retire(V v) {
+        Integer slot = slots.remove(v);
+        if (slot == null) {
+            return -1;
+        }
+        vertices.set(slot, null);
+        return slot;
+    }
+
+    /**
+     * Turn a tombstone into a free slot, handed to the next interned vertex
+     *
+     * @param slot a tombstone left by retire()
+     */
+    void reclaim(int slot) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = slot;
+    }
+
+    /**
+     * Renumber the interned vertices densely, keeping their order,
+     * so that there are no free slots or tombstones left
+     *
+     * @return for each old slot, the new slot of its vertex or -1 if it had none
+     */
+    int[] compact() {
+        int[] moved = new int[vertices.size()];
+        int size = 0;
+        for (int i = 0; i < moved.length; i++) {
+            V v = vertices.get(i);
+            if (v == null) {
+                moved[i] = -1;
+            } else {
+                moved[i] = size;
+                vertices.set(size, v);
+                slots.put(v, size);
+                size++;
+            }
+        }
+        vertices.subList(size, moved.length).clear();
+        freeCount = 0;
+        return moved;
+    }
+
+    /**
+     * Obtain the slot of a vertex
+     *
+     * @param v the vertex of interest
+     * @return the slot of v, or -1 if v is not interned
+     */
+    int indexOf(V v) {
+        Integer slot = slots.get(v);
+        return slot == null ? -1 : slot;
+    }
+
+    /**
+     * Check if a vertex is interned
+     */
+    boolean contains(V v) {
+        return slots.containsKey(v);
+    }
+
+    /**
+     * Obtain the vertex in a slot
+     *
+     * @param slot a slot, 0 <= slot < capacity()
+     * @return the vertex in slot, or null if the slot is free
+     */
+    V vertexAt(int slot) {
+        return vertices.get(slot);
+    }
+
+    /**
+     * Obtain the number of interned vertices
+     */
+    int size() {
+        return slots.size();
+    }
+
+    /**
+     * Obtain the number of slots in use or free, every slot is below it
+     */
+    int capacity() {
+        return vertices.size();
+    }
+
+    /**
+     * Obtain the interned vertices
+     *
+     * @return an unmodifiable live view of the interned vertices
+     */
+    Set<V> vertices() {
+        return Collections.unmodifiableSet(slots.keySet());
+    }
+}
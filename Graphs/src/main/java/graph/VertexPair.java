@@ -0,0 +1,29 @@
+package graph;
+
+/**
+ * The unordered pair of end points of an edge, used as the key of edge indexes
+ */
+final class VertexPair<V extends Vertex> {
+    private final V v1;
+    private final V v2;
+
+    VertexPair(V v1, V v2) {
+        this.v1 = v1;
+        this.v2 = v2;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof VertexPair<?>) {
+            VertexPair<?> other = (VertexPair<?>) o;
+            return (v1.equals(other.v1) && v2.equals(other.v2))
+                    || (v1.equals(other.v2) && v2.equals(other.v1));
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return v1.hashCode() + v2.hashCode();
+    }
+}
@@ -0,0 +1,43 @@
+package graph;
+
+/**
+ * How a CompactAMGraph stores edge lengths. Narrower encodings take less memory
+ * and reject edges whose length does not fit.
+ */
+public enum WeightEncoding {
+    /**
+     * Store no lengths, every edge has length 1 as built by new Edge(v1, v2)
+     */
+    UNIT(1),
+
+    /**
+     * One byte per vertex pair, lengths in [0, 255]
+     */
+    BYTE(0xFF),
+
+    /**
+     * Two bytes per vertex pair, lengths in [0, 65535]
+     */
+    SHORT(0xFFFF),
+
+    /**
+     * Four bytes per vertex pair, any edge length
+     */
+    INT(Integer.MAX_VALUE);
+
+    private final int maxLength;
+
+    WeightEncoding(int maxLength) {
+        this.maxLength = maxLength;
+    }
+
+    /**
+     * Check if an edge length can be stored with this encoding
+     *
+     * @param length a non negative edge length
+     * @return true if length can be stored and false otherwise
+     */
+    public boolean fits(int length) {
+        return this == UNIT ? length == 1 : length <= maxLength;
+    }
+}
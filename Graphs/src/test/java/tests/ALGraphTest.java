@@ -4,6 +4,8 @@ import graph.*;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 
+import java.util.*;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ALGraphTest {
@@ -47,4 +49,65 @@ public class ALGraphTest {
         //assertTrue();
 
     }
+
+    @Test
+    public void testEdgeIndexAfterRemovals() {
+        ALGraph<Vertex, Edge<Vertex>> graph = new ALGraph<>();
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addEdge(new Edge<>(v1, v2, 5));
+        graph.addEdge(new Edge<>(v2, v3, 7));
+
+        assertTrue(graph.edge(v2, v1));
+        assertFalse(graph.addEdge(new Edge<>(v2, v1, 4)));
+        assertEquals(5, graph.edgeLength(v2, v1));
+
+        assertTrue(graph.remove(new Edge<>(v2, v1)));
+        assertFalse(graph.edge(v1, v2));
+        assertEquals(-1, graph.edgeLength(v1, v2));
+        assertEquals(7, graph.edgeLengthSum());
+
+        assertTrue(graph.remove(v3));
+        assertFalse(graph.edge(v2, v3));
+        assertEquals(0, graph.allEdges().size());
+        assertEquals(0, graph.allEdges(v2).size());
+
+        assertTrue(graph.addEdge(new Edge<>(v1, v2, 4)));
+        assertEquals(4, graph.edgeLength(v1, v2));
+    }
+
+    @Test
+    public void testReadModes() {
+        ALGraph<Vertex, Edge<Vertex>> view = new ALGraph<>();
+        ALGraph<Vertex, Edge<Vertex>> copy = new ALGraph<>(ReadMode.COPY);
+        for (ALGraph<Vertex, Edge<Vertex>> graph : List.of(view, copy)) {
+            graph.addVertex(v1);
+            graph.addVertex(v2);
+            graph.addEdge(new Edge<>(v1, v2, 5));
+        }
+
+        Set<Edge<Vertex>> edges = view.allEdges();
+        assertThrows(UnsupportedOperationException.class, () -> edges.remove(new Edge<>(v1, v2)));
+        assertThrows(UnsupportedOperationException.class, () -> view.allVertices().add(v3));
+        assertThrows(UnsupportedOperationException.class, () -> view.getNeighbours(v1).remove(v2));
+        assertEquals(new Edge<>(v1, v2), view.getNeighbours(v1).get(v2));
+        assertTrue(view.allEdges(v2).contains(new Edge<>(v2, v1)));
+
+        view.remove(new Edge<>(v1, v2));
+        assertTrue(edges.isEmpty());
+
+        Set<Edge<Vertex>> incident = view.allEdges(v3);
+        Map<Vertex, Edge<Vertex>> neighbours = view.getNeighbours(v3);
+        assertTrue(incident.isEmpty());
+        view.addVertex(v3);
+        view.addEdge(new Edge<>(v1, v3, 2));
+        assertTrue(incident.contains(new Edge<>(v3, v1)));
+        assertEquals(1, neighbours.size());
+        assertEquals(2, neighbours.get(v1).length());
+
+        Set<Edge<Vertex>> copied = copy.allEdges();
+        assertTrue(copied.remove(new Edge<>(v1, v2)));
+        assertTrue(copy.edge(v1, v2));
+    }
 }
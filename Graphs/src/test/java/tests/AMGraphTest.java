@@ -2,6 +2,7 @@ package tests;
 
 import graph.*;
 import org.junit.jupiter.api.*;
+import java.time.Duration;
 import java.util.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -107,4 +108,110 @@ class AMGraphTest {
         assertTrue(allVertices.contains(v2));
         assertTrue(allVertices.contains(v3));
     }
+
+    @Test
+    void testRemoveVertexRecyclesSlot() {
+        AMGraph<Vertex, Edge<Vertex>> graph = new AMGraph<>(3);
+        graph.addVertex(v1);
+        graph.addVertex(v2);
+        graph.addVertex(v3);
+        graph.addEdge(new Edge<>(v1, v2, 1));
+        graph.addEdge(new Edge<>(v2, v3, 2));
+        assertFalse(graph.addVertex(v4));
+
+        assertTrue(graph.remove(v2));
+        assertFalse(graph.remove(v2));
+        assertFalse(graph.vertex(v2));
+        assertEquals(0, graph.edgeLengthSum());
+        assertTrue(graph.allEdges().isEmpty());
+
+        /* v4 takes the slot v2 left behind and must not inherit its edges */
+        assertTrue(graph.addVertex(v4));
+        assertFalse(graph.edge(v4, v1));
+        assertFalse(graph.edge(v4, v3));
+        assertTrue(graph.addEdge(new Edge<>(v4, v3, 5)));
+        assertEquals(5, graph.edgeLength(v3, v4));
+        assertEquals(Set.of(v1, v3, v4), graph.allVertices());
+        assertEquals(Set.of(v3), graph.getNeighbours(v4).keySet());
+        assertEquals(-1, graph.edgeLength(v2, v3));
+    }
+
+    @Test
+    void testGrowableMatchesALGraph() {
+        Random rng = new Random(13);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+        }
+        ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        AMGraph<Vertex, Edge<Vertex>> graph = new AMGraph<>();
+
+        for (int step = 0; step < 4000; step++) {
+            Vertex a = vertices.get(rng.nextInt(vertices.size()));
+            Vertex b = vertices.get(rng.nextInt(vertices.size()));
+            int action = rng.nextInt(20);
+            if (action < 6) {
+                assertEquals(expected.addVertex(a), graph.addVertex(a));
+            } else if (action < 14 && !a.equals(b)) {
+                Edge<Vertex> e = new Edge<>(a, b, rng.nextInt(50));
+                assertEquals(expected.addEdge(e), graph.addEdge(e));
+            } else if (action < 17 && expected.edge(a, b)) {
+                Edge<Vertex> e = new Edge<>(a, b, expected.edgeLength(a, b));
+                assertEquals(expected.remove(e), graph.remove(e));
+            } else if (action < 19) {
+                assertEquals(expected.remove(a), graph.remove(a));
+            } else {
+                graph.compact();
+            }
+            assertEquals(expected.edge(a, b), graph.edge(a, b));
+            assertEquals(expected.edgeLength(a, b), graph.edgeLength(a, b));
+
+            if (step % 100 == 0) {
+                assertEquals(expected.allVertices(), graph.allVertices());
+                assertEquals(expected.allEdges(), graph.allEdges());
+                assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+                for (Vertex v : expected.allVertices()) {
+                    assertEquals(expected.getNeighbours(v), graph.getNeighbours(v));
+                }
+            }
+        }
+    }
+
+    @Test
+    void testChurnDoesNotRebuildTheMatrix() {
+        /* a full matrix rebuild on every add takes tens of seconds here, growing and reusing slots takes milliseconds */
+        for (AMGraph<Vertex, Edge<Vertex>> graph : List.of(new AMGraph<Vertex, Edge<Vertex>>(), new AMGraph<Vertex, Edge<Vertex>>(2048))) {
+            ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+            Deque<Vertex> live = new ArrayDeque<>();
+            for (int i = 0; i < 2048; i++) {
+                Vertex v = new Vertex(i, "v" + i);
+                graph.addVertex(v);
+                expected.addVertex(v);
+                if (!live.isEmpty()) {
+                    Edge<Vertex> e = new Edge<>(live.peekLast(), v, i % 7);
+                    graph.addEdge(e);
+                    expected.addEdge(e);
+                }
+                live.addLast(v);
+            }
+
+            assertTimeout(Duration.ofSeconds(5), () -> {
+                for (int i = 2048; i < 4048; i++) {
+                    Vertex removed = live.pollFirst();
+                    assertTrue(graph.remove(removed));
+                    expected.remove(removed);
+                    Vertex v = new Vertex(i, "v" + i);
+                    Edge<Vertex> e = new Edge<>(live.peekLast(), v, i % 7);
+                    assertTrue(graph.addVertex(v));
+                    expected.addVertex(v);
+                    assertTrue(graph.addEdge(e));
+                    expected.addEdge(e);
+                    live.addLast(v);
+                }
+            });
+            assertEquals(expected.allVertices(), graph.allVertices());
+            assertEquals(expected.allEdges(), graph.allEdges());
+            assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+        }
+    }
 }
@@ -0,0 +1,108 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AStarTest {
+
+    @Test
+    void testSettlesFewerVerticesOnASpatialGraph() {
+        Random rng = new Random(24);
+        int count = 3000;
+        double[][] coordinates = new double[count][];
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            coordinates[i] = new double[]{rng.nextDouble() * 1000, rng.nextDouble() * 1000};
+            Vertex v = new Vertex(i, "p" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        /* connect each point to the points around it, edges are never shorter than the straight line */
+        for (int i = 0; i < count; i++) {
+            for (int j = i + 1; j < count; j++) {
+                double dx = coordinates[i][0] - coordinates[j][0];
+                double dy = coordinates[i][1] - coordinates[j][1];
+                double distance = Math.sqrt(dx * dx + dy * dy);
+                if (distance < 40) {
+                    int length = (int) Math.ceil(distance) + rng.nextInt(5);
+                    graph.addEdge(new Edge<>(vertices.get(i), vertices.get(j), length));
+                }
+            }
+        }
+
+        Heuristic<Vertex> euclidean = Heuristic.euclidean(id -> coordinates[id]);
+        DijkstraEngine<Vertex, Edge<Vertex>> dijkstra = new DijkstraEngine<>(graph);
+        DijkstraEngine<Vertex, Edge<Vertex>> aStar = new DijkstraEngine<>(graph);
+        aStar.setVerifyHeuristic(true);
+        long dijkstraSettled = 0;
+        long aStarSettled = 0;
+        for (int i = 0; i < 40; i++) {
+            Vertex source = vertices.get(rng.nextInt(count));
+            Vertex sink = vertices.get(rng.nextInt(count));
+            List<Vertex> expected = dijkstra.shortestPath(source, sink);
+            List<Vertex> actual = aStar.shortestPath(source, sink, euclidean);
+            assertEquals(expected.isEmpty(), actual.isEmpty());
+            assertEquals(graph.pathLength(expected), graph.pathLength(actual));
+            dijkstraSettled += dijkstra.settledVertices();
+            aStarSettled += aStar.settledVertices();
+        }
+        assertTrue(aStarSettled * 5 < dijkstraSettled, aStarSettled + " vs " + dijkstraSettled);
+
+        graph.setHeuristic(euclidean, true);
+        Vertex source = vertices.get(0);
+        Vertex sink = vertices.get(1);
+        assertEquals(graph.pathLength(dijkstra.shortestPath(source, sink)),
+                graph.pathLength(graph.shortestPath(source, sink)));
+    }
+
+    @Test
+    void testVerifiesConsistency() {
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        for (Vertex v : List.of(a, b, c)) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(new Edge<>(a, b, 1));
+        graph.addEdge(new Edge<>(b, c, 1));
+        graph.addEdge(new Edge<>(a, c, 5));
+        Heuristic<Vertex> overestimate = (v, sink) -> v.equals(b) ? 10 : 0;
+
+        graph.setHeuristic(overestimate, false);
+        assertEquals(List.of(a, c), graph.shortestPath(a, c));
+        graph.setHeuristic(overestimate, true);
+        assertThrows(IllegalStateException.class, () -> graph.shortestPath(a, c));
+        graph.setHeuristic((v, sink) -> 1, true);
+        assertThrows(IllegalStateException.class, () -> graph.shortestPath(a, c));
+
+        graph.setHeuristic((v, sink) -> 0, true);
+        assertEquals(List.of(a, b, c), graph.shortestPath(a, c));
+        assertEquals(List.of(a), graph.shortestPath(a, a));
+        graph.setHeuristic(null, false);
+        assertEquals(List.of(a, b, c), graph.shortestPath(a, c));
+    }
+
+    @Test
+    void testSaturatesLargeEstimates() {
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        Vertex d = new Vertex(4, "d");
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        for (Vertex v : List.of(a, b, c, d)) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(new Edge<>(a, b, 1));
+        graph.addEdge(new Edge<>(b, c, 1));
+        graph.addEdge(new Edge<>(a, d, 1));
+
+        /* d is a dead end, a key that wrapped around would settle it before anything else */
+        DijkstraEngine<Vertex, Edge<Vertex>> aStar = new DijkstraEngine<>(graph);
+        assertEquals(List.of(a, b, c), aStar.shortestPath(a, c, (v, sink) -> v.equals(d) ? Integer.MAX_VALUE : 0));
+        assertEquals(3, aStar.settledVertices());
+    }
+}
@@ -0,0 +1,88 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class BidirectionalSearchTest {
+
+    @Test
+    void testMatchesUnidirectionalSearch() {
+        Random rng = new Random(23);
+        ALGraph<Vertex, Edge<Vertex>> graph = new ALGraph<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < 700; i++) {
+            Vertex v = vertices.get(rng.nextInt(vertices.size()));
+            Vertex w = vertices.get(rng.nextInt(vertices.size()));
+            if (!v.equals(w)) {
+                graph.addEdge(new Edge<>(v, w, rng.nextInt(20)));
+            }
+        }
+
+        DijkstraEngine<Vertex, Edge<Vertex>> forward = new DijkstraEngine<>(graph);
+        DijkstraEngine<Vertex, Edge<Vertex>> both = new DijkstraEngine<>(graph, PathSearch.BIDIRECTIONAL);
+        for (int i = 0; i < 500; i++) {
+            Vertex source = vertices.get(rng.nextInt(vertices.size()));
+            Vertex sink = vertices.get(rng.nextInt(vertices.size()));
+            List<Vertex> expected = forward.shortestPath(source, sink);
+            List<Vertex> actual = both.shortestPath(source, sink);
+            assertEquals(expected.isEmpty(), actual.isEmpty());
+            assertEquals(length(graph, expected), length(graph, actual));
+            if (!actual.isEmpty()) {
+                assertEquals(source, actual.get(0));
+                assertEquals(sink, actual.get(actual.size() - 1));
+            }
+        }
+        assertEquals(List.of(vertices.get(5)), both.shortestPath(vertices.get(5), vertices.get(5)));
+        assertEquals(List.of(), both.shortestPath(vertices.get(5), new Vertex(1000, "missing")));
+    }
+
+    @Test
+    void testSettlesFewerVertices() {
+        Random rng = new Random(230);
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < 15000; i++) {
+            Vertex v = vertices.get(rng.nextInt(vertices.size()));
+            Vertex w = vertices.get(rng.nextInt(vertices.size()));
+            if (!v.equals(w)) {
+                graph.addEdge(new Edge<>(v, w, 1 + rng.nextInt(100)));
+            }
+        }
+
+        DijkstraEngine<Vertex, Edge<Vertex>> forward = new DijkstraEngine<>(graph);
+        DijkstraEngine<Vertex, Edge<Vertex>> both = new DijkstraEngine<>(graph, PathSearch.BIDIRECTIONAL);
+        long forwardSettled = 0;
+        long bothSettled = 0;
+        graph.setPathSearch(PathSearch.BIDIRECTIONAL);
+        for (int i = 0; i < 50; i++) {
+            Vertex source = vertices.get(rng.nextInt(vertices.size()));
+            Vertex sink = vertices.get(rng.nextInt(vertices.size()));
+            List<Vertex> expected = forward.shortestPath(source, sink);
+            assertEquals(graph.pathLength(expected), graph.pathLength(both.shortestPath(source, sink)));
+            assertEquals(graph.pathLength(expected), graph.pathLength(graph.shortestPath(source, sink)));
+            forwardSettled += forward.settledVertices();
+            bothSettled += both.settledVertices();
+        }
+        assertTrue(bothSettled * 4 < forwardSettled, bothSettled + " vs " + forwardSettled);
+    }
+
+    private static int length(ALGraph<Vertex, Edge<Vertex>> graph, List<Vertex> path) {
+        int length = 0;
+        for (int i = 0; i + 1 < path.size(); i++) {
+            length += graph.edgeLength(path.get(i), path.get(i + 1));
+        }
+        return length;
+    }
+}
@@ -0,0 +1,114 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactAMGraphTest {
+
+    Vertex v1 = new Vertex(1, "v1");
+    Vertex v2 = new Vertex(2, "v2");
+    Vertex v3 = new Vertex(3, "v3");
+    Vertex v4 = new Vertex(4, "v4");
+
+    @Test
+    void testBasicOperations() {
+        CompactAMGraph<Vertex, Edge<Vertex>> graph = new CompactAMGraph<>(3);
+        assertTrue(graph.addVertex(v1));
+        assertTrue(graph.addVertex(v2));
+        assertTrue(graph.addVertex(v3));
+        assertFalse(graph.addVertex(v4));
+        assertFalse(graph.addVertex(v1));
+
+        Edge<Vertex> e1 = new Edge<>(v1, v2, 7);
+        Edge<Vertex> e2 = new Edge<>(v3, v2, 100_000);
+        assertTrue(graph.addEdge(e1));
+        assertTrue(graph.addEdge(e2));
+        assertFalse(graph.addEdge(new Edge<>(v2, v1, 3)));
+        assertFalse(graph.addEdge(new Edge<>(v1, v4, 3)));
+
+        assertTrue(graph.edge(e1));
+        assertFalse(graph.edge(new Edge<>(v1, v2, 3)));
+        assertTrue(graph.edge(v2, v1));
+        assertFalse(graph.edge(v1, v3));
+        assertEquals(100_000, graph.edgeLength(v2, v3));
+        assertEquals(-1, graph.edgeLength(v1, v3));
+        assertEquals(100_007, graph.edgeLengthSum());
+        assertEquals(Set.of(e1, e2), graph.allEdges());
+        assertEquals(Set.of(v1, v3), graph.getNeighbours(v2).keySet());
+        assertThrows(UnsupportedOperationException.class, () -> graph.allEdges().clear());
+
+        assertTrue(graph.remove(v2));
+        assertTrue(graph.allEdges().isEmpty());
+        assertEquals(0, graph.edgeLengthSum());
+        assertTrue(graph.addVertex(v4));
+        assertTrue(graph.getNeighbours(v4).isEmpty());
+    }
+
+    @Test
+    void testEncodingsRejectLengthsThatDoNotFit() {
+        CompactAMGraph<Vertex, Edge<Vertex>> unit = new CompactAMGraph<>(4, WeightEncoding.UNIT);
+        CompactAMGraph<Vertex, Edge<Vertex>> bytes = new CompactAMGraph<>(4, WeightEncoding.BYTE);
+        CompactAMGraph<Vertex, Edge<Vertex>> shorts = new CompactAMGraph<>(4, WeightEncoding.SHORT);
+        for (CompactAMGraph<Vertex, Edge<Vertex>> graph : List.of(unit, bytes, shorts)) {
+            graph.addVertex(v1);
+            graph.addVertex(v2);
+            graph.addVertex(v3);
+        }
+
+        assertTrue(unit.addEdge(new Edge<>(v1, v2)));
+        assertFalse(unit.addEdge(new Edge<>(v1, v3, 2)));
+        assertEquals(1, unit.edgeLength(v1, v2));
+
+        assertTrue(bytes.addEdge(new Edge<>(v1, v2, 255)));
+        assertFalse(bytes.addEdge(new Edge<>(v1, v3, 256)));
+        assertEquals(255, bytes.edgeLength(v2, v1));
+
+        assertTrue(shorts.addEdge(new Edge<>(v1, v2, 65535)));
+        assertFalse(shorts.addEdge(new Edge<>(v1, v3, 65536)));
+        assertEquals(65535, shorts.edgeLength(v2, v1));
+    }
+
+    @Test
+    void testMatchesALGraph() {
+        /* 150 vertices span three words per bitset row */
+        Random rng = new Random(12);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+        }
+        for (WeightEncoding encoding : List.of(WeightEncoding.BYTE, WeightEncoding.SHORT, WeightEncoding.INT)) {
+            ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+            CompactAMGraph<Vertex, Edge<Vertex>> graph = new CompactAMGraph<>(vertices.size(), encoding);
+            vertices.forEach(expected::addVertex);
+            vertices.forEach(graph::addVertex);
+
+            for (int step = 0; step < 3000; step++) {
+                Vertex a = vertices.get(rng.nextInt(vertices.size()));
+                Vertex b = vertices.get(rng.nextInt(vertices.size()));
+                int action = rng.nextInt(20);
+                if (action < 14 && !a.equals(b)) {
+                    Edge<Vertex> e = new Edge<>(a, b, rng.nextInt(256));
+                    assertEquals(expected.addEdge(e), graph.addEdge(e));
+                } else if (action < 18 && expected.edge(a, b)) {
+                    Edge<Vertex> e = new Edge<>(a, b, expected.edgeLength(a, b));
+                    assertEquals(expected.remove(e), graph.remove(e));
+                } else if (action == 18) {
+                    assertEquals(expected.remove(a), graph.remove(a));
+                } else {
+                    assertEquals(expected.addVertex(a), graph.addVertex(a));
+                }
+                assertEquals(expected.edgeLength(a, b), graph.edgeLength(a, b));
+            }
+
+            assertEquals(expected.allVertices(), graph.allVertices());
+            assertEquals(expected.allEdges(), graph.allEdges());
+            assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+            for (Vertex v : expected.allVertices()) {
+                assertEquals(expected.getNeighbours(v), graph.getNeighbours(v));
+                assertEquals(expected.allEdges(v), graph.allEdges(v));
+            }
+        }
+    }
+}
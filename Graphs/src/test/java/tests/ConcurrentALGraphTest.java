@@ -0,0 +1,122 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentALGraphTest {
+
+    @Test
+    void testMatchesALGraph() {
+        Random rng = new Random(16);
+        List<Vertex> vertices = new ArrayList<>();
+        ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        ConcurrentALGraph<Vertex, Edge<Vertex>> graph = new ConcurrentALGraph<>(4);
+        for (int i = 0; i < 60; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            assertEquals(expected.addVertex(v), graph.addVertex(v));
+        }
+        for (int i = 0; i < 2000; i++) {
+            Vertex a = vertices.get(rng.nextInt(vertices.size()));
+            Vertex b = vertices.get(rng.nextInt(vertices.size()));
+            int op = rng.nextInt(10);
+            if (op == 0) {
+                assertEquals(expected.remove(a), graph.remove(a));
+                assertEquals(expected.addVertex(a), graph.addVertex(a));
+            } else if (a.equals(b)) {
+                continue;
+            } else if (op < 4) {
+                Edge<Vertex> e = new Edge<>(a, b, rng.nextInt(9));
+                assertEquals(expected.remove(e), graph.remove(e));
+            } else {
+                Edge<Vertex> e = new Edge<>(a, b, rng.nextInt(9));
+                assertEquals(expected.addEdge(e), graph.addEdge(e));
+            }
+        }
+
+        assertEquals(expected.allVertices(), graph.allVertices());
+        assertEquals(expected.allEdges(), graph.allEdges());
+        assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+        for (Vertex v : vertices) {
+            assertEquals(expected.getNeighbours(v), graph.getNeighbours(v));
+            for (Vertex w : vertices) {
+                assertEquals(expected.edgeLength(v, w), graph.edgeLength(v, w));
+            }
+        }
+    }
+
+    @Test
+    void testConcurrentMutationKeepsEdgesSymmetric() throws Exception {
+        int threads = 4;
+        int perThread = 50;
+        ConcurrentALGraph<Vertex, Edge<Vertex>> graph = new ConcurrentALGraph<>(8);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < threads * perThread; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads + 1);
+        AtomicBoolean done = new AtomicBoolean();
+        try {
+            Future<?> reader = pool.submit(() -> {
+                while (!done.get()) {
+                    for (Vertex v : vertices) {
+                        graph.forEachNeighbour(v, (w, e) -> {
+                            assertNotNull(w);
+                            assertTrue(e.v1().equals(v) || e.v2().equals(v));
+                        });
+                    }
+                }
+            });
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                long seed = t;
+                writers.add(pool.submit(() -> {
+                    Random rng = new Random(seed);
+                    for (int i = 0; i < 5000; i++) {
+                        Vertex a = vertices.get(rng.nextInt(vertices.size()));
+                        Vertex b = vertices.get(rng.nextInt(vertices.size()));
+                        if (rng.nextInt(50) == 0) {
+                            graph.remove(a);
+                            graph.addVertex(a);
+                        } else if (!a.equals(b)) {
+                            Edge<Vertex> e = new Edge<>(a, b, 1 + rng.nextInt(5));
+                            if (rng.nextBoolean()) {
+                                graph.addEdge(e);
+                            } else {
+                                graph.remove(e);
+                            }
+                        }
+                    }
+                }));
+            }
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+            done.set(true);
+            reader.get(30, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        int sum = 0;
+        for (Edge<Vertex> e : graph.allEdges()) {
+            assertTrue(graph.allEdges(e.v1()).contains(e));
+            assertTrue(graph.allEdges(e.v2()).contains(e));
+            assertSame(e, graph.getEdge(e.v2(), e.v1()));
+            sum += e.length();
+        }
+        int degrees = 0;
+        for (Vertex v : vertices) {
+            degrees += graph.allEdges(v).size();
+        }
+        assertEquals(2 * graph.allEdges().size(), degrees);
+        assertEquals(sum, graph.edgeLengthSum());
+    }
+}
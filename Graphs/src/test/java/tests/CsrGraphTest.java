@@ -0,0 +1,145 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CsrGraphTest {
+    private static Vertex a = new Vertex(1, "A");
+    private static Vertex b = new Vertex(2, "B");
+    private static Vertex c = new Vertex(3, "C");
+    private static Vertex d = new Vertex(4, "D");
+    private static Vertex e = new Vertex(5, "E");
+    private static Vertex f = new Vertex(6, "F");
+
+    /*
+     *  A --5-- B --7-- C        F
+     *  |               |
+     *  9               1
+     *  |               |
+     *  D ------3------ E
+     */
+    private static Graph<Vertex, Edge<Vertex>> source() {
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        List.of(a, b, c, d, e, f).forEach(g::addVertex);
+        g.addEdge(new Edge<>(a, b, 5));
+        g.addEdge(new Edge<>(b, c, 7));
+        g.addEdge(new Edge<>(a, d, 9));
+        g.addEdge(new Edge<>(d, e, 3));
+        g.addEdge(new Edge<>(c, e, 1));
+        return g;
+    }
+
+    @Test
+    public void testReadMethods() {
+        CsrGraph<Vertex, Edge<Vertex>> g = new CsrGraph<>(source());
+        assertEquals(6, g.vertexCount());
+        assertEquals(5, g.edgeCount());
+        assertEquals(25, g.edgeLengthSum());
+        assertTrue(g.edge(e, c));
+        assertFalse(g.edge(a, c));
+        assertEquals(9, g.edgeLength(d, a));
+        assertEquals(-1, g.edgeLength(a, f));
+        assertEquals(source().allEdges(), g.allEdges());
+        assertEquals(Set.of(a, c), g.getNeighbours(b).keySet());
+        assertEquals(new Edge<>(a, d), g.getEdge(d, a));
+        assertNull(g.getEdge(a, f));
+        assertThrows(UnsupportedOperationException.class, () -> g.addVertex(new Vertex(7, "G")));
+    }
+
+    @Test
+    public void testShortestPath() {
+        CsrGraph<Vertex, Edge<Vertex>> g = new CsrGraph<>(source());
+        assertEquals(List.of(a, b, c), g.shortestPath(a, c));
+        assertEquals(12, g.pathLength(g.shortestPath(a, c)));
+        assertEquals(List.of(d, e, c, b), g.shortestPath(d, b));
+        assertTrue(g.shortestPath(a, f).isEmpty());
+        assertEquals(List.of(f), g.shortestPath(f, f));
+    }
+
+    @Test
+    public void testRangeNeighbours() {
+        CsrGraph<Vertex, Edge<Vertex>> g = new CsrGraph<>(source());
+        Map<Vertex, Edge<Vertex>> neighbours = g.getNeighbours(a, 12);
+        assertEquals(Set.of(b, c, d, e), neighbours.keySet());
+        assertEquals(new Edge<>(b, c), neighbours.get(c));
+        assertEquals(new Edge<>(d, e), neighbours.get(e));
+        assertEquals(Set.of(b), g.getNeighbours(a, 5).keySet());
+    }
+
+    @Test
+    public void testDiameterAndCenter() {
+        CsrGraph<Vertex, Edge<Vertex>> g = new CsrGraph<>(source());
+        assertEquals(12, g.diameter());
+        assertEquals(b, g.getCenter());
+    }
+
+    @Test
+    public void testBoundedEccentricities() {
+        for (long seed = 0; seed < 20; seed++) {
+            Random rng = new Random(seed);
+            Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+            int numVertices = 60;
+            Vertex[] vertices = new Vertex[numVertices];
+            for (int i = 0; i < numVertices; i++) {
+                vertices[i] = new Vertex(i, Integer.toString(i));
+                g.addVertex(vertices[i]);
+            }
+            for (int i = 0; i < numVertices * 2; i++) {
+                int i1 = rng.nextInt(numVertices);
+                int i2 = rng.nextInt(numVertices);
+                if (i1 != i2) {
+                    g.addEdge(new Edge<>(vertices[i1], vertices[i2], rng.nextInt(20) + 1));
+                }
+            }
+
+            CsrGraph<Vertex, Edge<Vertex>> csr = new CsrGraph<>(g);
+            Map<Vertex, Integer> eccentricities = new EccentricityEngine<>(csr).eccentricities();
+            int diameter = Collections.max(eccentricities.values());
+            int radius = Collections.min(eccentricities.values());
+            Vertex center = eccentricities.entrySet().stream()
+                    .filter(entry -> entry.getValue() == radius)
+                    .map(Map.Entry::getKey)
+                    .min(Comparator.comparingInt(Vertex::id))
+                    .get();
+
+            EccentricityEngine<Vertex, Edge<Vertex>> bounded = new EccentricityEngine<>(csr);
+            assertEquals(diameter, bounded.diameter());
+            assertEquals(center, bounded.center());
+            assertTrue(bounded.searches() <= 2 * eccentricities.size());
+
+            ForkJoinPool pool = new ForkJoinPool(4);
+            try {
+                EccentricityEngine<Vertex, Edge<Vertex>> parallel = new EccentricityEngine<>(csr, pool);
+                assertEquals(eccentricities, parallel.eccentricities());
+                assertEquals(diameter, parallel.diameter());
+                assertEquals(center, parallel.center());
+                assertEquals(diameter, g.diameter(pool));
+                assertEquals(center, g.getCenter(pool));
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    @Test
+    public void testMinimumSpanningComponents() {
+        CsrGraph<Vertex, Edge<Vertex>> g = new CsrGraph<>(source());
+        assertNull(g.minimumSpanningComponents(1));
+
+        Set<ImGraph<Vertex, Edge<Vertex>>> msc = g.minimumSpanningComponents(2);
+        assertEquals(2, msc.size());
+        for (ImGraph<Vertex, Edge<Vertex>> component : msc) {
+            Graph<Vertex, Edge<Vertex>> gr = (Graph<Vertex, Edge<Vertex>>) component;
+            if (gr.vertex(a)) {
+                assertEquals(Set.of(new Edge<>(a, b), new Edge<>(b, c), new Edge<>(c, e), new Edge<>(d, e)),
+                        gr.allEdges());
+            } else {
+                assertEquals(Set.of(f), gr.allVertices());
+            }
+        }
+        assertEquals(6, g.minimumSpanningComponents(6).size());
+    }
+}
@@ -0,0 +1,107 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DynamicShortestPathsTest {
+
+    @Test
+    void testRepairsOnlyTheAffectedSubtree() {
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        List<Vertex> chain = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            chain.add(v);
+            graph.addVertex(v);
+            if (i > 0) {
+                graph.addEdge(new Edge<>(chain.get(i - 1), v, 1));
+            }
+        }
+        Vertex head = chain.get(0);
+        Vertex tail = chain.get(99);
+        DynamicShortestPaths<Vertex, Edge<Vertex>> paths = graph.dynamicShortestPaths();
+        assertTrue(paths.register(head));
+        assertFalse(paths.register(head));
+        assertFalse(paths.register(new Vertex(500, "missing")));
+        assertEquals(99, paths.distance(head, tail));
+        assertEquals(100, paths.updatedVertices());
+
+        graph.addEdge(new Edge<>(chain.get(90), chain.get(95), 1));
+        assertEquals(95, paths.distance(head, tail));
+        assertEquals(106, paths.updatedVertices());
+
+        graph.remove(new Edge<>(chain.get(97), chain.get(98)));
+        assertEquals(Integer.MAX_VALUE, paths.distance(head, tail));
+        assertEquals(List.of(), graph.shortestPath(head, tail));
+        assertEquals(106, paths.updatedVertices());
+
+        graph.remove(new Edge<>(chain.get(91), chain.get(92)));
+        assertEquals(94, paths.distance(head, chain.get(92)));
+        assertEquals(List.of(chain.get(90), chain.get(95), chain.get(94), chain.get(93), chain.get(92)),
+                graph.shortestPath(head, chain.get(92)).subList(90, 95));
+        assertEquals(108, paths.updatedVertices());
+
+        assertThrows(IllegalArgumentException.class, () -> paths.distance(tail, head));
+        graph.remove(head);
+        assertTrue(paths.sources().isEmpty());
+    }
+
+    @Test
+    void testMatchesDijkstraUnderRandomEdits() {
+        Random rng = new Random(22);
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 80; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < 160; i++) {
+            addRandomEdge(graph, vertices, rng);
+        }
+        DynamicShortestPaths<Vertex, Edge<Vertex>> paths = graph.dynamicShortestPaths();
+        List<Vertex> sources = vertices.subList(0, 4);
+        for (Vertex source : sources) {
+            paths.register(source);
+        }
+
+        for (int step = 0; step < 600; step++) {
+            int action = rng.nextInt(10);
+            if (action < 5) {
+                addRandomEdge(graph, vertices, rng);
+            } else if (action < 9) {
+                List<Edge<Vertex>> edges = new ArrayList<>(graph.allEdges());
+                if (!edges.isEmpty()) {
+                    graph.remove(edges.get(rng.nextInt(edges.size())));
+                }
+            } else {
+                Vertex v = vertices.get(4 + rng.nextInt(vertices.size() - 4));
+                graph.remove(v);
+                graph.addVertex(v);
+            }
+
+            DijkstraEngine<Vertex, Edge<Vertex>> engine = new DijkstraEngine<>(graph);
+            for (Vertex source : sources) {
+                for (Vertex sink : vertices) {
+                    List<Vertex> expected = engine.shortestPath(source, sink);
+                    List<Vertex> actual = paths.shortestPath(source, sink);
+                    assertEquals(expected.isEmpty(), actual.isEmpty());
+                    assertEquals(graph.pathLength(expected), graph.pathLength(actual));
+                    if (!actual.isEmpty()) {
+                        assertEquals(graph.pathLength(actual), paths.distance(source, sink));
+                    }
+                }
+            }
+        }
+    }
+
+    private static void addRandomEdge(Graph<Vertex, Edge<Vertex>> graph, List<Vertex> vertices, Random rng) {
+        Vertex v = vertices.get(rng.nextInt(vertices.size()));
+        Vertex w = vertices.get(rng.nextInt(vertices.size()));
+        if (!v.equals(w)) {
+            graph.addEdge(new Edge<>(v, w, rng.nextInt(10)));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class EdgeListImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCountsAndSkipsBadLines() throws IOException {
+        Path file = directory.resolve("edges.txt");
+        String text = "# id1 name1 id2 name2 length\n"
+                + "1 a 2 b 5\n"
+                + "\n"
+                + "2\tb\t3\tc\t7\r\n"
+                + "3 c 3 c 1\n"
+                + "1 a 2\n"
+                + "1 a 4 d -2\n"
+                + "1 a 4 d x\n"
+                + "1 a 4 d 99999999999\n"
+                + "4 " + "d".repeat(100) + " 1 a 1\n"
+                + "  -4 é  1 a 3  ";
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        EdgeListImporter.Result result = new EdgeListImporter(64, 2, 1).importInto(file, graph);
+        assertEquals(11, result.lines());
+        assertEquals(3, result.edges());
+        assertEquals(5, result.malformedLines());
+        assertEquals(1, result.selfLoops());
+        assertTrue(result.linesPerSecond() > 0);
+
+        assertEquals(5, graph.edgeLength(new Vertex(1, "a"), new Vertex(2, "b")));
+        assertEquals(7, graph.edgeLength(new Vertex(3, "c"), new Vertex(2, "b")));
+        assertEquals(3, graph.edgeLength(new Vertex(-4, "é"), new Vertex(1, "a")));
+        assertEquals(4, graph.allVertices().size());
+    }
+
+    @Test
+    void testStreamsIntoBuilder() throws IOException {
+        Random rng = new Random(20);
+        ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            int a = rng.nextInt(500);
+            int b = rng.nextInt(500);
+            int length = rng.nextInt(1000);
+            text.append(a).append(" v").append(a).append(' ')
+                    .append(b).append(" v").append(b).append(' ').append(length).append('\n');
+            Vertex v1 = new Vertex(a, "v" + a);
+            Vertex v2 = new Vertex(b, "v" + b);
+            expected.addVertex(v1);
+            expected.addVertex(v2);
+            if (a != b) {
+                expected.addEdge(new Edge<>(v1, v2, length));
+            }
+        }
+        Path file = directory.resolve("random.txt");
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        GraphBuilder<Vertex, Edge<Vertex>> builder = new GraphBuilder<Vertex, Edge<Vertex>>(Edge::new);
+        EdgeListImporter.Result result = new EdgeListImporter(100, 64, 2).importInto(file, builder);
+        assertEquals(20000, result.lines());
+        assertEquals(0, result.malformedLines());
+        assertEquals(20000, result.edges() + result.selfLoops());
+
+        ALGraph<Vertex, Edge<Vertex>> graph = builder.buildALGraph();
+        assertEquals(expected.allEdges(), graph.allEdges());
+        assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+    }
+
+    @Test
+    void testFailingSinkLeavesChannelOpen() throws Exception {
+        Pipe pipe = Pipe.open();
+        pipe.sink().write(ByteBuffer.wrap("1 a 2 b 3\n".getBytes(StandardCharsets.UTF_8)));
+        /* the reader is left blocked on the pipe when the builder fails, end the input a little later */
+        Thread writer = new Thread(() -> {
+            try {
+                Thread.sleep(200);
+                pipe.sink().close();
+            } catch (InterruptedException | IOException e) {
+                throw new RuntimeException(e);
+            }
+        });
+        writer.start();
+
+        GraphBuilder<Vertex, Edge<Vertex>> builder = new GraphBuilder<>();
+        assertThrows(IllegalStateException.class,
+                () -> new EdgeListImporter(64, 1, 1).importInto(pipe.source(), builder));
+        assertTrue(pipe.source().isOpen());
+        assertFalse(Thread.currentThread().isInterrupted());
+        writer.join();
+        pipe.source().close();
+    }
+
+    @Test
+    void testMissingFile() {
+        assertThrows(IOException.class,
+                () -> new EdgeListImporter().importInto(directory.resolve("missing.txt"), new ALGraph<>()));
+    }
+}
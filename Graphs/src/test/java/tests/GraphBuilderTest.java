@@ -0,0 +1,78 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphBuilderTest {
+
+    @Test
+    void testRejectedCounts() {
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        GraphBuilder<Vertex, Edge<Vertex>> builder = new GraphBuilder<Vertex, Edge<Vertex>>(Edge::new)
+                .addVertices(List.of(a, b, a))
+                .addEdge(a, b, 4)
+                .addEdge(new Edge<>(b, a, 9))
+                .addEdge(c, c, 1)
+                .addEdge(b, c, 2)
+                .addEdge(c, b, 7);
+
+        assertEquals(1, builder.duplicateVertices());
+        assertEquals(1, builder.selfLoops());
+        assertEquals(2, builder.duplicateEdges());
+        assertEquals(3, builder.vertexCount());
+        assertEquals(2, builder.edgeCount());
+
+        ALGraph<Vertex, Edge<Vertex>> graph = builder.buildALGraph();
+        assertEquals(4, graph.edgeLength(a, b));
+        assertEquals(2, graph.edgeLength(c, b));
+        assertEquals(6, graph.edgeLengthSum());
+
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(a, c, -1));
+        assertThrows(IllegalStateException.class, () -> new GraphBuilder<Vertex, Edge<Vertex>>().addEdge(a, b, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.addEdge(a, c, 300).buildCompactAMGraph(WeightEncoding.BYTE));
+    }
+
+    @Test
+    void testBuildsMatchSequentialLoading() {
+        Random rng = new Random(18);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            vertices.add(new Vertex(rng.nextInt(1000), "v" + i));
+        }
+        ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        GraphBuilder<Vertex, Edge<Vertex>> builder = new GraphBuilder<Vertex, Edge<Vertex>>(Edge::new);
+        vertices.forEach(expected::addVertex);
+        builder.addVertices(vertices);
+        for (int i = 0; i < 3000; i++) {
+            Vertex a = vertices.get(rng.nextInt(vertices.size()));
+            Vertex b = vertices.get(rng.nextInt(vertices.size()));
+            int length = rng.nextInt(100);
+            if (!a.equals(b)) {
+                expected.addEdge(new Edge<>(a, b, length));
+            }
+            builder.addEdge(a, b, length);
+        }
+
+        List<MGraph<Vertex, Edge<Vertex>>> built = List.of(
+                builder.buildALGraph(),
+                builder.buildAMGraph(),
+                builder.buildCompactAMGraph(WeightEncoding.BYTE),
+                builder.buildCsrGraph());
+        for (MGraph<Vertex, Edge<Vertex>> graph : built) {
+            assertEquals(expected.allVertices(), graph.allVertices());
+            assertEquals(expected.allEdges(), graph.allEdges());
+            assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+            for (Vertex v : vertices) {
+                for (Vertex w : expected.getNeighbours(v).keySet()) {
+                    assertEquals(expected.edgeLength(v, w), graph.edgeLength(v, w));
+                }
+            }
+        }
+        assertEquals(new CsrGraph<>(expected).diameter(), builder.buildCsrGraph().diameter());
+    }
+}
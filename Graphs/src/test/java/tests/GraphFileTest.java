@@ -0,0 +1,98 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphFileTest {
+
+    @TempDir
+    Path directory;
+
+    private static Graph<Vertex, Edge<Vertex>> randomGraph(Random rng, int n, int m) {
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            // repeated ids with different names, and a name that is not ASCII
+            Vertex v = new Vertex(i / 2, i == 7 ? "søren" : "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < m; i++) {
+            Vertex a = vertices.get(rng.nextInt(n));
+            Vertex b = vertices.get(rng.nextInt(n));
+            if (!a.equals(b)) {
+                graph.addEdge(new Edge<>(a, b, rng.nextInt(50)));
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void testMappedGraphMatchesSource() throws IOException {
+        Random rng = new Random(19);
+        Graph<Vertex, Edge<Vertex>> graph = randomGraph(rng, 120, 200);
+        Path file = directory.resolve("graph.bin");
+        GraphFile.write(graph, file);
+        MappedGraph mapped = GraphFile.open(file);
+        CsrGraph<Vertex, Edge<Vertex>> expected = new CsrGraph<>(graph);
+
+        assertEquals(expected.vertexCount(), mapped.vertexCount());
+        assertEquals(expected.edgeCount(), mapped.edgeCount());
+        assertEquals(graph.allVertices(), mapped.allVertices());
+        assertEquals(graph.allEdges(), mapped.allEdges());
+        assertEquals(graph.edgeLengthSum(), mapped.edgeLengthSum());
+        assertEquals(expected.diameter(), mapped.diameter());
+        assertEquals(expected.getCenter(), mapped.getCenter());
+
+        List<Vertex> vertices = new ArrayList<>(graph.allVertices());
+        for (int i = 0; i < 50; i++) {
+            Vertex source = vertices.get(rng.nextInt(vertices.size()));
+            Vertex sink = vertices.get(rng.nextInt(vertices.size()));
+            assertEquals(graph.pathLength(expected.shortestPath(source, sink)),
+                    mapped.pathLength(mapped.shortestPath(source, sink)));
+            assertEquals(expected.getNeighbours(source, 40).keySet(), mapped.getNeighbours(source, 40).keySet());
+            assertEquals(graph.getNeighbours(source), mapped.getNeighbours(source));
+        }
+        assertFalse(mapped.vertex(new Vertex(0, "v5")));
+        assertThrows(UnsupportedOperationException.class, () -> mapped.addVertex(new Vertex(500, "x")));
+    }
+
+    @Test
+    void testWritersAgree() throws IOException {
+        Random rng = new Random(19);
+        Graph<Vertex, Edge<Vertex>> graph = randomGraph(rng, 40, 80);
+        AMGraph<Vertex, Edge<Vertex>> matrix = new AMGraph<>(40);
+        graph.allVertices().forEach(matrix::addVertex);
+        graph.allEdges().forEach(matrix::addEdge);
+
+        Path fromGraph = directory.resolve("graph.bin");
+        Path fromMatrix = directory.resolve("matrix.bin");
+        Path empty = directory.resolve("empty.bin");
+        GraphFile.write(graph, fromGraph);
+        GraphFile.write(matrix, fromMatrix);
+        GraphFile.write(new ALGraph<Vertex, Edge<Vertex>>(), empty);
+
+        assertArrayEquals(Files.readAllBytes(fromGraph), Files.readAllBytes(fromMatrix));
+        MappedGraph mapped = GraphFile.open(empty);
+        assertEquals(0, mapped.vertexCount());
+        assertNull(mapped.getCenter());
+    }
+
+    @Test
+    void testRejectsOtherFiles() throws IOException {
+        Path file = directory.resolve("other.bin");
+        Files.write(file, new byte[64]);
+        assertThrows(IOException.class, () -> GraphFile.open(file));
+
+        GraphFile.write(randomGraph(new Random(19), 10, 10), file);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 4));
+        assertThrows(IOException.class, () -> GraphFile.open(file));
+    }
+}
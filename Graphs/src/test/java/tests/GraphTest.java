@@ -142,6 +142,227 @@ public class GraphTest {
 //            Arguments.of(g4_NoEdges, g4Components, lv1.values().size())
 //        );
 //    }
+    @Test
+    public void testShortestPath() {
+        List<Vertex> expected = List.of(lv1.get("A"), lv1.get("F"), lv1.get("W"), lv1.get("X"));
+        List<Vertex> path = g3.shortestPath(lv1.get("A"), lv1.get("X"));
+        assertEquals(expected, path);
+        assertEquals(53, g3.pathLength(path));
+        assertEquals(List.of(lv1.get("A")), g3.shortestPath(lv1.get("A"), lv1.get("A")));
+    }
+
+    @Test
+    public void testShortestPathNoConnection() {
+        assertTrue(g1.shortestPath(lv0.get(0), lv0.get(2)).isEmpty());
+        assertTrue(g1.shortestPath(lv0.get(0), new Vertex(9, "Z")).isEmpty());
+        assertEquals(List.of(lv0.get(0), lv0.get(1)), g1.shortestPath(lv0.get(0), lv0.get(1)));
+    }
+
+    @Test
+    public void testRangeNeighbours() {
+        Map<Vertex, Edge<Vertex>> neighbours = g3.getNeighbours(lv1.get("A"), 12);
+        Set<Vertex> expected = Set.of(lv1.get("B"), lv1.get("C"), lv1.get("D"), lv1.get("F"),
+                lv1.get("P"), lv1.get("W"), lv1.get("J"));
+        assertEquals(expected, neighbours.keySet());
+        assertEquals(new Edge<>(lv1.get("W"), lv1.get("J")), neighbours.get(lv1.get("J")));
+        assertEquals(new Edge<>(lv1.get("B"), lv1.get("D")), neighbours.get(lv1.get("D")));
+        assertTrue(g3.getNeighbours(lv1.get("A"), 2).isEmpty());
+
+        Map<Vertex, Map<Vertex, Edge<Vertex>>> batch = g3.getNeighbours(Map.of(lv1.get("A"), 12, lv1.get("G"), 51));
+        assertEquals(neighbours, batch.get(lv1.get("A")));
+        assertEquals(Set.of(lv1.get("H"), lv1.get("I")), batch.get(lv1.get("G")).keySet());
+    }
+
+    @Test
+    public void testDiameterAndCenter() {
+        assertEquals(bruteForceDiameter(g3, lv1.values()), g3.diameter());
+        assertEquals(bruteForceCenter(g3, new ArrayList<>(lv1.values())), g3.getCenter());
+        assertEquals(0, g2.diameter());
+        assertNull(g2.getCenter());
+    }
+
+    @Test
+    public void testDiameterAndCenterLargestComponent() {
+        /* g5 splits into the 17 vertex component around A, J-K-L-M-N-O and G-H-I */
+        List<Vertex> largest = new ArrayList<>();
+        for (Vertex v : lv1.values()) {
+            if (!g5.shortestPath(lv1.get("A"), v).isEmpty()) {
+                largest.add(v);
+            }
+        }
+        assertEquals(17, largest.size());
+        assertEquals(bruteForceDiameter(g5, largest), g5.diameter());
+        assertEquals(bruteForceCenter(g5, largest), g5.getCenter());
+        assertEquals(5, g1.diameter());
+    }
+
+    @Test
+    public void testDiameterDoesNotTrackComponents() {
+        /* diameter must not start tracking components, the tracker would miss mutations made to the storage */
+        ALGraph<Vertex, Edge<Vertex>> storage = new ALGraph<>();
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>(storage);
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        g.addVertex(a);
+        g.addVertex(b);
+        g.addEdge(new Edge<>(a, b, 4));
+        assertEquals(4, g.diameter());
+        assertEquals(a, g.getCenter());
+
+        storage.addVertex(c);
+        storage.addEdge(new Edge<>(b, c, 3));
+        assertEquals(1, g.componentCount());
+        assertEquals(7, g.diameter());
+        assertEquals(b, g.getCenter());
+    }
+
+    private static int eccentricity(Graph<Vertex, Edge<Vertex>> g, Vertex v, Collection<Vertex> component) {
+        int eccentricity = 0;
+        for (Vertex w : component) {
+            eccentricity = Math.max(eccentricity, g.pathLength(g.shortestPath(v, w)));
+        }
+        return eccentricity;
+    }
+
+    private static int bruteForceDiameter(Graph<Vertex, Edge<Vertex>> g, Collection<Vertex> component) {
+        int diameter = 0;
+        for (Vertex v : component) {
+            diameter = Math.max(diameter, eccentricity(g, v, component));
+        }
+        return diameter;
+    }
+
+    private static Vertex bruteForceCenter(Graph<Vertex, Edge<Vertex>> g, List<Vertex> component) {
+        List<Vertex> ordered = new ArrayList<>(component);
+        ordered.sort(Comparator.comparingInt(Vertex::id));
+        Vertex center = null;
+        int radius = Integer.MAX_VALUE;
+        for (Vertex v : ordered) {
+            int eccentricity = eccentricity(g, v, component);
+            if (eccentricity < radius) {
+                radius = eccentricity;
+                center = v;
+            }
+        }
+        return center;
+    }
+
+    @Test
+    public void testIncrementalComponents() {
+        Random rng = new Random(9);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            vertices.add(new Vertex(i, "v" + i));
+        }
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        vertices.subList(0, 40).forEach(g::addVertex);
+        assertEquals(40, g.componentCount());
+
+        for (int step = 0; step < 600; step++) {
+            Vertex v1 = vertices.get(rng.nextInt(vertices.size()));
+            Vertex v2 = vertices.get(rng.nextInt(vertices.size()));
+            int action = rng.nextInt(10);
+            if (action < 5) {
+                if (!v1.equals(v2) && g.vertex(v1) && g.vertex(v2)) {
+                    g.addEdge(new Edge<>(v1, v2, 1 + rng.nextInt(9)));
+                }
+            } else if (action < 8) {
+                if (g.edge(v1, v2)) {
+                    g.remove(g.getEdge(v1, v2));
+                }
+            } else if (action < 9) {
+                g.addVertex(v1);
+            } else {
+                g.remove(v1);
+            }
+
+            if (step % 7 == 0) {
+                List<Set<Vertex>> components = bruteForceComponents(g);
+                assertEquals(components.size(), g.componentCount());
+                for (Set<Vertex> component : components) {
+                    Vertex first = component.iterator().next();
+                    assertEquals(component, g.component(first));
+                    assertTrue(g.connected(first, first));
+                }
+                int largest = components.stream().mapToInt(Set::size).max().orElse(0);
+                assertEquals(largest, g.largestComponent().size());
+            }
+        }
+        assertFalse(g.connected(vertices.get(0), new Vertex(99, "absent")));
+        assertTrue(g.component(new Vertex(99, "absent")).isEmpty());
+    }
+
+    @Test
+    public void testComponentsOfLongPath() {
+        /* deep enough to overflow the thread stack with a recursive search */
+        int n = 200_000;
+        Graph<Vertex, Edge<Vertex>> g = new Graph<>();
+        Vertex previous = new Vertex(0, "p0");
+        g.addVertex(previous);
+        for (int i = 1; i < n; i++) {
+            Vertex v = new Vertex(i, "p" + i);
+            g.addVertex(v);
+            g.addEdge(new Edge<>(previous, v, 1));
+            previous = v;
+        }
+        assertEquals(1, g.componentCount());
+        assertEquals(n - 1, g.diameter());
+
+        g.remove(g.getEdge(new Vertex(99, "p99"), new Vertex(100, "p100")));
+        assertEquals(2, g.componentCount());
+        assertEquals(n - 100, g.largestComponent().size());
+        assertEquals(n - 101, g.diameter());
+    }
+
+    @Test
+    public void testForEachNeighbourMatchesGetNeighbours() {
+        List<MGraph<Vertex, Edge<Vertex>>> backends = List.of(
+                new ALGraph<>(), new AMGraph<>(), new CompactAMGraph<>(lv1.size()));
+        for (MGraph<Vertex, Edge<Vertex>> backend : backends) {
+            lv1.values().forEach(backend::addVertex);
+            le2.forEach(backend::addEdge);
+        }
+        List<MGraph<Vertex, Edge<Vertex>>> graphs = new ArrayList<>(backends);
+        graphs.add(g3);
+        graphs.add(new CsrGraph<>(g3));
+
+        for (MGraph<Vertex, Edge<Vertex>> graph : graphs) {
+            for (Vertex v : lv1.values()) {
+                Map<Vertex, Edge<Vertex>> visited = new HashMap<>();
+                graph.forEachNeighbour(v, (w, e) -> assertNull(visited.put(w, e)));
+                assertEquals(g3.getNeighbours(v), visited);
+                for (Map.Entry<Vertex, Edge<Vertex>> entry : visited.entrySet()) {
+                    assertEquals(g3.edgeLength(v, entry.getKey()), entry.getValue().length());
+                }
+            }
+            graph.forEachNeighbour(new Vertex(99, "absent"), (w, e) -> fail());
+        }
+    }
+
+    private static List<Set<Vertex>> bruteForceComponents(Graph<Vertex, Edge<Vertex>> g) {
+        List<Set<Vertex>> components = new ArrayList<>();
+        Set<Vertex> seen = new HashSet<>();
+        for (Vertex start : g.allVertices()) {
+            if (!seen.add(start)) {
+                continue;
+            }
+            Set<Vertex> component = new HashSet<>();
+            Deque<Vertex> stack = new ArrayDeque<>(List.of(start));
+            while (!stack.isEmpty()) {
+                Vertex v = stack.pop();
+                component.add(v);
+                for (Vertex w : g.getNeighbours(v).keySet()) {
+                    if (seen.add(w)) {
+                        stack.push(w);
+                    }
+                }
+            }
+            components.add(component);
+        }
+        return components;
+    }
+
     @Test
     public void testMSC1() {
         var msc1 = g2.minimumSpanningComponents(1);
@@ -0,0 +1,134 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.time.Duration;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntGraphTest {
+
+    @Test
+    void testBasicOperations() {
+        IntGraph graph = new IntGraph();
+        assertTrue(graph.addVertex(-5));
+        assertTrue(graph.addVertex(0));
+        assertTrue(graph.addVertex(7));
+        assertFalse(graph.addVertex(0));
+
+        assertTrue(graph.addEdge(-5, 0, 3));
+        assertTrue(graph.addEdge(0, 7, 4));
+        assertFalse(graph.addEdge(7, 0, 9));
+        assertFalse(graph.addEdge(7, 8, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(7, 7, 1));
+        assertThrows(IllegalArgumentException.class, () -> graph.addEdge(-5, 7, -1));
+
+        assertEquals(3, graph.edgeLength(0, -5));
+        assertEquals(-1, graph.edgeLength(-5, 7));
+        assertEquals(2, graph.edgeCount());
+        assertEquals(7, graph.edgeLengthSum());
+        assertEquals(2, graph.degree(0));
+
+        Map<Integer, Integer> neighbours = new HashMap<>();
+        graph.forEachNeighbour(0, neighbours::put);
+        assertEquals(Map.of(-5, 3, 7, 4), neighbours);
+
+        assertArrayEquals(new int[]{-5, 0, 7}, graph.shortestPath(-5, 7));
+        assertArrayEquals(new int[]{7}, graph.shortestPath(7, 7));
+        assertArrayEquals(new int[0], graph.shortestPath(7, 100));
+
+        assertTrue(graph.removeEdge(7, 0));
+        assertFalse(graph.removeEdge(7, 0));
+        assertArrayEquals(new int[0], graph.shortestPath(-5, 7));
+
+        assertTrue(graph.removeVertex(0));
+        assertFalse(graph.vertex(0));
+        assertEquals(0, graph.edgeCount());
+        assertEquals(0, graph.degree(-5));
+        assertTrue(graph.addVertex(11));
+        assertTrue(graph.addEdge(11, -5, 2));
+        assertArrayEquals(new int[]{-5, 11}, graph.shortestPath(-5, 11));
+    }
+
+    @Test
+    void testMatchesGraph() {
+        Random rng = new Random(14);
+        List<Vertex> vertices = new ArrayList<>();
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        for (int i = 0; i < 300; i++) {
+            Vertex v = new Vertex(i * 3, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < 900; i++) {
+            Vertex a = vertices.get(rng.nextInt(vertices.size()));
+            Vertex b = vertices.get(rng.nextInt(vertices.size()));
+            if (!a.equals(b)) {
+                graph.addEdge(new Edge<>(a, b, rng.nextInt(40)));
+            }
+        }
+
+        IntGraph intGraph = IntGraph.from(graph);
+        assertEquals(graph.allVertices().size(), intGraph.vertexCount());
+        assertEquals(graph.allEdges().size(), intGraph.edgeCount());
+        assertEquals(graph.edgeLengthSum(), intGraph.edgeLengthSum());
+
+        Map<Integer, Vertex> byId = new HashMap<>();
+        vertices.forEach(v -> byId.put(v.id(), v));
+        for (int i = 0; i < 100; i++) {
+            Vertex source = vertices.get(rng.nextInt(vertices.size()));
+            Vertex sink = vertices.get(rng.nextInt(vertices.size()));
+            int[] path = intGraph.shortestPath(source.id(), sink.id());
+            List<Vertex> expected = graph.shortestPath(source, sink);
+            assertEquals(expected.size() == 0, path.length == 0);
+
+            List<Vertex> bridged = new ArrayList<>();
+            for (int id : path) {
+                bridged.add(byId.get(id));
+            }
+            assertEquals(graph.pathLength(expected), graph.pathLength(bridged));
+        }
+    }
+
+    @Test
+    void testHubEdgesInConstantTime() {
+        /* a linear scan of the hub's row makes loading it quadratic, about ten seconds for this many spokes */
+        int spokes = 200_000;
+        IntGraph graph = new IntGraph();
+        graph.addVertex(-1);
+        for (int i = 0; i < spokes; i++) {
+            graph.addVertex(i);
+        }
+        assertTimeout(Duration.ofSeconds(5), () -> {
+            for (int i = 0; i < spokes; i++) {
+                assertTrue(graph.addEdge(-1, i, i % 10));
+            }
+            for (int i = 0; i < spokes; i++) {
+                assertFalse(graph.addEdge(i, -1, 1));
+                assertEquals(i % 10, graph.edgeLength(-1, i));
+            }
+            for (int i = 0; i < spokes; i += 2) {
+                assertTrue(graph.removeEdge(i, -1));
+            }
+        });
+        assertEquals(spokes / 2, graph.degree(-1));
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i % 2 == 0 ? -1 : i % 10, graph.edgeLength(-1, i));
+            assertEquals(graph.edgeLength(-1, i), graph.edgeLength(i, -1));
+        }
+        assertTrue(graph.removeVertex(-1));
+        assertEquals(0, graph.edgeCount());
+        assertTrue(graph.addVertex(-1));
+        assertTrue(graph.addEdge(-1, 3, 4));
+        assertEquals(1, graph.degree(-1));
+        assertEquals(-1, graph.edgeLength(-1, 5));
+    }
+
+    @Test
+    void testDuplicateIdsRejected() {
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        graph.addVertex(new Vertex(1, "a"));
+        graph.addVertex(new Vertex(1, "b"));
+        assertThrows(IllegalArgumentException.class, () -> IntGraph.from(graph));
+    }
+}
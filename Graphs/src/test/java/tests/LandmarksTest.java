@@ -0,0 +1,134 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LandmarksTest {
+
+    @TempDir
+    Path directory;
+
+    private static Graph<Vertex, Edge<Vertex>> randomGraph(List<Vertex> vertices, int count, int edges, long seed) {
+        Random rng = new Random(seed);
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        for (int i = 0; i < count; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        /* a ring keeps most vertices connected, the last ten are left to the random edges */
+        for (int i = 1; i < count - 10; i++) {
+            graph.addEdge(new Edge<>(vertices.get(i - 1), vertices.get(i), 1 + rng.nextInt(50)));
+        }
+        for (int i = 0; i < edges; i++) {
+            Vertex v = vertices.get(rng.nextInt(count));
+            Vertex w = vertices.get(rng.nextInt(count));
+            if (!v.equals(w)) {
+                graph.addEdge(new Edge<>(v, w, 1 + rng.nextInt(50)));
+            }
+        }
+        return graph;
+    }
+
+    @Test
+    void testBoundsAndGoalDirectedSearch() {
+        List<Vertex> vertices = new ArrayList<>();
+        Graph<Vertex, Edge<Vertex>> graph = randomGraph(vertices, 2000, 400, 25);
+        DijkstraEngine<Vertex, Edge<Vertex>> dijkstra = new DijkstraEngine<>(graph);
+        Random rng = new Random(250);
+
+        for (LandmarkSelection selection : LandmarkSelection.values()) {
+            Landmarks<Vertex> landmarks = graph.landmarks(8, selection);
+            assertEquals(8, new HashSet<>(landmarks.landmarks()).size());
+
+            DijkstraEngine<Vertex, Edge<Vertex>> alt = new DijkstraEngine<>(graph);
+            alt.setVerifyHeuristic(true);
+            long dijkstraSettled = 0;
+            long altSettled = 0;
+            for (int i = 0; i < 60; i++) {
+                Vertex v = vertices.get(rng.nextInt(vertices.size()));
+                Vertex w = vertices.get(rng.nextInt(vertices.size()));
+                List<Vertex> expected = dijkstra.shortestPath(v, w);
+                int distance = graph.pathLength(expected);
+                assertTrue(landmarks.lowerBound(v, w) <= distance);
+                assertTrue(landmarks.upperBound(v, w) >= distance);
+
+                List<Vertex> actual = alt.shortestPath(v, w, landmarks);
+                assertEquals(distance, graph.pathLength(actual));
+                dijkstraSettled += dijkstra.settledVertices();
+                altSettled += alt.settledVertices();
+            }
+            assertTrue(altSettled * 2 < dijkstraSettled, selection + ": " + altSettled + " vs " + dijkstraSettled);
+        }
+
+        Landmarks<Vertex> one = graph.landmarks(1, LandmarkSelection.FARTHEST);
+        assertEquals(0, one.lowerBound(vertices.get(3), vertices.get(3)));
+        assertEquals(0, one.upperBound(vertices.get(3), vertices.get(3)));
+        assertEquals(0, one.lowerBound(vertices.get(3), new Vertex(5000, "missing")));
+        assertEquals(Integer.MAX_VALUE, one.upperBound(vertices.get(3), new Vertex(5000, "missing")));
+        assertThrows(IllegalArgumentException.class, () -> graph.landmarks(0, LandmarkSelection.AVOID));
+    }
+
+    @Test
+    void testOneLandmarkPerComponentFirst() {
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        Vertex d = new Vertex(4, "d");
+        Vertex e = new Vertex(5, "e");
+        for (Vertex v : List.of(a, b, c, d, e)) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(new Edge<>(a, b, 2));
+        graph.addEdge(new Edge<>(b, c, 3));
+        graph.addEdge(new Edge<>(d, e, 4));
+
+        for (LandmarkSelection selection : LandmarkSelection.values()) {
+            Landmarks<Vertex> landmarks = graph.landmarks(2, selection);
+            assertEquals(List.of(c, e), landmarks.landmarks());
+            assertEquals(Integer.MAX_VALUE, landmarks.lowerBound(a, d));
+            assertEquals(0, landmarks.estimate(a, d));
+            assertEquals(5, landmarks.lowerBound(a, c));
+            assertEquals(3, landmarks.lowerBound(b, c));
+            assertEquals(5, landmarks.upperBound(a, c));
+            assertEquals(5, graph.landmarks(10, selection).landmarks().size());
+        }
+    }
+
+    @Test
+    void testSaveAndLoad() throws IOException {
+        List<Vertex> vertices = new ArrayList<>();
+        Graph<Vertex, Edge<Vertex>> graph = randomGraph(vertices, 300, 100, 26);
+        Landmarks<Vertex> landmarks = graph.landmarks(4, LandmarkSelection.AVOID);
+        Path file = directory.resolve("landmarks.alt");
+        landmarks.save(file);
+        assertEquals(16 + 4 * (2 * 300 + 4 + 4 * 300), Files.size(file));
+
+        Landmarks<Vertex> loaded = Landmarks.load(file, graph);
+        assertEquals(landmarks.landmarks(), loaded.landmarks());
+        Random rng = new Random(260);
+        for (int i = 0; i < 200; i++) {
+            Vertex v = vertices.get(rng.nextInt(vertices.size()));
+            Vertex w = vertices.get(rng.nextInt(vertices.size()));
+            assertEquals(landmarks.lowerBound(v, w), loaded.lowerBound(v, w));
+            assertEquals(landmarks.upperBound(v, w), loaded.upperBound(v, w));
+        }
+
+        graph.remove(vertices.get(7));
+        graph.addVertex(new Vertex(7, "renamed"));
+        assertThrows(IOException.class, () -> Landmarks.load(file, graph));
+        graph.remove(new Vertex(7, "renamed"));
+        assertThrows(IOException.class, () -> Landmarks.load(file, graph));
+
+        Path garbage = directory.resolve("garbage.alt");
+        Files.write(garbage, new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16, 17});
+        assertThrows(IOException.class, () -> Landmarks.load(garbage, graph));
+    }
+}
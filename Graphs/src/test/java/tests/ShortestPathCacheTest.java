@@ -0,0 +1,112 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShortestPathCacheTest {
+
+    @Test
+    void testHitsMissesAndInvalidation() {
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        Vertex d = new Vertex(4, "d");
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        for (Vertex v : List.of(a, b, c, d)) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(new Edge<>(a, b, 1));
+        graph.addEdge(new Edge<>(b, c, 1));
+        graph.addEdge(new Edge<>(a, c, 5));
+        ShortestPathCache<Vertex, Edge<Vertex>> cache = graph.enableShortestPathCache(8, 1 << 20);
+
+        assertEquals(List.of(a, b, c), graph.shortestPath(a, c));
+        assertEquals(List.of(a, b), graph.shortestPath(a, b));
+        assertEquals(List.of(), graph.shortestPath(a, d));
+        assertEquals(List.of(), graph.shortestPath(new Vertex(9, "z"), a));
+        assertEquals(2, cache.distance(a, c));
+        assertEquals(2, cache.misses());
+        assertEquals(3, cache.hits());
+        assertEquals(1, cache.size());
+
+        long version = graph.version();
+        assertFalse(graph.addEdge(new Edge<>(b, a, 3)));
+        assertEquals(version, graph.version());
+        assertTrue(graph.remove(new Edge<>(b, c)));
+        assertTrue(graph.version() > version);
+        assertEquals(List.of(a, c), graph.shortestPath(a, c));
+        assertEquals(1, cache.invalidations());
+        assertEquals(3, cache.misses());
+
+        graph.addEdge(new Edge<>(c, d, 1));
+        assertEquals(List.of(a, c, d), graph.shortestPath(a, d));
+        graph.disableShortestPathCache();
+        assertEquals(List.of(a, c, d), graph.shortestPath(a, d));
+    }
+
+    @Test
+    void testFollowsTheVersionsOfVersionedStorage() {
+        Vertex a = new Vertex(1, "a");
+        Vertex b = new Vertex(2, "b");
+        Vertex c = new Vertex(3, "c");
+        VersionedGraph<Vertex, Edge<Vertex>> storage = new VersionedGraph<>();
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>(storage);
+        for (Vertex v : List.of(a, b, c)) {
+            graph.addVertex(v);
+        }
+        graph.addEdge(new Edge<>(a, c, 5));
+        ShortestPathCache<Vertex, Edge<Vertex>> cache = graph.enableShortestPathCache(8, 1 << 20);
+        assertEquals(List.of(a, c), graph.shortestPath(a, c));
+        assertEquals(1, cache.misses());
+
+        /* mutations made to the storage directly publish new versions, which the cache follows */
+        storage.addEdge(new Edge<>(a, b, 1));
+        storage.addEdge(new Edge<>(b, c, 1));
+        assertEquals(List.of(a, b, c), graph.shortestPath(a, c));
+        assertEquals(1, cache.invalidations());
+        assertEquals(2, cache.misses());
+        assertEquals(List.of(a, b), graph.shortestPath(a, b));
+        assertEquals(1, cache.hits());
+    }
+
+    @Test
+    void testEvictsLeastRecentlyUsed() {
+        Random rng = new Random(21);
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>();
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+        }
+        for (int i = 0; i < 400; i++) {
+            Vertex v = vertices.get(rng.nextInt(100));
+            Vertex w = vertices.get(rng.nextInt(100));
+            if (!v.equals(w)) {
+                graph.addEdge(new Edge<>(v, w, rng.nextInt(30)));
+            }
+        }
+
+        ShortestPathCache<Vertex, Edge<Vertex>> cache = graph.enableShortestPathCache(3, Long.MAX_VALUE);
+        DijkstraEngine<Vertex, Edge<Vertex>> engine = new DijkstraEngine<>(graph);
+        for (int i = 0; i < 300; i++) {
+            Vertex source = vertices.get(rng.nextInt(5));
+            Vertex sink = vertices.get(rng.nextInt(100));
+            assertEquals(graph.pathLength(engine.shortestPath(source, sink)),
+                    graph.pathLength(graph.shortestPath(source, sink)));
+        }
+        assertEquals(3, cache.size());
+        assertEquals(300, cache.hits() + cache.misses());
+        assertEquals(cache.misses() - 3, cache.evictions());
+
+        graph.shortestPath(vertices.get(0), vertices.get(1));
+        ShortestPathCache<Vertex, Edge<Vertex>> small = graph.enableShortestPathCache(10, 1);
+        graph.shortestPath(vertices.get(0), vertices.get(1));
+        graph.shortestPath(vertices.get(1), vertices.get(0));
+        assertEquals(1, small.size());
+        assertEquals(1, small.evictions());
+        assertTrue(small.bytes() > 0);
+    }
+}
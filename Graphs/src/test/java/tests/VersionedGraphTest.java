@@ -0,0 +1,129 @@
+package tests;
+
+import graph.*;
+import org.junit.jupiter.api.*;
+import java.util.*;
+import java.util.concurrent.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class VersionedGraphTest {
+
+    @Test
+    void testSnapshotsKeepTheirVersion() {
+        Random rng = new Random(17);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            // pairs of vertices with equal hash codes
+            vertices.add(new Vertex(i, "v"));
+            vertices.add(new Vertex(i + 1, "u"));
+        }
+        ALGraph<Vertex, Edge<Vertex>> expected = new ALGraph<>();
+        VersionedGraph<Vertex, Edge<Vertex>> graph = new VersionedGraph<>();
+        Map<GraphSnapshot<Vertex, Edge<Vertex>>, CsrGraph<Vertex, Edge<Vertex>>> pinned = new HashMap<>();
+
+        for (int i = 0; i < 4000; i++) {
+            Vertex a = vertices.get(rng.nextInt(vertices.size()));
+            Vertex b = vertices.get(rng.nextInt(vertices.size()));
+            int op = rng.nextInt(20);
+            long version = graph.version();
+            boolean changed;
+            if (op == 0) {
+                changed = expected.remove(a);
+                assertEquals(changed, graph.remove(a));
+            } else if (op < 4) {
+                changed = expected.addVertex(a);
+                assertEquals(changed, graph.addVertex(a));
+            } else if (a.equals(b)) {
+                continue;
+            } else if (op < 8) {
+                Edge<Vertex> e = new Edge<>(a, b);
+                changed = expected.remove(e);
+                assertEquals(changed, graph.remove(e));
+            } else {
+                Edge<Vertex> e = new Edge<>(a, b, rng.nextInt(20));
+                changed = expected.addEdge(e);
+                assertEquals(changed, graph.addEdge(e));
+            }
+            assertEquals(changed ? version + 1 : version, graph.version());
+            if (i % 400 == 0) {
+                pinned.put(graph.snapshot(), new CsrGraph<>(expected));
+            }
+        }
+
+        assertEquals(expected.allVertices(), graph.allVertices());
+        assertEquals(expected.allEdges(), graph.allEdges());
+        assertEquals(expected.edgeLengthSum(), graph.edgeLengthSum());
+        for (Vertex v : vertices) {
+            assertEquals(expected.getNeighbours(v), graph.getNeighbours(v));
+        }
+
+        pinned.forEach((snapshot, copy) -> {
+            assertEquals(copy.allVertices(), snapshot.allVertices());
+            assertEquals(copy.allEdges(), snapshot.allEdges());
+            assertEquals(copy.edgeCount(), snapshot.edgeCount());
+            assertEquals(copy.edgeLengthSum(), snapshot.edgeLengthSum());
+            assertEquals(copy.diameter(), snapshot.diameter());
+            assertEquals(copy.getCenter(), snapshot.getCenter());
+            assertThrows(UnsupportedOperationException.class, () -> snapshot.addVertex(new Vertex(-1, "x")));
+        });
+    }
+
+    @Test
+    void testAnalyticsRunDuringIngestion() throws Exception {
+        VersionedGraph<Vertex, Edge<Vertex>> storage = new VersionedGraph<>();
+        Graph<Vertex, Edge<Vertex>> graph = new Graph<>(storage);
+        List<Vertex> vertices = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            Vertex v = new Vertex(i, "v" + i);
+            vertices.add(v);
+            graph.addVertex(v);
+            if (i > 0) {
+                graph.addEdge(new Edge<>(vertices.get(i - 1), v, 1));
+            }
+        }
+        ImGraph<Vertex, Edge<Vertex>> path = graph.snapshot();
+        GraphSnapshot<Vertex, Edge<Vertex>> pinned = storage.snapshot();
+        Set<Vertex> pinnedVertices = new HashSet<>(pinned.allVertices());
+        Set<Edge<Vertex>> pinnedEdges = new HashSet<>(pinned.allEdges());
+        Map<GraphSnapshot<Vertex, Edge<Vertex>>, Set<Edge<Vertex>>> seen = new HashMap<>();
+
+        ExecutorService writer = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> ingestion = writer.submit(() -> {
+                Random rng = new Random(17);
+                for (int i = 0; i < 3000; i++) {
+                    Vertex a = vertices.get(rng.nextInt(vertices.size()));
+                    Vertex b = vertices.get(rng.nextInt(vertices.size()));
+                    if (!a.equals(b)) {
+                        storage.addEdge(new Edge<>(a, b, 1));
+                    }
+                }
+            });
+            while (!ingestion.isDone()) {
+                GraphSnapshot<Vertex, Edge<Vertex>> snapshot = storage.snapshot();
+                Set<Edge<Vertex>> edges = new HashSet<>(snapshot.allEdges());
+                assertEquals(snapshot.edgeCount(), edges.size());
+                if (seen.size() < 20) {
+                    seen.putIfAbsent(snapshot, edges);
+                }
+                assertTrue(graph.diameter() <= 399);
+            }
+            ingestion.get(30, TimeUnit.SECONDS);
+        } finally {
+            writer.shutdownNow();
+        }
+
+        /* snapshots pinned before and during ingestion still hold exactly what they held then */
+        assertTrue(storage.snapshot().edgeCount() > 399);
+        assertEquals(pinnedVertices, pinned.allVertices());
+        assertEquals(pinnedEdges, pinned.allEdges());
+        assertEquals(399, pinned.edgeCount());
+        for (Map.Entry<GraphSnapshot<Vertex, Edge<Vertex>>, Set<Edge<Vertex>>> entry : seen.entrySet()) {
+            assertEquals(entry.getValue(), entry.getKey().allEdges());
+            assertEquals(entry.getValue().size(), entry.getKey().edgeCount());
+        }
+        assertEquals(399, path.diameter());
+        assertEquals(List.of(vertices.get(0), vertices.get(1), vertices.get(2)),
+                path.shortestPath(vertices.get(0), vertices.get(2)));
+    }
+}